@@ -4,9 +4,13 @@ import bcu.cmp5332.bookingsystem.auth.AuthService;
 import bcu.cmp5332.bookingsystem.data.BookingDataManager;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingLocks;
 import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.CustomerTier;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SeatMap;
+import bcu.cmp5332.bookingsystem.model.Waitlist;
 
 import java.io.IOException;
 import java.time.LocalDate;
@@ -21,24 +25,51 @@ import java.time.LocalDate;
  * </ul>
  *
  * <p>Capacity constraints are enforced using the safe passenger
- * addition mechanism provided by the Flight entity.</p>
+ * addition mechanism provided by the Flight entity. The fare is quoted by
+ * the system's pricing engine for the seat about to be taken.</p>
+ *
+ * <p>The booking gets the seat asked for, or else the first free seat in
+ * the flight's {@link SeatMap}. When the flight is full the customer joins
+ * its {@link Waitlist} instead, and is booked automatically once a seat is
+ * cancelled.</p>
+ *
+ * <p>The command holds only the booking locks of its customer and flight,
+ * so bookings for other customers and flights can run at the same time.</p>
+ *
+ * <p>A booking that cannot be saved is kept and written by the next full
+ * store. Unless persistence is {@code IMMEDIATE}, the write happens after
+ * the command returns and only the flusher reports its failure.</p>
  */
 public class AddBooking implements Command {
 
     private final int customerId;
     private final int flightId;
+    private final String seat;
     private final BookingDataManager bookingDataManager;
 
     /**
-     * Constructs an AddBooking command.
+     * Constructs an AddBooking command that assigns the first free seat.
      *
      * @param customerId target customer ID (ignored for customer role)
      * @param flightId target flight ID
      * @param bookingDataManager data manager for persistence
      */
     public AddBooking(int customerId, int flightId, BookingDataManager bookingDataManager) {
+        this(customerId, flightId, null, bookingDataManager);
+    }
+
+    /**
+     * Constructs an AddBooking command for a specific seat.
+     *
+     * @param customerId target customer ID (ignored for customer role)
+     * @param flightId target flight ID
+     * @param seat seat label such as "12C", or null for the first free seat
+     * @param bookingDataManager data manager for persistence
+     */
+    public AddBooking(int customerId, int flightId, String seat, BookingDataManager bookingDataManager) {
         this.customerId = customerId;
         this.flightId = flightId;
+        this.seat = seat;
         this.bookingDataManager = bookingDataManager;
     }
 
@@ -49,49 +80,96 @@ public class AddBooking implements Command {
      * @throws FlightBookingSystemException if validation or persistence fails
      */
     @Override
+    @SuppressWarnings("try")
     public void execute(FlightBookingSystem fbs) throws FlightBookingSystemException {
 
         AuthService.requireLogin();
 
-        Customer customer;
-        if (AuthService.isAdmin()) {
-            customer = fbs.getCustomerByID(customerId);
-        } else {
-            customer = AuthService.currentCustomer();
-        }
+        int bookingCustomerId = AuthService.isAdmin() ? customerId : AuthService.currentCustomer().getId();
 
-        Flight flight = fbs.getFlightByID(flightId);
+        try (BookingLocks.Guard guard = bookingDataManager.lock(fbs, bookingCustomerId, flightId)) {
+            Customer customer = fbs.getCustomerByID(bookingCustomerId);
+            Flight flight = fbs.getFlightByID(flightId);
 
-        if (flight.isDeleted()) {
-            throw new FlightBookingSystemException("Cannot book a deleted flight.");
-        }
+            if (flight.isDeleted()) {
+                throw new FlightBookingSystemException("Cannot book a deleted flight.");
+            }
+
+            if (customer.isDeleted()) {
+                throw new FlightBookingSystemException("Cannot make booking for a deleted customer.");
+            }
 
-        if (customer.isDeleted()) {
-            throw new FlightBookingSystemException("Cannot make booking for a deleted customer.");
+            if (fbs.getBooking(customer.getId(), flight.getId()) != null) {
+                throw new FlightBookingSystemException("Customer already has a booking on this flight.");
+            }
+
+            SeatMap seats = flight.getSeatMap();
+            int requestedSeat = seat == null ? SeatMap.NO_SEAT : seats.seatOf(seat);
+
+            double fare = fbs.getPricing().quote(flight);
+            boolean added = flight.addPassengerSafe(customer);
+            if (!added) {
+                joinWaitlist(fbs, customer, flight);
+                return;
+            }
+
+            int assignedSeat;
+            if (requestedSeat == SeatMap.NO_SEAT) {
+                // NO_SEAT only if seats were lost to a capacity cut
+                assignedSeat = seats.assignAdjacent(1);
+            } else if (seats.assign(requestedSeat)) {
+                assignedSeat = requestedSeat;
+            } else {
+                flight.removePassenger(customer);
+                throw new FlightBookingSystemException("Seat " + seats.label(requestedSeat) + " is already taken.");
+            }
+
+            Booking booking = new Booking(customer, flight, LocalDate.now());
+            booking.setSeat(assignedSeat);
+            customer.addBooking(booking);
+            fbs.addBooking(booking);
+
+            System.out.println("Booking successful! Booking ID: " + booking.getId());
+            if (assignedSeat != SeatMap.NO_SEAT) {
+                System.out.println("Seat: " + booking.getSeatLabel());
+            }
+            System.out.println("Fare: $" + String.format("%.2f", fare));
+            System.out.println("Seats remaining: " + flight.getAvailableSeats());
+
+            try {
+                bookingDataManager.recordAdd(fbs, booking);
+            } catch (IOException e) {
+                System.out.println("Error saving booking: " + e.getMessage());
+            }
         }
+    }
 
-        boolean added = flight.addPassengerSafe(customer);
-        if (!added) {
+    private void joinWaitlist(FlightBookingSystem fbs, Customer customer, Flight flight)
+            throws FlightBookingSystemException {
+        Waitlist waitlist = flight.getWaitlist();
+        Waitlist.Entry entry = waitlist.add(customer, System.currentTimeMillis(), CustomerTier.of(customer));
+        if (entry == null) {
             throw new FlightBookingSystemException(
-                    "Flight " + flight.getFlightNumber() +
-                            " is at full capacity (" + flight.getCapacity() + " seats)."
+                    "Flight " + flight.getFlightNumber() + " is full and the customer is already on its waitlist."
             );
         }
 
-        Booking booking = new Booking(customer, flight, LocalDate.now());
-        customer.addBooking(booking);
-        fbs.addBooking(booking);
-
-        System.out.println("Booking successful! Booking ID: " + booking.getId());
-        System.out.println("Seats remaining: " + flight.getAvailableSeats());
-
         try {
-            bookingDataManager.storeData(fbs);
+            bookingDataManager.recordJoin(fbs, flight, entry);
         } catch (IOException e) {
-            customer.getBookings().remove(booking);
-            flight.removePassenger(customer);
-            fbs.removeBooking(booking);
-            throw new FlightBookingSystemException("Error saving booking: " + e.getMessage());
+            System.out.println("Error saving waitlist: " + e.getMessage());
         }
+
+        System.out.println(
+                "Flight " + flight.getFlightNumber() + " is at full capacity (" + flight.getCapacity() + " seats)."
+        );
+        System.out.println("Added to the waitlist at position " + waitlist.positionOf(customer.getId())
+                + " (" + entry.getTier() + " tier).");
+    }
+
+    // holds only the booking locks, see execute
+    @Override
+    public void executeLocked(FlightBookingSystem fbs) throws FlightBookingSystemException {
+        execute(fbs);
     }
 }
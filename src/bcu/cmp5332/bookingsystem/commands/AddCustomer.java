@@ -3,11 +3,14 @@ package bcu.cmp5332.bookingsystem.commands;
 import bcu.cmp5332.bookingsystem.auth.AuthService;
 import bcu.cmp5332.bookingsystem.auth.PasswordUtil;
 import bcu.cmp5332.bookingsystem.data.CustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.PersistenceService;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.IdAllocator;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * Command to add a new customer to the Flight Booking System.
@@ -64,16 +67,19 @@ public class AddCustomer implements Command {
 
         AuthService.requireAdmin();
 
-        int maxId = 0;
-        for (Customer c : fbs.getCustomers().values()) {
-            if (c.getId() > maxId)
-            if (username.equalsIgnoreCase(c.getEmail())) {
-                throw new FlightBookingSystemException("Username already exists.");
-            }
+        if (fbs.getCustomerByEmail(username) != null) {
+            throw new FlightBookingSystemException("Username already exists.");
+        }
+
+        int id;
+        try {
+            id = IdAllocator.CUSTOMERS.next();
+        } catch (UncheckedIOException e) {
+            throw new FlightBookingSystemException("Error reserving customer ID: " + e.getCause().getMessage());
         }
 
         Customer customer = new Customer(
-                ++maxId,
+                id,
                 name,
                 phone,
                 email,
@@ -84,7 +90,7 @@ public class AddCustomer implements Command {
         System.out.println("Customer #" + customer.getId() + " added.");
 
         try {
-            customerDataManager.storeData(fbs);
+            PersistenceService.store(customerDataManager, fbs);
         } catch (IOException e) {
             throw new FlightBookingSystemException("Error saving customers: " + e.getMessage());
         }
@@ -1,11 +1,14 @@
 package bcu.cmp5332.bookingsystem.commands;
 
 import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.data.PersistenceService;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.IdAllocator;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 
 /**
@@ -52,19 +55,20 @@ public class AddFlight implements Command {
      */
     @Override
     public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        int maxId = 0;
-        if (flightBookingSystem.getFlights().size() > 0) {
-            int lastIndex = flightBookingSystem.getFlights().size() - 1;
-            maxId = flightBookingSystem.getFlights().get(lastIndex).getId();
+        int id;
+        try {
+            id = IdAllocator.FLIGHTS.next();
+        } catch (UncheckedIOException e) {
+            throw new FlightBookingSystemException("Error reserving flight ID: " + e.getCause().getMessage());
         }
 
-        Flight flight = new Flight(++maxId, flightNumber, origin, destination, departureDate, capacity, price);
+        Flight flight = new Flight(id, flightNumber, origin, destination, departureDate, capacity, price);
         flightBookingSystem.addFlight(flight);
         System.out.println("Flight #" + flight.getId() + " added.");
 
         // Save immediately after adding
         try {
-            flightDataManager.storeData(flightBookingSystem);
+            PersistenceService.store(flightDataManager, flightBookingSystem);
         } catch (IOException e) {
             System.out.println("Error saving flights: " + e.getMessage());
         }
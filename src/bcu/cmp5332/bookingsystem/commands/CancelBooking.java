@@ -3,11 +3,13 @@ package bcu.cmp5332.bookingsystem.commands;
 import bcu.cmp5332.bookingsystem.data.BookingDataManager;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingLocks;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
 import java.io.IOException;
+import java.util.List;
 
 public class CancelBooking implements Command {
 
@@ -22,37 +24,76 @@ public class CancelBooking implements Command {
     }
 
     @Override
+    @SuppressWarnings("try")
     public void execute(FlightBookingSystem fbs) throws FlightBookingSystemException {
 
-        Customer customer = fbs.getCustomerByID(customerId);
-        Flight flight = fbs.getFlightByID(flightId);
+        try (BookingLocks.Guard guard = bookingDataManager.lock(fbs, customerId, flightId)) {
+            Customer customer = fbs.getCustomerByID(customerId);
+            Flight flight = fbs.getFlightByID(flightId);
 
-        Booking bookingToRemove = null;
+            Booking bookingToRemove = fbs.getBooking(customerId, flightId);
 
-        for (Booking b : customer.getBookings()) {
-            if (b.getFlight().getId() == flightId) {
-                bookingToRemove = b;
-                break;
+            if (bookingToRemove == null) {
+                leaveWaitlist(fbs, customer, flight);
+                return;
+            }
+
+            // ✅ REMOVE FROM CUSTOMER
+            customer.getBookings().remove(bookingToRemove);
+
+            // ✅ REMOVE FROM FLIGHT
+            flight.removePassenger(customer);
+            fbs.removeBooking(bookingToRemove);
+
+            System.out.println("Booking cancelled successfully.");
+
+            // ✅ Save bookings immediately
+            try {
+                bookingDataManager.recordCancel(fbs, bookingToRemove);
+            } catch (IOException e) {
+                System.out.println("Error saving bookings: " + e.getMessage());
             }
         }
 
-        if (bookingToRemove == null) {
+        // after the locks are released: promoting takes the locks of other customers
+        promoteWaitlisted(fbs, bookingDataManager, flightId);
+    }
+
+    private void leaveWaitlist(FlightBookingSystem fbs, Customer customer, Flight flight)
+            throws FlightBookingSystemException {
+        if (flight.getWaitlist().remove(customer.getId()) == null) {
             throw new FlightBookingSystemException("Booking not found.");
         }
 
-        // ✅ REMOVE FROM CUSTOMER
-        customer.getBookings().remove(bookingToRemove);
-
-        // ✅ REMOVE FROM FLIGHT
-        flight.removePassenger(customer);
+        System.out.println("Removed from the waitlist of flight " + flight.getFlightNumber() + ".");
 
-        System.out.println("Booking cancelled successfully.");
+        try {
+            bookingDataManager.recordLeave(fbs, flight, customer);
+        } catch (IOException e) {
+            System.out.println("Error saving waitlist: " + e.getMessage());
+        }
+    }
 
-        // ✅ Save bookings immediately
+    /**
+     * Books waiting customers into the seats freed on a flight and reports
+     * them. Must be called without holding any booking lock.
+     */
+    static void promoteWaitlisted(FlightBookingSystem fbs, BookingDataManager bookingDataManager, int flightId)
+            throws FlightBookingSystemException {
         try {
-            bookingDataManager.storeData(fbs);
+            List<Booking> promoted = bookingDataManager.promoteWaitlisted(fbs, flightId);
+            for (Booking booking : promoted) {
+                System.out.println("Customer " + booking.getCustomer().getId() + " promoted from the waitlist"
+                        + " (booking ID " + booking.getId() + ", seat " + booking.getSeatLabel() + ").");
+            }
         } catch (IOException e) {
             System.out.println("Error saving bookings: " + e.getMessage());
         }
     }
+
+    // holds only the booking locks, see execute
+    @Override
+    public void executeLocked(FlightBookingSystem fbs) throws FlightBookingSystemException {
+        execute(fbs);
+    }
 }
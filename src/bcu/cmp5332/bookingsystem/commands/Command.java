@@ -1,6 +1,7 @@
 package bcu.cmp5332.bookingsystem.commands;
 
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.BookingLocks;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
 public interface Command {
@@ -8,18 +9,39 @@ public interface Command {
     public static final String HELP_MESSAGE = "Commands:\n"
         + "\tlistflights                               print all flights\n"
         + "\tlistcustomers                             print all customers\n"
+        + "\tsearchflights [origin] [dest] [from] [to] find flights on a route (dates optional)\n"
+        + "\tsearchitinerary [origin] [dest] [from] [to] find connecting flights (dates optional)\n"
+        + "\tfarecalendar [origin] [dest] [from] [to]  lowest fare and seats left per day (dates optional)\n"
         + "\taddflight                                 add a new flight\n"
         + "\taddcustomer                               add a new customer\n"
         + "\tshowflight [flight id]                    show flight details\n"
         + "\tshowcustomer [customer id]                show customer details\n"
-        + "\taddbooking [customer id] [flight id]      add a new booking\n"
-        + "\tcancelbooking [customer id] [flight id]   cancel a booking\n"
+        + "\taddbooking [customer id] [flight id] [seat] add a new booking (seat optional, e.g. 12C; joins the waitlist if full)\n"
+        + "\tcancelbooking [customer id] [flight id]   cancel a booking or leave the waitlist\n"
         + "\teditbooking [booking id] [flight id]      update a booking\n"
+        + "\tholdseat [customer id] [flight id] [seat] hold a seat for 10 minutes (seat optional)\n"
+        + "\tconfirmhold [hold id]                     book a held seat\n"
+        + "\treleasehold [hold id]                     give up a held seat\n"
         + "\tloadgui                                   loads the GUI version of the app\n"
         + "\thelp                                      prints this help message\n"
         + "\texit                                      exits the program";
 
     
     public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException;
+
+    /**
+     * Executes the command while holding the locks it needs. By default the
+     * command has the whole system to itself; booking commands lock only
+     * their customer and flights, so they can run in parallel.
+     *
+     * @param flightBookingSystem the system to run against
+     * @throws FlightBookingSystemException if the command fails
+     */
+    @SuppressWarnings("try")
+    public default void executeLocked(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+        try (BookingLocks.Guard guard = flightBookingSystem.getLocks().exclusive()) {
+            execute(flightBookingSystem);
+        }
+    }
     
 }
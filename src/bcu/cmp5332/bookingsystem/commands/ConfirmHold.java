@@ -0,0 +1,84 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingLocks;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SeatHolds;
+import bcu.cmp5332.bookingsystem.model.SeatMap;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Command to turn a seat hold into a booking for the held seat.
+ *
+ * <p>Administrators may confirm any hold, customers only their own. As with
+ * {@link AddBooking}, a booking that cannot be saved is kept rather than
+ * rolled back.</p>
+ */
+public class ConfirmHold implements Command {
+
+    private final int holdId;
+    private final BookingDataManager bookingDataManager;
+
+    /**
+     * Constructs a ConfirmHold command.
+     *
+     * @param holdId the hold ID
+     * @param bookingDataManager data manager for persistence
+     */
+    public ConfirmHold(int holdId, BookingDataManager bookingDataManager) {
+        this.holdId = holdId;
+        this.bookingDataManager = bookingDataManager;
+    }
+
+    @Override
+    @SuppressWarnings("try")
+    public void execute(FlightBookingSystem fbs) throws FlightBookingSystemException {
+
+        SeatHolds.Hold hold = ReleaseHold.findOwnHold(fbs, holdId);
+        Customer customer = hold.getCustomer();
+        Flight flight = hold.getFlight();
+
+        try (BookingLocks.Guard guard = bookingDataManager.lock(fbs, customer.getId(), flight.getId())) {
+            if (flight.isDeleted()) {
+                fbs.getHolds().release(holdId);
+                throw new FlightBookingSystemException("Cannot book a deleted flight.");
+            }
+
+            if (customer.isDeleted()) {
+                fbs.getHolds().release(holdId);
+                throw new FlightBookingSystemException("Cannot make booking for a deleted customer.");
+            }
+
+            // fails if the hold expired meanwhile
+            fbs.getHolds().confirm(holdId);
+
+            Booking booking = new Booking(customer, flight, LocalDate.now());
+            booking.setSeat(hold.getSeat());
+            customer.addBooking(booking);
+            fbs.addBooking(booking);
+
+            System.out.println("Booking successful! Booking ID: " + booking.getId());
+            if (hold.getSeat() != SeatMap.NO_SEAT) {
+                System.out.println("Seat: " + booking.getSeatLabel());
+            }
+
+            try {
+                bookingDataManager.recordAdd(fbs, booking);
+            } catch (IOException e) {
+                System.out.println("Error saving booking: " + e.getMessage());
+            }
+        }
+    }
+
+    // holds only the booking locks, see execute
+    @Override
+    public void executeLocked(FlightBookingSystem fbs) throws FlightBookingSystemException {
+        execute(fbs);
+    }
+}
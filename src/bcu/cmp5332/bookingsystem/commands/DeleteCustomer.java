@@ -1,6 +1,7 @@
 package bcu.cmp5332.bookingsystem.commands;
 
 import bcu.cmp5332.bookingsystem.data.CustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.PersistenceService;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
@@ -42,17 +43,17 @@ public class DeleteCustomer implements Command {
         }
         
         // Soft delete - just mark as deleted
-        customer.setDeleted(true);
+        fbs.deleteCustomer(customer);
         
         System.out.println("Customer #" + customerId + " (" + customer.getName() + ") has been deleted (hidden from system).");
         
-        // Save changes immediately
+        // The delete is kept if it cannot be saved; the customer stays marked
+        // changed, so the next store writes it. Unless persistence is
+        // IMMEDIATE, only the flusher reports a failure.
         try {
-            customerDataManager.storeData(fbs);
+            PersistenceService.store(customerDataManager, fbs);
         } catch (IOException e) {
-            // Rollback the delete
-            customer.setDeleted(false);
-            throw new FlightBookingSystemException("Error saving customer deletion: " + e.getMessage());
+            System.out.println("Error saving customer deletion: " + e.getMessage());
         }
     }
 }
@@ -1,6 +1,7 @@
 package bcu.cmp5332.bookingsystem.commands;
 
 import bcu.cmp5332.bookingsystem.data.FlightDataManager;
+import bcu.cmp5332.bookingsystem.data.PersistenceService;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
@@ -42,17 +43,17 @@ public class DeleteFlight implements Command {
         }
         
         // Soft delete - just mark as deleted
-        flight.setDeleted(true);
+        fbs.deleteFlight(flight);
         
         System.out.println("Flight #" + flightId + " has been deleted (hidden from system).");
         
-        // Save changes immediately
+        // The delete is kept if it cannot be saved; the flight stays marked
+        // changed, so the next store writes it. Unless persistence is
+        // IMMEDIATE, only the flusher reports a failure.
         try {
-            flightDataManager.storeData(fbs);
+            PersistenceService.store(flightDataManager, fbs);
         } catch (IOException e) {
-            // Rollback the delete
-            flight.setDeleted(false);
-            throw new FlightBookingSystemException("Error saving flight deletion: " + e.getMessage());
+            System.out.println("Error saving flight deletion: " + e.getMessage());
         }
     }
 }
@@ -3,11 +3,19 @@ package bcu.cmp5332.bookingsystem.commands;
 import bcu.cmp5332.bookingsystem.data.BookingDataManager;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.BookingLocks;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
 import java.io.IOException;
 
+/**
+ * Command to move a booking to another flight.
+ *
+ * <p>The seat on the new flight is reserved the same way {@link AddBooking}
+ * reserves one, so a full flight is never overbooked. The booking only
+ * leaves its old flight once that seat is secured.</p>
+ */
 public class EditBooking implements Command {
 
     private final int bookingId;
@@ -21,29 +29,67 @@ public class EditBooking implements Command {
     }
 
     @Override
+    @SuppressWarnings("try")
     public void execute(FlightBookingSystem fbs) throws FlightBookingSystemException {
 
         Booking booking = fbs.getBookingById(bookingId);
-        if (booking == null) {
-            throw new FlightBookingSystemException("Booking not found.");
-        }
+        Flight oldFlight;
 
-        Flight oldFlight = booking.getFlight();
-        Flight newFlight = fbs.getFlightByID(newFlightId);
+        while (true) {
+            // both flights are locked together, in a fixed order, so two
+            // opposite moves cannot deadlock
+            oldFlight = booking.getFlight();
+            try (BookingLocks.Guard guard = bookingDataManager.lock(fbs, booking.getCustomer().getId(),
+                    oldFlight.getId(), newFlightId)) {
+                if (booking.getFlight() != oldFlight) {
+                    // moved by someone else before the locks were held
+                    continue;
+                }
+                if (fbs.getBooking(booking.getCustomer().getId(), oldFlight.getId()) != booking) {
+                    throw new FlightBookingSystemException("Booking not found.");
+                }
 
-        oldFlight.removePassenger(booking.getCustomer());
-        newFlight.addPassenger(booking.getCustomer());
+                if (newFlightId == oldFlight.getId()) {
+                    throw new FlightBookingSystemException("The booking is already on this flight.");
+                }
+                Flight newFlight = fbs.getFlightByID(newFlightId);
+                if (newFlight.isDeleted()) {
+                    throw new FlightBookingSystemException("Cannot move a booking to a deleted flight.");
+                }
+                if (newFlight.getDepartureDate().isBefore(fbs.getSystemDate())) {
+                    throw new FlightBookingSystemException(
+                            "Flight " + newFlight.getFlightNumber() + " has already departed.");
+                }
+                if (fbs.getBooking(booking.getCustomer().getId(), newFlight.getId()) != null) {
+                    throw new FlightBookingSystemException("Customer already has a booking on this flight.");
+                }
+                if (!newFlight.addPassengerSafe(booking.getCustomer())) {
+                    throw new FlightBookingSystemException(
+                            "Flight " + newFlight.getFlightNumber() + " is full.");
+                }
+                oldFlight.removePassenger(booking.getCustomer());
 
-        booking.setFlight(newFlight);
+                fbs.moveBooking(booking, newFlight);
 
-        System.out.println(
-                "Booking " + bookingId + " successfully updated to flight " + newFlightId + "."
-        );
+                System.out.println(
+                        "Booking " + bookingId + " successfully updated to flight " + newFlightId + "."
+                );
 
-        try {
-            bookingDataManager.storeData(fbs);
-        } catch (IOException e) {
-            System.out.println("Error saving bookings: " + e.getMessage());
+                try {
+                    bookingDataManager.recordMove(fbs, booking, oldFlight);
+                } catch (IOException e) {
+                    System.out.println("Error saving bookings: " + e.getMessage());
+                }
+                break;
+            }
         }
+
+        CancelBooking.promoteWaitlisted(fbs, bookingDataManager, oldFlight.getId());
+    }
+
+    // holds only the booking locks, see execute
+    @Override
+    public void executeLocked(FlightBookingSystem fbs) throws FlightBookingSystemException {
+        execute(fbs);
     }
 }
@@ -0,0 +1,58 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.RouteDay;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Command to show the fare calendar of a route: the lowest current fare
+ * and the free seats on each day with flights.
+ *
+ * <p>Each day's summary is kept by {@link FlightBookingSystem} as its
+ * flights change, so the calendar does not price every flight.</p>
+ */
+public class FareCalendar implements Command {
+
+    private final String origin;
+    private final String destination;
+    private final LocalDate from;
+    private final LocalDate to;
+
+    /**
+     * Constructs a new FareCalendar command.
+     *
+     * @param origin the departure location
+     * @param destination the arrival location
+     * @param from earliest departure date (inclusive), or null for the
+     *             system date
+     * @param to latest departure date (inclusive), or null for no limit
+     */
+    public FareCalendar(String origin, String destination, LocalDate from, LocalDate to) {
+        this.origin = origin;
+        this.destination = destination;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+        LocalDate start = from != null ? from : flightBookingSystem.getSystemDate();
+        List<RouteDay> days = flightBookingSystem.getFareCalendar(origin, destination, start, to);
+
+        for (RouteDay day : days) {
+            Flight cheapest = day.getCheapestFlight();
+            if (cheapest == null) {
+                System.out.println(day.getDate() + " sold out");
+                continue;
+            }
+            System.out.println(day.getDate() + " from $" + String.format("%.2f", day.getMinFare())
+                    + " on " + cheapest.getFlightNumber()
+                    + ", " + day.getAvailableSeats() + " seat(s) left");
+        }
+        System.out.println(days.size() + " day(s)");
+    }
+}
@@ -0,0 +1,94 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.auth.AuthService;
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.BookingLocks;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SeatHolds;
+import bcu.cmp5332.bookingsystem.model.SeatMap;
+
+/**
+ * Command to hold a seat on a flight for a customer while they pay. The
+ * seat is taken at once and is booked by {@link ConfirmHold}, or freed by
+ * {@link ReleaseHold} or when the hold expires.
+ *
+ * <p>Access rules are those of {@link AddBooking}: administrators may hold
+ * seats for any customer, customers only for themselves.</p>
+ */
+public class HoldSeat implements Command {
+
+    private final int customerId;
+    private final int flightId;
+    private final String seat;
+    private final BookingDataManager bookingDataManager;
+
+    /**
+     * Constructs a HoldSeat command.
+     *
+     * @param customerId target customer ID (ignored for customer role)
+     * @param flightId target flight ID
+     * @param seat seat label such as "12C", or null for the first free seat
+     * @param bookingDataManager data manager whose booking locks are used
+     */
+    public HoldSeat(int customerId, int flightId, String seat, BookingDataManager bookingDataManager) {
+        this.customerId = customerId;
+        this.flightId = flightId;
+        this.seat = seat;
+        this.bookingDataManager = bookingDataManager;
+    }
+
+    @Override
+    @SuppressWarnings("try")
+    public void execute(FlightBookingSystem fbs) throws FlightBookingSystemException {
+
+        AuthService.requireLogin();
+
+        int holdCustomerId = AuthService.isAdmin() ? customerId : AuthService.currentCustomer().getId();
+
+        try (BookingLocks.Guard guard = bookingDataManager.lock(fbs, holdCustomerId, flightId)) {
+            Customer customer = fbs.getCustomerByID(holdCustomerId);
+            Flight flight = fbs.getFlightByID(flightId);
+
+            if (flight.isDeleted()) {
+                throw new FlightBookingSystemException("Cannot book a deleted flight.");
+            }
+
+            if (customer.isDeleted()) {
+                throw new FlightBookingSystemException("Cannot make booking for a deleted customer.");
+            }
+
+            if (fbs.getBooking(customer.getId(), flight.getId()) != null) {
+                throw new FlightBookingSystemException("Customer already has a booking on this flight.");
+            }
+
+            int requestedSeat = seat == null ? SeatMap.NO_SEAT : flight.getSeatMap().seatOf(seat);
+
+            double fare = fbs.getPricing().quote(flight);
+            SeatHolds holds = fbs.getHolds();
+            SeatHolds.Hold hold = holds.hold(customer, flight, requestedSeat, System.currentTimeMillis());
+            if (hold == null) {
+                throw new FlightBookingSystemException(
+                        "Flight " + flight.getFlightNumber() +
+                                " is at full capacity (" + flight.getCapacity() + " seats)."
+                );
+            }
+
+            System.out.println("Seat held! Hold ID: " + hold.getId());
+            if (hold.getSeat() != SeatMap.NO_SEAT) {
+                System.out.println("Seat: " + hold.getSeatLabel());
+            }
+            System.out.println("Fare: $" + String.format("%.2f", fare));
+            System.out.println("Confirm within " + holds.getHoldMillis() / 60000
+                    + " minutes with: confirmhold " + hold.getId());
+        }
+    }
+
+    // holds only the booking locks, see execute
+    @Override
+    public void executeLocked(FlightBookingSystem fbs) throws FlightBookingSystemException {
+        execute(fbs);
+    }
+}
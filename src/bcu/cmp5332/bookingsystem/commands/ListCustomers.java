@@ -4,18 +4,21 @@ import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 
+import java.util.Collection;
+
 public class ListCustomers implements Command {
 
     @Override
     public void execute(FlightBookingSystem flightBookingSystem)
             throws FlightBookingSystemException {
 
-        if (flightBookingSystem.getCustomers().isEmpty()) {
+        Collection<Customer> customers = flightBookingSystem.getSnapshot().getCustomers();
+        if (customers.isEmpty()) {
             System.out.println("No customers found.");
             return;
         }
 
-        for (Customer customer : flightBookingSystem.getCustomers().values()) {
+        for (Customer customer : customers) {
             System.out.println(
                 "Customer #" + customer.getId() + " - "
                 + customer.getName() + " - "
@@ -24,7 +27,14 @@ public class ListCustomers implements Command {
         }
 
         System.out.println(
-            flightBookingSystem.getCustomers().size() + " customer(s)"
+            customers.size() + " customer(s)"
         );
     }
+
+    // reads a snapshot, so needs no lock
+    @Override
+    public void executeLocked(FlightBookingSystem flightBookingSystem)
+            throws FlightBookingSystemException {
+        execute(flightBookingSystem);
+    }
 }
@@ -4,16 +4,22 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
-import java.util.List;
+import java.util.Collection;
 
 public class ListFlights implements Command {
 
     @Override
     public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
-        List<Flight> flights = flightBookingSystem.getFlights();
+        Collection<Flight> flights = flightBookingSystem.getSnapshot().getFlights();
         for (Flight flight : flights) {
             System.out.println(flight.getDetailsShort());
         }
         System.out.println(flights.size() + " flight(s)");
     }
+
+    // reads a snapshot, so needs no lock
+    @Override
+    public void executeLocked(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+        execute(flightBookingSystem);
+    }
 }
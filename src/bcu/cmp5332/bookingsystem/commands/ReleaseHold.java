@@ -0,0 +1,63 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.auth.AuthService;
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.SeatHolds;
+
+/**
+ * Command to give up a seat hold before it expires. The freed seat is
+ * offered to the flight's waitlist.
+ *
+ * <p>Administrators may release any hold, customers only their own.</p>
+ */
+public class ReleaseHold implements Command {
+
+    private final int holdId;
+    private final BookingDataManager bookingDataManager;
+
+    /**
+     * Constructs a ReleaseHold command.
+     *
+     * @param holdId the hold ID
+     * @param bookingDataManager data manager used to promote waitlisted customers
+     */
+    public ReleaseHold(int holdId, BookingDataManager bookingDataManager) {
+        this.holdId = holdId;
+        this.bookingDataManager = bookingDataManager;
+    }
+
+    @Override
+    public void execute(FlightBookingSystem fbs) throws FlightBookingSystemException {
+
+        findOwnHold(fbs, holdId);
+        SeatHolds.Hold hold = fbs.getHolds().release(holdId);
+
+        System.out.println("Hold " + holdId + " released.");
+
+        CancelBooking.promoteWaitlisted(fbs, bookingDataManager, hold.getFlight().getId());
+    }
+
+    /**
+     * Gets an open hold that the logged-in user may confirm or release.
+     */
+    static SeatHolds.Hold findOwnHold(FlightBookingSystem fbs, int holdId) throws FlightBookingSystemException {
+        AuthService.requireLogin();
+
+        SeatHolds.Hold hold = fbs.getHolds().get(holdId);
+        if (hold == null) {
+            throw new FlightBookingSystemException("There is no open hold with that ID.");
+        }
+        if (!AuthService.isAdmin() && hold.getCustomer().getId() != AuthService.currentCustomer().getId()) {
+            throw new FlightBookingSystemException("You can only change your own holds.");
+        }
+        return hold;
+    }
+
+    // promoting takes booking locks, see CancelBooking
+    @Override
+    public void executeLocked(FlightBookingSystem fbs) throws FlightBookingSystemException {
+        execute(fbs);
+    }
+}
@@ -0,0 +1,47 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Command to find flights on a route, optionally within a range of
+ * departure dates.
+ *
+ * <p>The search uses the route index kept by {@link FlightBookingSystem},
+ * so it does not scan every flight.</p>
+ */
+public class SearchFlights implements Command {
+
+    private final String origin;
+    private final String destination;
+    private final LocalDate from;
+    private final LocalDate to;
+
+    /**
+     * Constructs a new SearchFlights command.
+     *
+     * @param origin the departure location
+     * @param destination the arrival location
+     * @param from earliest departure date (inclusive), or null for no limit
+     * @param to latest departure date (inclusive), or null for no limit
+     */
+    public SearchFlights(String origin, String destination, LocalDate from, LocalDate to) {
+        this.origin = origin;
+        this.destination = destination;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+        List<Flight> flights = flightBookingSystem.searchFlights(origin, destination, from, to);
+        for (Flight flight : flights) {
+            System.out.println(flight.getDetailsShort());
+        }
+        System.out.println(flights.size() + " flight(s)");
+    }
+}
@@ -0,0 +1,60 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.RouteGraph;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Command to find itineraries of one or more connecting flights between
+ * two airports, earliest arrival first.
+ *
+ * <p>The search runs over the route graph kept by
+ * {@link FlightBookingSystem}, so it only looks at flights that could
+ * connect.</p>
+ */
+public class SearchItinerary implements Command {
+
+    private final String origin;
+    private final String destination;
+    private final LocalDate from;
+    private final LocalDate to;
+
+    /**
+     * Constructs a new SearchItinerary command.
+     *
+     * @param origin the departure location
+     * @param destination the arrival location
+     * @param from earliest departure date (inclusive), or null for the
+     *             system date
+     * @param to latest departure date of the first flight (inclusive), or
+     *           null for no limit
+     */
+    public SearchItinerary(String origin, String destination, LocalDate from, LocalDate to) {
+        this.origin = origin;
+        this.destination = destination;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public void execute(FlightBookingSystem flightBookingSystem) throws FlightBookingSystemException {
+        LocalDate start = from != null ? from : flightBookingSystem.getSystemDate();
+        List<RouteGraph.Itinerary> itineraries =
+                flightBookingSystem.searchItineraries(origin, destination, start, to);
+
+        int n = 1;
+        for (RouteGraph.Itinerary itinerary : itineraries) {
+            int legs = itinerary.getLegs().size();
+            System.out.println("Itinerary " + n++ + ": " + legs + (legs == 1 ? " flight" : " flights")
+                    + ", arriving " + itinerary.getArrivalDate());
+            for (Flight flight : itinerary.getLegs()) {
+                System.out.println("\t" + flight.getDetailsShort());
+            }
+        }
+        System.out.println(itineraries.size() + " itinerary(s)");
+    }
+}
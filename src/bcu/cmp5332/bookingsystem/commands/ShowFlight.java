@@ -21,5 +21,6 @@ public class ShowFlight implements Command {
         }
 
         System.out.println(flight);
+        System.out.println("Current Fare: $" + String.format("%.2f", fbs.getPricing().quote(flight)));
     }
 }
@@ -0,0 +1,395 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.IntObjectMap;
+import bcu.cmp5332.bookingsystem.model.OrderedIntObjectMap;
+import bcu.cmp5332.bookingsystem.model.SeatMap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores the whole system in a compact binary snapshot (snapshot.bin) so it
+ * can be loaded without parsing numbers and dates from text.
+ *
+ * <p>The text files stay the source of truth. The snapshot header records the
+ * length and modification time of flights.txt, customers.txt and bookings.txt
+ * as they were when the snapshot was written; if any of them has changed
+ * since, the snapshot is stale and is ignored. The bookings journal is
+ * replayed on top of the snapshot exactly as it is on top of bookings.txt.</p>
+ *
+ * <p>Layout (big-endian):</p>
+ * <pre>
+ * header    int magic, int version, int sourceCount,
+ *           sourceCount x (long length, long lastModified)
+ * strings   int count, count x (int byteLength, UTF-8 bytes)
+ * flights   int count, count x (int id, int flightNumber, int origin,
+ *           int destination, int departureEpochDay, int capacity,
+ *           long priceCents, byte deleted)
+ * customers int count, count x (int id, int name, int phone, int email,
+ *           int passwordHash, byte deleted)
+ * bookings  int count, count x (int customerId, int flightId, int bookingEpochDay,
+ *           int seat, int bookingId)
+ * </pre>
+ * <p>String fields are indexes into the string table, so repeated values such
+ * as airports are stored once.</p>
+ */
+public class BinarySnapshotDataManager implements DataManager {
+
+    private static final String RESOURCE = "./resources/data/snapshot.bin";
+
+    private static final int MAGIC = 0x46425353; // "FBSS"
+    // 2: bookings carry a seat (-1 for none); 3: and their id; older snapshots count as stale
+    private static final int VERSION = 3;
+
+    private final File snapshot;
+    private final List<DataManager> sources;
+    private final BookingDataManager bookingDataManager;
+
+    /**
+     * Creates a snapshot manager for the given text data managers.
+     *
+     * @param fdm flight data manager
+     * @param cdm customer data manager
+     * @param bdm booking data manager, whose journal is replayed after loading
+     */
+    public BinarySnapshotDataManager(FlightDataManager fdm, CustomerDataManager cdm, BookingDataManager bdm) {
+        this(new File(RESOURCE), List.of(fdm, cdm, bdm), bdm);
+    }
+
+    BinarySnapshotDataManager(File snapshot, List<DataManager> sources, BookingDataManager bdm) {
+        this.snapshot = snapshot;
+        this.sources = sources;
+        this.bookingDataManager = bdm;
+    }
+
+    /**
+     * Tells whether a snapshot exists and was written from the text files
+     * that are on disk now.
+     *
+     * @return true if the snapshot can be loaded instead of the text files
+     */
+    public boolean isCurrent() {
+        File file = snapshot;
+        if (!file.exists()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return false;
+            }
+            long[] expected = sourceStamps();
+            if (in.readInt() * 2 != expected.length) {
+                return false;
+            }
+            for (long stamp : expected) {
+                if (in.readLong() != stamp) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Loads the system from the snapshot and replays the bookings journal.
+     *
+     * @param fbs an empty flight booking system
+     * @throws IOException if the snapshot or the journal cannot be read
+     * @throws FlightBookingSystemException if the snapshot is missing, stale or corrupt
+     */
+    @Override
+    public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        if (!tryLoad(fbs)) {
+            throw new FlightBookingSystemException("No usable snapshot at " + snapshot);
+        }
+    }
+
+    /**
+     * Loads the system from the snapshot if it is current and readable. The
+     * whole snapshot is decoded before anything is added to the system, so
+     * when this returns false the system is untouched and the text files can
+     * be loaded instead.
+     *
+     * @param fbs an empty flight booking system
+     * @return true if the snapshot was loaded, false if it is missing, stale or corrupt
+     * @throws IOException if the journal cannot be read
+     * @throws FlightBookingSystemException if a journal record cannot be applied
+     */
+    public boolean tryLoad(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        if (!isCurrent()) {
+            return false;
+        }
+
+        Decoded decoded;
+        try {
+            decoded = decode(ByteBuffer.wrap(Files.readAllBytes(snapshot.toPath())));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Ignoring unreadable snapshot: " + e.getMessage());
+            return false;
+        }
+
+        for (Flight flight : decoded.flights.values()) {
+            fbs.addFlight(flight);
+        }
+        for (Customer customer : decoded.customers.values()) {
+            fbs.addCustomer(customer);
+        }
+        int[] bookings = decoded.bookings;
+        for (int i = 0; i < bookings.length; i += 5) {
+            BookingDataManager.linkBooking(fbs, decoded.customers.get(bookings[i]),
+                    decoded.flights.get(bookings[i + 1]), LocalDate.ofEpochDay(bookings[i + 2]), bookings[i + 3],
+                    bookings[i + 4]);
+        }
+
+        bookingDataManager.replayJournals(fbs);
+        return true;
+    }
+
+    /**
+     * Writes a snapshot of what the text data managers would write now.
+     * Should only be called when the text files match the model, i.e. right
+     * after they have been stored.
+     *
+     * @param fbs the flight booking system
+     * @throws IOException if the snapshot cannot be written
+     */
+    @Override
+    public void storeData(FlightBookingSystem fbs) throws IOException {
+        File file = snapshot;
+        File tmpFile = new File(snapshot.getPath() + ".tmp");
+
+        // same selection as the text managers: active flights and customers
+        List<Flight> flights = fbs.getFlights();
+        Map<Integer, Customer> customers = fbs.getCustomers();
+
+        IntObjectMap<Flight> byId = new IntObjectMap<>(flights.size());
+        for (Flight flight : flights) {
+            if (Math.round(flight.getPrice() * 100) / 100.0 != flight.getPrice()) {
+                // not a whole number of cents; keep using the text files
+                if (file.exists() && !file.delete()) {
+                    throw new IOException("Failed to delete stale snapshot.bin");
+                }
+                return;
+            }
+            byId.put(flight.getId(), flight);
+        }
+
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (Flight flight : flights) {
+            intern(strings, flight.getFlightNumber());
+            intern(strings, flight.getOrigin());
+            intern(strings, flight.getDestination());
+        }
+        for (Customer customer : customers.values()) {
+            intern(strings, customer.getName());
+            intern(strings, customer.getPhone());
+            intern(strings, customer.getEmail());
+            intern(strings, customer.getPasswordHash());
+        }
+
+        File parentDir = file.getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            parentDir.mkdirs();
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            long[] stamps = sourceStamps();
+            out.writeInt(stamps.length / 2);
+            for (long stamp : stamps) {
+                out.writeLong(stamp);
+            }
+
+            out.writeInt(strings.size());
+            for (String s : strings.keySet()) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            out.writeInt(flights.size());
+            for (Flight flight : flights) {
+                out.writeInt(flight.getId());
+                out.writeInt(index(strings, flight.getFlightNumber()));
+                out.writeInt(index(strings, flight.getOrigin()));
+                out.writeInt(index(strings, flight.getDestination()));
+                out.writeInt((int) flight.getDepartureDate().toEpochDay());
+                out.writeInt(flight.getCapacity());
+                out.writeLong(Math.round(flight.getPrice() * 100));
+                out.writeBoolean(flight.isDeleted());
+            }
+
+            out.writeInt(customers.size());
+            for (Customer customer : customers.values()) {
+                out.writeInt(customer.getId());
+                out.writeInt(index(strings, customer.getName()));
+                out.writeInt(index(strings, customer.getPhone()));
+                out.writeInt(index(strings, customer.getEmail()));
+                out.writeInt(index(strings, customer.getPasswordHash()));
+                out.writeBoolean(customer.isDeleted());
+            }
+
+            // bookings on flights that are not stored would be skipped by a text load too
+            List<Booking> bookings = new ArrayList<>();
+            for (Customer customer : customers.values()) {
+                for (Booking booking : customer.getBookings()) {
+                    if (byId.get(booking.getFlight().getId()) == booking.getFlight()) {
+                        bookings.add(booking);
+                    }
+                }
+            }
+            out.writeInt(bookings.size());
+            for (Booking booking : bookings) {
+                out.writeInt(booking.getCustomer().getId());
+                out.writeInt(booking.getFlight().getId());
+                out.writeInt((int) booking.getBookingDate().toEpochDay());
+                out.writeInt(booking.getSeat());
+                out.writeInt(booking.getId());
+            }
+        }
+
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Failed to delete old snapshot.bin");
+        }
+        if (!tmpFile.renameTo(file)) {
+            throw new IOException("Failed to rename snapshot.bin.tmp to snapshot.bin");
+        }
+    }
+
+    @Override
+    public List<File> getDataFiles() {
+        return Collections.singletonList(snapshot);
+    }
+
+    /**
+     * Length and modification time of every text file, in source order.
+     * A missing file is recorded with length -1.
+     */
+    private long[] sourceStamps() {
+        List<File> files = new ArrayList<>();
+        for (DataManager source : sources) {
+            files.addAll(source.getDataFiles());
+        }
+        long[] stamps = new long[files.size() * 2];
+        for (int i = 0; i < files.size(); i++) {
+            File f = files.get(i);
+            stamps[2 * i] = f.exists() ? f.length() : -1;
+            stamps[2 * i + 1] = f.exists() ? f.lastModified() : 0;
+        }
+        return stamps;
+    }
+
+    // strings are stored the way the text managers print them, so null becomes "null"
+    private static void intern(Map<String, Integer> strings, String s) {
+        strings.putIfAbsent(String.valueOf(s), strings.size());
+    }
+
+    private static int index(Map<String, Integer> strings, String s) {
+        return strings.get(String.valueOf(s));
+    }
+
+    private static Decoded decode(ByteBuffer buf) throws IOException {
+        try {
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                throw new IOException("Unsupported snapshot version");
+            }
+            int sourceCount = buf.getInt();
+            buf.position(buf.position() + sourceCount * 2 * Long.BYTES);
+
+            String[] strings = new String[buf.getInt()];
+            byte[] bytes = buf.array();
+            for (int i = 0; i < strings.length; i++) {
+                int length = buf.getInt();
+                strings[i] = new String(bytes, buf.position(), length, StandardCharsets.UTF_8);
+                buf.position(buf.position() + length);
+            }
+
+            Decoded decoded = new Decoded();
+            int flightCount = buf.getInt();
+            for (int i = 0; i < flightCount; i++) {
+                int id = buf.getInt();
+                String flightNumber = strings[buf.getInt()];
+                String origin = strings[buf.getInt()];
+                String destination = strings[buf.getInt()];
+                LocalDate departureDate = LocalDate.ofEpochDay(buf.getInt());
+                int capacity = buf.getInt();
+                double price = buf.getLong() / 100.0;
+                Flight flight = new Flight(id, flightNumber, origin, destination, departureDate, capacity, price);
+                flight.setDeleted(buf.get() != 0);
+                if (decoded.flights.put(id, flight) != null) {
+                    throw new IOException("Duplicate flight id " + id + " in snapshot");
+                }
+            }
+
+            int customerCount = buf.getInt();
+            for (int i = 0; i < customerCount; i++) {
+                int id = buf.getInt();
+                Customer customer = new Customer(id, strings[buf.getInt()], strings[buf.getInt()],
+                        strings[buf.getInt()], strings[buf.getInt()]);
+                customer.setDeleted(buf.get() != 0);
+                if (decoded.customers.put(id, customer) != null) {
+                    throw new IOException("Duplicate customer id " + id + " in snapshot");
+                }
+            }
+
+            decoded.bookings = new int[buf.getInt() * 5];
+            for (int i = 0; i < decoded.bookings.length; i += 5) {
+                decoded.bookings[i] = buf.getInt();
+                decoded.bookings[i + 1] = buf.getInt();
+                decoded.bookings[i + 2] = buf.getInt();
+                decoded.bookings[i + 3] = buf.getInt();
+                decoded.bookings[i + 4] = buf.getInt();
+                if (!decoded.customers.containsKey(decoded.bookings[i])
+                        || !decoded.flights.containsKey(decoded.bookings[i + 1])) {
+                    throw new IOException("Snapshot booking refers to a missing customer or flight");
+                }
+                if (decoded.bookings[i + 3] < SeatMap.NO_SEAT) {
+                    throw new IOException("Invalid seat in snapshot booking");
+                }
+                if (decoded.bookings[i + 4] <= 0) {
+                    throw new IOException("Invalid id in snapshot booking");
+                }
+            }
+            if (buf.hasRemaining()) {
+                throw new IOException("Trailing bytes in snapshot");
+            }
+            return decoded;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Truncated or corrupt snapshot", e);
+        }
+    }
+
+    /**
+     * Everything read from a snapshot, before it is added to the system.
+     */
+    private static final class Decoded {
+
+        private final OrderedIntObjectMap<Flight> flights = new OrderedIntObjectMap<>();
+        private final OrderedIntObjectMap<Customer> customers = new OrderedIntObjectMap<>();
+        private int[] bookings;
+    }
+}
@@ -4,48 +4,165 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.*;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * Handles loading and storing Booking data from/to bookings.txt
+ * Handles loading and storing Booking data from/to bookings.txt, and the
+ * flight waitlists from/to waitlist.txt
+ *
+ * <p>In journal mode (the default) individual booking mutations are not
+ * written by rewriting bookings.txt. Instead a compact record is appended to
+ * bookings.journal, so the cost of persisting one booking does not depend on
+ * how many bookings already exist. {@link #loadData} replays the journal on
+ * top of the bookings.txt snapshot and {@link #storeData} folds the journal
+ * back into a fresh snapshot.</p>
+ *
+ * <p>Snapshot format: customerId|flightId|bookingDate|seat|bookingId, where
+ * the seat is a label such as 12C, or empty if none is assigned. Lines
+ * written before seats and ids were stored end after the date or the seat;
+ * such bookings get new ids when loaded. Waitlist format:
+ * customerId|flightId|requestedAtMillis|tier.</p>
+ *
+ * <p>Journal format (one record per line):</p>
+ * <pre>
+ * A|customerId|flightId|bookingDate|seat|bookingId  booking added
+ * C|customerId|flightId                             booking cancelled
+ * M|customerId|oldFlightId|newFlightId              booking moved to another flight
+ * W|customerId|flightId|requestedAt|tier            joined the waitlist
+ * L|customerId|flightId                             left the waitlist (promoted or withdrawn)
+ * </pre>
+ * <p>A move frees the booking's seat, as {@link FlightBookingSystem#moveBooking}
+ * does. A move onto the same flight, or onto a flight the customer already
+ * has a booking on, is ignored: EditBooking rejects both, so such a record
+ * can only be stale. A waitlist entry for a customer who already has a
+ * booking on the flight is dropped on load, so a promotion interrupted
+ * between its A and L records is harmless.</p>
+ *
+ * <p>Every journal starts with a J|sequence line numbering it, and
+ * bookings.txt starts with a J|sequence line giving the last journal it
+ * includes. A new snapshot is switched in with one atomic rename before the
+ * journals it includes are deleted, so if the deletion never happens the
+ * leftover journals are recognised by their numbers and skipped on load.
+ * Files written before the numbering have no J line; such a journal is
+ * always replayed.</p>
+ *
+ * <p>A full store leaves out the bookings of deleted customers. Compaction
+ * works from the files only, so it leaves out the bookings of customers
+ * customers.txt marks as deleted, and keeps those of customers it does not
+ * list: customers.txt may not have been written since they were added, so
+ * their absence does not mean they are gone.</p>
  */
 public class BookingDataManager implements DataManager {
 
     private static final String RESOURCE = "./resources/data/bookings.txt";
+    private static final String JOURNAL = "./resources/data/bookings.journal";
+    private static final String COMPACTING = JOURNAL + ".compacting";
+    private static final String WAITLIST = "./resources/data/waitlist.txt";
+
+    // shared by every instance since they all point at the same files.
+    // SNAPSHOT_LOCK guards bookings.txt, waitlist.txt and the rotated journal, JOURNAL_LOCK
+    // guards appends; when both are needed SNAPSHOT_LOCK is taken first.
+    private static final Object SNAPSHOT_LOCK = new Object();
+    private static final Object JOURNAL_LOCK = new Object();
+
+    // bookingId of a line written before ids were stored
+    private static final int NO_ID = 0;
+
+    private final boolean journaled;
+
+    /**
+     * Creates a booking data manager in journal mode.
+     */
+    public BookingDataManager() {
+        this(true);
+    }
+
+    /**
+     * Creates a booking data manager.
+     *
+     * @param journaled true to append mutations to the journal, false to
+     *                  rewrite bookings.txt on every mutation
+     */
+    public BookingDataManager(boolean journaled) {
+        this.journaled = journaled;
+    }
+
+    public boolean isJournaled() {
+        return journaled;
+    }
 
     /**
-     * Loads bookings from bookings.txt and links them to Customers and Flights
+     * Loads bookings from bookings.txt and links them to Customers and Flights,
+     * then replays any journaled mutations on top.
      */
     @Override
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
-        File file = new File(RESOURCE);
-        if (!file.exists()) {
-            // If no bookings file exists, just skip
-            System.out.println("No bookings.txt found, skipping load.");
-            return;
+        synchronized (SNAPSHOT_LOCK) {
+            File file = new File(RESOURCE);
+            if (!file.exists()) {
+                // If no bookings file exists, just skip
+                System.out.println("No bookings.txt found, skipping load.");
+            } else {
+                loadSnapshot(fbs, file);
+            }
+
+            replayJournals(fbs);
         }
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            int lineNum = 0;
-            while ((line = br.readLine()) != null) {
-                lineNum++;
-                line = line.trim();
-                if (line.isEmpty()) continue; // skip blank lines
-
-                // Expected format: customerId|flightId|bookingDate
-                String[] parts = line.split("\\|");
-                if (parts.length != 3) {
-                    System.out.println("Invalid booking line " + lineNum + ": " + line);
+    /**
+     * Loads the waitlists and replays the journals on top of bookings that
+     * were loaded from another source, such as a binary snapshot taken when
+     * bookings.txt was current.
+     *
+     * @param fbs the flight booking system, with flights, customers and the
+     *            snapshot's bookings already loaded
+     * @throws IOException if the journal cannot be read
+     * @throws FlightBookingSystemException if a record refers to a missing customer or flight
+     */
+    void replayJournals(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        synchronized (SNAPSHOT_LOCK) {
+            loadWaitlist(fbs, new File(WAITLIST));
+            long included = readSequence(new File(RESOURCE));
+
+            // left behind if a compaction was interrupted
+            replayJournal(fbs, new File(COMPACTING), included);
+
+            synchronized (JOURNAL_LOCK) {
+                replayJournal(fbs, new File(JOURNAL), included);
+            }
+        }
+    }
+
+    private void loadSnapshot(FlightBookingSystem fbs, File file) throws IOException, FlightBookingSystemException {
+        try (FieldTokenizer tok = new FieldTokenizer(new FileInputStream(file), "|")) {
+            while (tok.nextLine()) {
+                if (tok.isBlank()) continue; // skip blank lines
+                if (tok.fieldIs(0, 'J') && tok.getFieldCount() == 2) continue; // journal sequence
+                int lineNum = tok.getLineNumber();
+
+                // Expected format: customerId|flightId|bookingDate[|seat[|bookingId]]
+                int fields = tok.getFieldCount();
+                if (fields < 3 || fields > 5) {
+                    System.out.println("Invalid booking line " + lineNum + ": " + tok.getLine());
                     continue; // skip invalid line
                 }
 
                 try {
-                    int customerId = Integer.parseInt(parts[0].trim());
-                    int flightId = Integer.parseInt(parts[1].trim());
-                    LocalDate bookingDate = LocalDate.parse(parts[2].trim());
+                    int customerId = tok.getInt(0);
+                    int flightId = tok.getInt(1);
+                    LocalDate bookingDate = tok.getDate(2);
 
                     Customer customer = fbs.getCustomerByID(customerId);
                     Flight flight = fbs.getFlightByID(flightId);
@@ -59,47 +176,721 @@ public class BookingDataManager implements DataManager {
                         continue;
                     }
 
-                    Booking booking = new Booking(customer, flight, bookingDate);
-                    customer.addBooking(booking);
-                    flight.addPassenger(customer);
-                    fbs.addBooking(booking);
-
+                    linkBooking(fbs, customer, flight, bookingDate, seatField(tok, 3),
+                            fields == 5 ? tok.getInt(4) : NO_ID);
 
                 } catch (NumberFormatException | DateTimeParseException e) {
-                    System.out.println("Error parsing booking line " + lineNum + ": " + line);
+                    System.out.println("Error parsing booking line " + lineNum + ": " + tok.getLine());
+                }
+            }
+        }
+    }
+
+    private void loadWaitlist(FlightBookingSystem fbs, File file) throws IOException, FlightBookingSystemException {
+        if (!file.exists()) {
+            return;
+        }
+        try (FieldTokenizer tok = new FieldTokenizer(new FileInputStream(file), "|")) {
+            while (tok.nextLine()) {
+                if (tok.isBlank()) continue;
+
+                if (tok.getFieldCount() != 4) {
+                    System.out.println("Invalid waitlist line " + tok.getLineNumber() + ": " + tok.getLine());
+                    continue;
+                }
+                try {
+                    replayJoin(fbs, tok.getInt(0), tok.getInt(1), Long.parseLong(tok.getString(2)),
+                            CustomerTier.valueOf(tok.getString(3)));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Error parsing waitlist line " + tok.getLineNumber() + ": " + tok.getLine());
+                }
+            }
+        }
+    }
+
+    /**
+     * Replays journal records in order, unless the journal is one the
+     * snapshot already includes.
+     *
+     * <p>A record may still find its change already made: a queued store
+     * can read the model before the record of a change is appended. So an
+     * add for a booking that already exists, on its flight or, by id, on the
+     * flight it was moved to, or a cancel/move for one that does not, is
+     * ignored. A move onto the same flight or one the customer already has a
+     * booking on is ignored too, as EditBooking refuses it.</p>
+     *
+     * @param included the sequence of the last journal in the snapshot
+     */
+    private void replayJournal(FlightBookingSystem fbs, File journal, long included)
+            throws IOException, FlightBookingSystemException {
+        if (!journal.exists()) {
+            return;
+        }
+
+        try (FieldTokenizer tok = new FieldTokenizer(new FileInputStream(journal), "|")) {
+            while (tok.nextLine()) {
+                if (tok.isBlank()) continue;
+
+                int fields = tok.getFieldCount();
+                try {
+                    if (tok.fieldIs(0, 'J') && fields == 2) {
+                        if (Long.parseLong(tok.getString(1)) <= included) {
+                            // already in the snapshot; its deletion was interrupted
+                            return;
+                        }
+                    } else if (tok.fieldIs(0, 'A') && fields >= 4 && fields <= 6) {
+                        replayAdd(fbs, tok.getInt(1), tok.getInt(2), tok.getDate(3), seatField(tok, 4),
+                                fields == 6 ? tok.getInt(5) : NO_ID);
+                    } else if (tok.fieldIs(0, 'C') && fields == 3) {
+                        replayCancel(fbs, tok.getInt(1), tok.getInt(2));
+                    } else if (tok.fieldIs(0, 'M') && fields == 4) {
+                        replayMove(fbs, tok.getInt(1), tok.getInt(2), tok.getInt(3));
+                    } else if (tok.fieldIs(0, 'W') && fields == 5) {
+                        replayJoin(fbs, tok.getInt(1), tok.getInt(2), Long.parseLong(tok.getString(3)),
+                                CustomerTier.valueOf(tok.getString(4)));
+                    } else if (tok.fieldIs(0, 'L') && fields == 3) {
+                        fbs.getFlightByID(tok.getInt(2)).getWaitlist().remove(tok.getInt(1));
+                    } else {
+                        System.out.println("Invalid journal line " + tok.getLineNumber() + ": " + tok.getLine());
+                    }
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    System.out.println("Error parsing journal line " + tok.getLineNumber() + ": " + tok.getLine());
+                }
+            }
+        }
+    }
+
+    private void replayAdd(FlightBookingSystem fbs, int customerId, int flightId, LocalDate bookingDate,
+                           String seat, int id) throws FlightBookingSystemException {
+        Customer customer = fbs.getCustomerByID(customerId);
+        Flight flight = fbs.getFlightByID(flightId);
+        if (fbs.getBooking(customerId, flightId) != null) {
+            return;
+        }
+        Booking existing = bookingWithId(fbs, id);
+        if (existing != null && existing.getCustomer() == customer) {
+            return;
+        }
+        linkBooking(fbs, customer, flight, bookingDate, seat, id);
+    }
+
+    private void replayJoin(FlightBookingSystem fbs, int customerId, int flightId, long requestedAt,
+                            CustomerTier tier) throws FlightBookingSystemException {
+        Customer customer = fbs.getCustomerByID(customerId);
+        Flight flight = fbs.getFlightByID(flightId);
+        if (fbs.getBooking(customerId, flightId) != null) {
+            return;
+        }
+        flight.getWaitlist().add(customer, requestedAt, tier);
+    }
+
+    private void replayCancel(FlightBookingSystem fbs, int customerId, int flightId)
+            throws FlightBookingSystemException {
+        Customer customer = fbs.getCustomerByID(customerId);
+        Booking booking = fbs.getBooking(customerId, flightId);
+        if (booking == null) {
+            return;
+        }
+        customer.getBookings().remove(booking);
+        booking.getFlight().removePassenger(customer);
+        fbs.removeBooking(booking);
+    }
+
+    private void replayMove(FlightBookingSystem fbs, int customerId, int oldFlightId, int newFlightId)
+            throws FlightBookingSystemException {
+        Customer customer = fbs.getCustomerByID(customerId);
+        Booking booking = fbs.getBooking(customerId, oldFlightId);
+        if (booking == null) {
+            return;
+        }
+        if (newFlightId == oldFlightId || fbs.getBooking(customerId, newFlightId) != null) {
+            return;
+        }
+        Flight newFlight = fbs.getFlightByID(newFlightId);
+        booking.getFlight().removePassenger(customer);
+        newFlight.addPassenger(customer);
+        fbs.moveBooking(booking, newFlight);
+    }
+
+    /**
+     * Gets the seat label in a field, or null if the line ends before it or
+     * the field is empty.
+     */
+    private static String seatField(FieldTokenizer tok, int i) {
+        return i < tok.getFieldCount() && !tok.isEmpty(i) ? tok.getString(i) : null;
+    }
+
+    private static Booking bookingWithId(FlightBookingSystem fbs, int id) {
+        if (id == NO_ID) {
+            return null;
+        }
+        try {
+            return fbs.getBookingById(id);
+        } catch (FlightBookingSystemException e) {
+            return null;
+        }
+    }
+
+    private static void linkBooking(FlightBookingSystem fbs, Customer customer, Flight flight,
+                                    LocalDate bookingDate, String seatLabel, int id) {
+        int seat = SeatMap.NO_SEAT;
+        if (seatLabel != null) {
+            try {
+                seat = flight.getSeatMap().seatOf(seatLabel);
+            } catch (FlightBookingSystemException e) {
+                System.out.println("Booking of customer " + customer.getId() + " on flight "
+                        + flight.getId() + " loaded without a seat: " + e.getMessage());
+            }
+        }
+        linkBooking(fbs, customer, flight, bookingDate, seat, id);
+    }
+
+    /**
+     * Adds a loaded booking to the model. The booking keeps its stored id
+     * unless it has none or another booking already holds it, which only
+     * files written before ids were stored can lead to; then it gets a new
+     * one.
+     */
+    static void linkBooking(FlightBookingSystem fbs, Customer customer, Flight flight, LocalDate bookingDate,
+                            int seat, int id) {
+        Booking booking;
+        if (id == NO_ID || bookingWithId(fbs, id) != null) {
+            booking = new Booking(customer, flight, bookingDate);
+        } else {
+            IdAllocator.BOOKINGS.advancePast(id);
+            booking = new Booking(id, customer, flight, bookingDate);
+        }
+        if (seat != SeatMap.NO_SEAT) {
+            if (flight.getSeatMap().assign(seat)) {
+                booking.setSeat(seat);
+            } else {
+                System.out.println("Seat " + flight.getSeatMap().label(seat) + " on flight " + flight.getId()
+                        + " is already taken; booking of customer " + customer.getId() + " loaded without a seat.");
+            }
+        }
+        customer.addBooking(booking);
+        flight.addPassenger(customer);
+        fbs.addBooking(booking);
+    }
+
+    /**
+     * Locks what a booking change and its record* call need. A journal
+     * append only concerns this booking, so the customer and flights are
+     * locked and other bookings carry on; without the journal the record
+     * rewrites bookings.txt from the whole system, so it is locked
+     * exclusively.
+     *
+     * @param fbs the flight booking system
+     * @param customerId the customer whose booking changes
+     * @param flightIds the flights involved
+     * @return the guard releasing the locks
+     */
+    public BookingLocks.Guard lock(FlightBookingSystem fbs, int customerId, int... flightIds) {
+        if (!journaled) {
+            return fbs.getLocks().exclusive();
+        }
+        return fbs.getLocks().lockBooking(customerId, flightIds);
+    }
+
+    /**
+     * Persists a newly created booking.
+     *
+     * @param fbs the flight booking system
+     * @param booking the booking that was added
+     * @throws IOException if the booking could not be written
+     */
+    public void recordAdd(FlightBookingSystem fbs, Booking booking) throws IOException {
+        if (!journaled) {
+            PersistenceService.store(this, fbs);
+            return;
+        }
+        appendToJournal(fbs, booking, String.format("A|%d|%d|%s",
+                booking.getCustomer().getId(),
+                booking.getFlight().getId(),
+                bookingFields(booking)));
+    }
+
+    /**
+     * Persists the cancellation of a booking.
+     *
+     * @param fbs the flight booking system
+     * @param booking the booking that was cancelled
+     * @throws IOException if the cancellation could not be written
+     */
+    public void recordCancel(FlightBookingSystem fbs, Booking booking) throws IOException {
+        if (!journaled) {
+            PersistenceService.store(this, fbs);
+            return;
+        }
+        appendToJournal(fbs, booking, String.format("C|%d|%d",
+                booking.getCustomer().getId(),
+                booking.getFlight().getId()));
+    }
+
+    /**
+     * Persists a booking being moved from one flight to another.
+     *
+     * @param fbs the flight booking system
+     * @param booking the booking, already pointing at its new flight
+     * @param oldFlight the flight the booking was moved from
+     * @throws IOException if the change could not be written
+     */
+    public void recordMove(FlightBookingSystem fbs, Booking booking, Flight oldFlight) throws IOException {
+        if (!journaled) {
+            PersistenceService.store(this, fbs);
+            return;
+        }
+        appendToJournal(fbs, booking, String.format("M|%d|%d|%d",
+                booking.getCustomer().getId(),
+                oldFlight.getId(),
+                booking.getFlight().getId()));
+    }
+
+    /**
+     * Persists a customer joining a flight's waitlist.
+     *
+     * @param fbs the flight booking system
+     * @param flight the flight
+     * @param entry the customer's new waitlist entry
+     * @throws IOException if the entry could not be written
+     */
+    public void recordJoin(FlightBookingSystem fbs, Flight flight, Waitlist.Entry entry) throws IOException {
+        if (!journaled) {
+            PersistenceService.store(this, fbs);
+            return;
+        }
+        appendToJournal(String.format("W|%d|%d|%d|%s",
+                entry.getCustomer().getId(),
+                flight.getId(),
+                entry.getRequestedAt(),
+                entry.getTier().name()));
+    }
+
+    /**
+     * Persists a customer leaving a flight's waitlist without a booking.
+     *
+     * @param fbs the flight booking system
+     * @param flight the flight
+     * @param customer the customer who left
+     * @throws IOException if the change could not be written
+     */
+    public void recordLeave(FlightBookingSystem fbs, Flight flight, Customer customer) throws IOException {
+        if (!journaled) {
+            PersistenceService.store(this, fbs);
+            return;
+        }
+        appendToJournal(String.format("L|%d|%d", customer.getId(), flight.getId()));
+    }
+
+    /**
+     * Gives the free seats of a flight to the head of its waitlist, one
+     * customer at a time, and persists each promotion. Waiting customers who
+     * were deleted or already hold a booking on the flight are dropped.
+     *
+     * <p>Call it after a seat was freed, once the locks of that change are
+     * released: each promotion takes the booking locks of the promoted
+     * customer and the flight.</p>
+     *
+     * @param fbs the flight booking system
+     * @param flightId the flight that may have free seats
+     * @return the bookings made for promoted customers, in order
+     * @throws FlightBookingSystemException if there is no such flight
+     * @throws IOException if a promotion could not be written; it stays in
+     *                     the model and is written by the next full store
+     */
+    @SuppressWarnings("try")
+    public List<Booking> promoteWaitlisted(FlightBookingSystem fbs, int flightId)
+            throws FlightBookingSystemException, IOException {
+        List<Booking> promoted = new ArrayList<>();
+        Flight flight = fbs.getFlightByID(flightId);
+        Waitlist waitlist = flight.getWaitlist();
+        while (flight.getAvailableSeats() > 0) {
+            Waitlist.Entry head = waitlist.peek();
+            if (head == null) {
+                break;
+            }
+            Customer customer = head.getCustomer();
+            try (BookingLocks.Guard guard = lock(fbs, customer.getId(), flightId)) {
+                if (waitlist.peek() != head) {
+                    // changed before the locks were held
+                    continue;
+                }
+                if (customer.isDeleted() || fbs.getBooking(customer.getId(), flightId) != null) {
+                    waitlist.remove(customer.getId());
+                    recordLeave(fbs, flight, customer);
+                    continue;
+                }
+                if (!flight.addPassengerSafe(customer)) {
+                    // filled up again, or deleted
+                    break;
+                }
+                Booking booking = new Booking(customer, flight, LocalDate.now());
+                booking.setSeat(flight.getSeatMap().assignAdjacent(1));
+                customer.addBooking(booking);
+                fbs.addBooking(booking);
+                waitlist.remove(customer.getId());
+                promoted.add(booking);
+
+                if (journaled) {
+                    recordAdd(fbs, booking);
+                    recordLeave(fbs, flight, customer);
+                } else {
+                    PersistenceService.store(this, fbs);
+                }
+            }
+        }
+        return promoted;
+    }
+
+    /**
+     * Formats the bookingDate|seat|bookingId fields of a snapshot line or
+     * add record.
+     */
+    private static String bookingFields(Booking booking) {
+        String seat = booking.getSeat() == SeatMap.NO_SEAT ? "" : booking.getSeatLabel();
+        return booking.getBookingDate() + "|" + seat + "|" + booking.getId();
+    }
+
+    private void appendToJournal(String record) throws IOException {
+        PersistenceService.write(new File(JOURNAL), () -> writeJournalRecord(record));
+    }
+
+    /**
+     * Appends a booking's record, marking the booking changed again if the
+     * write fails (possibly later, on the flusher) so the next full store
+     * writes it instead.
+     */
+    private void appendToJournal(FlightBookingSystem fbs, Booking booking, String record) throws IOException {
+        fbs.clearBookingChange(booking);
+        PersistenceService.write(new File(JOURNAL), () -> {
+            try {
+                writeJournalRecord(record);
+            } catch (IOException e) {
+                fbs.markBookingChanged(booking);
+                throw e;
+            }
+        });
+    }
+
+    private void writeJournalRecord(String record) throws IOException {
+        synchronized (JOURNAL_LOCK) {
+            File journal = new File(JOURNAL);
+            File parentDir = journal.getParentFile();
+            if (parentDir != null && !parentDir.exists()) {
+                parentDir.mkdirs();
+            }
+            boolean created = journal.length() == 0;
+            long sequence = created ? lastSequence() + 1 : 0;
+            try (BufferedWriter bw = new BufferedWriter(new FileWriter(journal, true))) {
+                if (created) {
+                    bw.write("J|" + sequence);
+                    bw.newLine();
+                }
+                bw.write(record);
+                bw.newLine();
+            }
+        }
+    }
+
+    /**
+     * Gets the highest journal sequence in use: of the live or rotated
+     * journal, or the last one included in bookings.txt. Called with
+     * JOURNAL_LOCK held. Compaction replaces bookings.txt without that
+     * lock, but only while the rotated journal, numbered at least as high,
+     * still exists. So the rotated journal is read first: if it is already
+     * gone, bookings.txt has been replaced by then.
+     */
+    private static long lastSequence() throws IOException {
+        long rotated = readSequence(new File(COMPACTING));
+        long snapshot = readSequence(new File(RESOURCE));
+        return Math.max(Math.max(rotated, snapshot), readSequence(new File(JOURNAL)));
+    }
+
+    /**
+     * Reads the J|sequence line a journal or bookings.txt starts with.
+     *
+     * @return the sequence, or 0 if the file is missing or not numbered
+     */
+    private static long readSequence(File file) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line = br.readLine();
+            if (line == null) {
+                return 0;
+            }
+            String[] parts = line.trim().split("\\|");
+            if (parts.length != 2 || !parts[0].equals("J")) {
+                return 0;
+            }
+            try {
+                return Long.parseLong(parts[1].trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes of journal that a load would have to replay.
+     *
+     * @return the combined size of the live and any rotated journal
+     */
+    public long getJournalSize() {
+        return new File(JOURNAL).length() + new File(COMPACTING).length();
+    }
+
+    /**
+     * Folds the journal into a fresh bookings.txt without touching the
+     * in-memory model.
+     *
+     * <p>The live journal is first renamed aside, so commands keep appending
+     * to a new journal while compaction runs. The old snapshot and the rotated
+     * records are then merged line by line and written to bookings.txt, which
+     * from then on includes the rotated journal, after which the rotated
+     * journal is deleted. If anything fails before bookings.txt is replaced
+     * the rotated file stays in place and is replayed by {@link #loadData} as
+     * usual; if only the deletion fails, it is skipped.</p>
+     *
+     * @throws IOException if the snapshot could not be rewritten
+     */
+    public void compactJournal() throws IOException {
+        synchronized (SNAPSHOT_LOCK) {
+            File rotated = new File(COMPACTING);
+            synchronized (JOURNAL_LOCK) {
+                File journal = new File(JOURNAL);
+                // a rotated journal from an earlier failed run is compacted first;
+                // the live journal is then picked up on the next run
+                if (!rotated.exists() && journal.exists() && !journal.renameTo(rotated)) {
+                    throw new IOException("Failed to rotate bookings.journal");
+                }
+            }
+            if (!rotated.exists()) {
+                return;
+            }
+
+            File file = new File(RESOURCE);
+            long included = readSequence(file);
+            long sequence = readSequence(rotated);
+            if (sequence != 0 && sequence <= included) {
+                // already in the snapshot; an earlier deletion was interrupted
+                deleteRotated(rotated);
+                return;
+            }
+
+            // key: customerId|flightId, value: bookingDate[|seat[|bookingId]]
+            Map<String, String> merged = new LinkedHashMap<>();
+            // customerId|bookingId of the bookings seen, to skip stale adds as loadData does
+            Set<String> ids = new HashSet<>();
+            if (file.exists()) {
+                try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+                    String line;
+                    while ((line = br.readLine()) != null) {
+                        String[] parts = line.trim().split("\\|");
+                        if (parts.length >= 3 && parts.length <= 5) {
+                            merged.put(parts[0].trim() + "|" + parts[1].trim(), join(parts, 2));
+                        }
+                        if (parts.length == 5) {
+                            ids.add(parts[0].trim() + "|" + parts[4].trim());
+                        }
+                    }
+                }
+            }
+            try (BufferedReader br = new BufferedReader(new FileReader(rotated))) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    String[] parts = line.trim().split("\\|");
+                    if (parts[0].equals("A") && parts.length >= 4 && parts.length <= 6) {
+                        if (parts.length == 6 && !ids.add(parts[1] + "|" + parts[5])) {
+                            continue;
+                        }
+                        merged.putIfAbsent(parts[1] + "|" + parts[2], join(parts, 3));
+                    } else if (parts[0].equals("C") && parts.length == 3) {
+                        merged.remove(parts[1] + "|" + parts[2]);
+                    } else if (parts[0].equals("M") && parts.length == 4) {
+                        // ignored onto the same or an already booked flight, as in loadData
+                        if (parts[2].equals(parts[3]) || merged.containsKey(parts[1] + "|" + parts[3])) {
+                            continue;
+                        }
+                        String value = merged.remove(parts[1] + "|" + parts[2]);
+                        if (value != null) {
+                            merged.put(parts[1] + "|" + parts[3], withoutSeat(value));
+                        }
+                    }
                 }
             }
+
+            // only a deletion customers.txt records is final; it may lag behind the model
+            Set<Integer> deleted = CustomerDataManager.readDeletedIds();
+            merged.keySet().removeIf(key -> deleted.contains(customerOf(key)));
+
+            // bookings.txt goes last: replacing it is what makes the rotated journal stale
+            compactWaitlist(rotated);
+            writeLines(merged, RESOURCE, Math.max(included, sequence));
+            deleteRotated(rotated);
+        }
+    }
+
+    /**
+     * Joins the fields of a line from the given one on, as stored in the
+     * merged map.
+     */
+    private static String join(String[] parts, int from) {
+        StringBuilder value = new StringBuilder(parts[from].trim());
+        for (int i = from + 1; i < parts.length; i++) {
+            value.append('|').append(parts[i].trim());
+        }
+        return value.toString();
+    }
+
+    /**
+     * Drops the seat from a bookingDate[|seat[|bookingId]] value: the seat
+     * stays behind when a booking moves to another flight.
+     */
+    private static String withoutSeat(String value) {
+        String[] fields = value.split("\\|", -1);
+        return fields.length == 3 ? fields[0] + "||" + fields[2] : fields[0];
+    }
+
+    /**
+     * Gets the customer ID of a customerId|flightId key, or -1 if it is not
+     * a number.
+     */
+    private static int customerOf(String key) {
+        try {
+            return Integer.parseInt(key.substring(0, key.indexOf('|')).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void deleteRotated(File rotated) throws IOException {
+        if (!rotated.delete()) {
+            throw new IOException("Failed to delete compacted bookings journal");
         }
     }
 
     /**
-     * Saves all bookings from all customers to bookings.txt safely
+     * Folds the waitlist records of a rotated journal into waitlist.txt.
+     */
+    private void compactWaitlist(File rotated) throws IOException {
+        // key: customerId|flightId, value: requestedAt|tier
+        Map<String, String> merged = new LinkedHashMap<>();
+        File file = new File(WAITLIST);
+        if (file.exists()) {
+            try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+                String line;
+                while ((line = br.readLine()) != null) {
+                    String[] parts = line.trim().split("\\|");
+                    if (parts.length == 4) {
+                        merged.put(parts[0] + "|" + parts[1], parts[2] + "|" + parts[3]);
+                    }
+                }
+            }
+        }
+        try (BufferedReader br = new BufferedReader(new FileReader(rotated))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.trim().split("\\|");
+                if (parts[0].equals("W") && parts.length == 5) {
+                    merged.putIfAbsent(parts[1] + "|" + parts[2], parts[3] + "|" + parts[4]);
+                } else if (parts[0].equals("L") && parts.length == 3) {
+                    merged.remove(parts[1] + "|" + parts[2]);
+                }
+            }
+        }
+        writeLines(merged, WAITLIST, 0);
+    }
+
+    /**
+     * Saves all bookings from all customers to bookings.txt and all waitlists
+     * to waitlist.txt safely, and truncates the journal, whose records are
+     * now part of the snapshot. bookings.txt is replaced last, marked as
+     * including the journals, so a crash before that replays them on the old
+     * snapshot and a crash after it skips them.
      */
     @Override
     public void storeData(FlightBookingSystem fbs) throws IOException {
-        File file = new File(RESOURCE);
-        File tmpFile = new File(RESOURCE + ".tmp");
+        synchronized (SNAPSHOT_LOCK) {
+            synchronized (JOURNAL_LOCK) {
+                long included = lastSequence();
+                writeWaitlist(fbs);
+                writeSnapshot(fbs, included);
 
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(tmpFile))) {
-            for (Customer customer : fbs.getCustomers().values()) {
-                List<Booking> bookings = customer.getBookings();
-                for (Booking booking : bookings) {
-                    String line = String.format("%d|%d|%s",
-                            customer.getId(),
-                            booking.getFlight().getId(),
-                            booking.getBookingDate().toString());
-                    bw.write(line);
-                    bw.newLine();
+                File journal = new File(JOURNAL);
+                if (journal.exists() && !journal.delete()) {
+                    throw new IOException("Failed to truncate bookings.journal");
+                }
+                File rotated = new File(COMPACTING);
+                if (rotated.exists() && !rotated.delete()) {
+                    throw new IOException("Failed to truncate bookings.journal");
                 }
             }
         }
+        fbs.clearBookingChanges();
+    }
+
+    @Override
+    public boolean hasChanges(FlightBookingSystem fbs) {
+        return fbs.hasBookingChanges();
+    }
+
+    @Override
+    public List<File> getDataFiles() {
+        return Arrays.asList(new File(RESOURCE), new File(WAITLIST));
+    }
 
-        // Replace original file with temp file (rollback-safe)
-        if (file.exists() && !file.delete()) {
-            throw new IOException("Failed to delete original bookings.txt");
+    private void writeSnapshot(FlightBookingSystem fbs, long included) throws IOException {
+        Map<String, String> lines = new LinkedHashMap<>();
+        // active customers only; compactJournal drops deleted ones once customers.txt has them
+        for (Customer customer : fbs.getCustomers().values()) {
+            List<Booking> bookings = customer.getBookings();
+            for (Booking booking : bookings) {
+                lines.put(customer.getId() + "|" + booking.getFlight().getId(), bookingFields(booking));
+            }
         }
-        if (!tmpFile.renameTo(file)) {
-            throw new IOException("Failed to rename bookings.tmp to bookings.txt");
+        writeLines(lines, RESOURCE, included);
+    }
+
+    private void writeWaitlist(FlightBookingSystem fbs) throws IOException {
+        Map<String, String> lines = new LinkedHashMap<>();
+        for (Flight flight : fbs.getAllFlights()) {
+            if (!flight.hasWaitlist()) {
+                continue;
+            }
+            for (Waitlist.Entry entry : flight.getWaitlist().getEntries()) {
+                lines.put(entry.getCustomer().getId() + "|" + flight.getId(),
+                        entry.getRequestedAt() + "|" + entry.getTier().name());
+            }
         }
+        writeLines(lines, WAITLIST, 0);
+    }
+
+    /**
+     * Writes lines to a temporary file and renames it over the resource in
+     * one step, so the resource is always either all old or all new.
+     *
+     * @param sequence the journal sequence line to start with, or 0 for none
+     */
+    private void writeLines(Map<String, String> lines, String resource, long sequence) throws IOException {
+        File file = new File(resource);
+        File tmpFile = new File(resource + ".tmp");
+
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(tmpFile))) {
+            if (sequence != 0) {
+                bw.write("J|" + sequence);
+                bw.newLine();
+            }
+            Iterator<Map.Entry<String, String>> it = lines.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, String> entry = it.next();
+                bw.write(entry.getKey() + "|" + entry.getValue());
+                bw.newLine();
+            }
+        }
+
+        Files.move(tmpFile.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 }
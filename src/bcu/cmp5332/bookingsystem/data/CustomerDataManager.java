@@ -5,6 +5,10 @@ import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 
 import java.io.*;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Handles persistence of Customer data to and from the customers.txt file.
@@ -34,32 +38,27 @@ public class CustomerDataManager implements DataManager {
             return;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
+        try (FieldTokenizer tok = new FieldTokenizer(new FileInputStream(file), "::")) {
+            while (tok.nextLine()) {
+                if (tok.isBlank()) continue;
 
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                String[] parts = line.split("::", -1);
-
-                if (parts.length < 4) {
-                    throw new FlightBookingSystemException("Invalid customer entry: " + line);
+                if (tok.getFieldCount() < 4) {
+                    throw new FlightBookingSystemException("Invalid customer entry: " + tok.getLine());
                 }
 
                 int id;
                 try {
-                    id = Integer.parseInt(parts[0]);
+                    id = tok.getInt(0);
                 } catch (NumberFormatException e) {
-                    throw new FlightBookingSystemException("Invalid customer ID: " + parts[0]);
+                    throw new FlightBookingSystemException("Invalid customer ID: " + tok.getString(0));
                 }
 
-                String name = parts[1];
-                String phone = parts[2];
-                String email = parts[3];
-                String password = parts.length > 4 ? parts[4] : "";
-                boolean deleted = parts.length > 5 && !parts[5].isEmpty()
-                        ? Boolean.parseBoolean(parts[5])
+                String name = tok.getString(1);
+                String phone = tok.getString(2);
+                String email = tok.getString(3);
+                String password = tok.getFieldCount() > 4 ? tok.getString(4) : "";
+                boolean deleted = tok.getFieldCount() > 5 && !tok.isEmpty(5)
+                        ? tok.getBoolean(5)
                         : false;
 
                 Customer customer = new Customer(
@@ -76,6 +75,36 @@ public class CustomerDataManager implements DataManager {
         }
     }
 
+    /**
+     * Reads the IDs of the customers customers.txt marks as deleted, without
+     * loading the customers.
+     *
+     * @return the IDs, empty if there is no customers.txt
+     * @throws IOException if the file cannot be read
+     */
+    static Set<Integer> readDeletedIds() throws IOException {
+        File file = new File(RESOURCE);
+        Set<Integer> ids = new HashSet<>();
+        if (!file.exists()) {
+            return ids;
+        }
+
+        try (FieldTokenizer tok = new FieldTokenizer(new FileInputStream(file), "::")) {
+            while (tok.nextLine()) {
+                if (tok.isBlank() || tok.getFieldCount() < 4) continue;
+                try {
+                    boolean deleted = tok.getFieldCount() > 5 && !tok.isEmpty(5) && tok.getBoolean(5);
+                    if (deleted) {
+                        ids.add(tok.getInt(0));
+                    }
+                } catch (NumberFormatException e) {
+                    // loadData rejects the file; nothing to keep for this line
+                }
+            }
+        }
+        return ids;
+    }
+
     @Override
     public void storeData(FlightBookingSystem fbs) throws IOException {
 
@@ -108,5 +137,16 @@ public class CustomerDataManager implements DataManager {
         if (!tempFile.renameTo(file)) {
             throw new IOException("Failed to save customer data");
         }
+        fbs.clearCustomerChanges();
+    }
+
+    @Override
+    public boolean hasChanges(FlightBookingSystem fbs) {
+        return fbs.hasCustomerChanges();
+    }
+
+    @Override
+    public List<File> getDataFiles() {
+        return Collections.singletonList(new File(RESOURCE));
     }
 }
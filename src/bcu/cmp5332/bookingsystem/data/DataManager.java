@@ -2,7 +2,10 @@ package bcu.cmp5332.bookingsystem.data;
 
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 public interface DataManager {
     
@@ -11,4 +14,25 @@ public interface DataManager {
     public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException;
     public void storeData(FlightBookingSystem fbs) throws IOException;
     
+    /**
+     * Tells whether the data this manager stores has changed since it was
+     * last written, so unchanged files can be skipped.
+     * 
+     * @param fbs the flight booking system
+     * @return true if {@link #storeData} has something to write
+     */
+    public default boolean hasChanges(FlightBookingSystem fbs) {
+        return true;
+    }
+    
+    /**
+     * Returns the files {@link #storeData} writes, so they can be flushed to
+     * disk after a batch of writes.
+     * 
+     * @return the data files of this manager
+     */
+    public default List<File> getDataFiles() {
+        return Collections.emptyList();
+    }
+    
 }
@@ -0,0 +1,454 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Splits delimiter-separated records into fields directly on a reused byte
+ * buffer.
+ *
+ * <p>Unlike {@code String.split}, no line String or field array is created:
+ * {@link #nextLine()} only records the start and end offset of each field,
+ * and numbers, ISO dates and booleans are parsed straight from the bytes.
+ * A String is only allocated when a caller asks for a text field with
+ * {@link #getString(int)}.</p>
+ *
+ * <p>Lines are trimmed of surrounding whitespace (and a trailing
+ * {@code \r}) before they are split, and numeric, date and boolean fields
+ * are trimmed before parsing. Text is decoded as UTF-8.</p>
+ */
+final class FieldTokenizer implements Closeable {
+
+    private static final int INITIAL_BUFFER = 64 * 1024;
+
+    // 10^0 .. 10^22 are exactly representable as doubles
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+
+    private final InputStream in;
+    private final byte[] delimiter;
+
+    private byte[] buf = new byte[INITIAL_BUFFER];
+    private int pos;
+    private int limit;
+    private boolean eof;
+
+    private int lineStart;
+    private int lineEnd;
+    private int lineNumber;
+
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int fieldCount;
+
+    /**
+     * Creates a tokenizer over the given stream.
+     *
+     * @param in the stream to read; closed by {@link #close()}
+     * @param delimiter the field separator, e.g. {@code "::"} or {@code "|"}
+     */
+    FieldTokenizer(InputStream in, String delimiter) {
+        if (delimiter.isEmpty()) {
+            throw new IllegalArgumentException("Delimiter must not be empty");
+        }
+        this.in = in;
+        this.delimiter = delimiter.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a tokenizer over the remaining bytes of a buffer, such as a
+     * memory-mapped region of a file.
+     *
+     * @param src the bytes to read; its position is advanced as lines are read
+     * @param delimiter the field separator
+     */
+    FieldTokenizer(ByteBuffer src, String delimiter) {
+        this(new ByteBufferInputStream(src), delimiter);
+    }
+
+    /**
+     * Advances to the next line and splits it into fields.
+     *
+     * @return false once the end of the stream has been reached
+     * @throws IOException if the stream cannot be read
+     */
+    boolean nextLine() throws IOException {
+        int scanFrom = pos;
+        int newline;
+        while (true) {
+            newline = indexOf((byte) '\n', scanFrom, limit);
+            if (newline >= 0 || eof) {
+                break;
+            }
+            scanFrom = limit - pos;
+            fill();
+            scanFrom += pos;
+        }
+
+        if (newline < 0) {
+            if (pos >= limit) {
+                return false;
+            }
+            newline = limit; // last line without a terminator
+        }
+
+        lineStart = pos;
+        lineEnd = newline;
+        pos = Math.min(newline + 1, limit);
+        lineNumber++;
+
+        while (lineStart < lineEnd && isWhitespace(buf[lineStart])) lineStart++;
+        while (lineEnd > lineStart && isWhitespace(buf[lineEnd - 1])) lineEnd--;
+
+        split();
+        return true;
+    }
+
+    /**
+     * Moves unread bytes to the front of the buffer (growing it if a single
+     * line does not fit) and reads more input after them.
+     */
+    private void fill() throws IOException {
+        int remaining = limit - pos;
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, remaining);
+        } else if (remaining == buf.length) {
+            byte[] bigger = new byte[buf.length * 2];
+            System.arraycopy(buf, 0, bigger, 0, remaining);
+            buf = bigger;
+        }
+        pos = 0;
+        limit = remaining;
+
+        int n = in.read(buf, limit, buf.length - limit);
+        if (n < 0) {
+            eof = true;
+        } else {
+            limit += n;
+        }
+    }
+
+    private void split() {
+        fieldCount = 0;
+        if (lineStart == lineEnd) {
+            return;
+        }
+        int start = lineStart;
+        int i = lineStart;
+        while (i <= lineEnd - delimiter.length) {
+            if (matchesDelimiter(i)) {
+                addField(start, i);
+                i += delimiter.length;
+                start = i;
+            } else {
+                i++;
+            }
+        }
+        addField(start, lineEnd);
+    }
+
+    private boolean matchesDelimiter(int at) {
+        for (int j = 0; j < delimiter.length; j++) {
+            if (buf[at + j] != delimiter[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == starts.length) {
+            int[] s = new int[starts.length * 2];
+            int[] e = new int[ends.length * 2];
+            System.arraycopy(starts, 0, s, 0, fieldCount);
+            System.arraycopy(ends, 0, e, 0, fieldCount);
+            starts = s;
+            ends = e;
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '\f';
+    }
+
+    /**
+     * @return the 1-based number of the current line
+     */
+    int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return true if the current line is empty after trimming
+     */
+    boolean isBlank() {
+        return fieldCount == 0;
+    }
+
+    /**
+     * @return the number of fields on the current line (0 for a blank line)
+     */
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @param i field index
+     * @return true if the field has no characters
+     */
+    boolean isEmpty(int i) {
+        checkIndex(i);
+        return starts[i] == ends[i];
+    }
+
+    /**
+     * Compares a field against a single ASCII character, e.g. a record type.
+     *
+     * @param i field index
+     * @param c the expected character
+     * @return true if the field consists of exactly that character
+     */
+    boolean fieldIs(int i, char c) {
+        checkIndex(i);
+        return ends[i] - starts[i] == 1 && buf[starts[i]] == c;
+    }
+
+    /**
+     * @param i field index
+     * @return the field as a String, untrimmed
+     */
+    String getString(int i) {
+        checkIndex(i);
+        return new String(buf, starts[i], ends[i] - starts[i], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the whole current line as a String, for error messages
+     */
+    String getLine() {
+        return new String(buf, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a field as a decimal int.
+     *
+     * @param i field index
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not a valid int
+     */
+    int getInt(int i) {
+        checkIndex(i);
+        int s = trimStart(i);
+        int e = trimEnd(i, s);
+        if (s == e) {
+            throw new NumberFormatException("For input string: \"" + getString(i) + "\"");
+        }
+
+        boolean negative = false;
+        if (buf[s] == '-' || buf[s] == '+') {
+            negative = buf[s] == '-';
+            s++;
+            if (s == e) {
+                throw new NumberFormatException("For input string: \"" + getString(i) + "\"");
+            }
+        }
+
+        long value = 0;
+        for (int p = s; p < e; p++) {
+            int d = buf[p] - '0';
+            if (d < 0 || d > 9) {
+                throw new NumberFormatException("For input string: \"" + getString(i) + "\"");
+            }
+            value = value * 10 + d;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("For input string: \"" + getString(i) + "\"");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + getString(i) + "\"");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a field as a double. Plain decimals such as {@code 123.45} are
+     * parsed without allocating; anything else (exponents, very long
+     * mantissas, NaN) falls back to {@link Double#parseDouble}.
+     *
+     * @param i field index
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not a valid double
+     */
+    double getDouble(int i) {
+        checkIndex(i);
+        int s = trimStart(i);
+        int e = trimEnd(i, s);
+
+        int p = s;
+        boolean negative = false;
+        if (p < e && (buf[p] == '-' || buf[p] == '+')) {
+            negative = buf[p] == '-';
+            p++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        boolean simple = p < e;
+        for (; p < e; p++) {
+            byte b = buf[p];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (seenPoint) fractionDigits++;
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                simple = false;
+                break;
+            }
+        }
+
+        // exact when both operands are exactly representable (Clinger's fast path)
+        if (simple && digits > 0 && digits <= 15 && fractionDigits < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+        return Double.parseDouble(new String(buf, s, e - s, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a field as an ISO-8601 date ({@code yyyy-MM-dd}).
+     *
+     * @param i field index
+     * @return the parsed date
+     * @throws DateTimeParseException if the field is not a valid date
+     */
+    LocalDate getDate(int i) {
+        checkIndex(i);
+        int s = trimStart(i);
+        int e = trimEnd(i, s);
+        if (e - s == 10 && buf[s + 4] == '-' && buf[s + 7] == '-') {
+            int year = digits(s, 4);
+            int month = digits(s + 5, 2);
+            int day = digits(s + 8, 2);
+            if (year >= 0 && month >= 0 && day >= 0) {
+                try {
+                    return LocalDate.of(year, month, day);
+                } catch (DateTimeException ex) {
+                    throw new DateTimeParseException(ex.getMessage(), getString(i), 0);
+                }
+            }
+        }
+        // extended years and malformed input take the standard path
+        return LocalDate.parse(new String(buf, s, e - s, StandardCharsets.UTF_8));
+    }
+
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int p = from; p < from + count; p++) {
+            int d = buf[p] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * Parses a field as a boolean with the same rules as
+     * {@link Boolean#parseBoolean}: true only for "true", ignoring case.
+     *
+     * @param i field index
+     * @return the parsed value
+     */
+    boolean getBoolean(int i) {
+        checkIndex(i);
+        int s = trimStart(i);
+        int e = trimEnd(i, s);
+        return e - s == 4
+                && (buf[s] | 0x20) == 't'
+                && (buf[s + 1] | 0x20) == 'r'
+                && (buf[s + 2] | 0x20) == 'u'
+                && (buf[s + 3] | 0x20) == 'e';
+    }
+
+    private int trimStart(int i) {
+        int s = starts[i];
+        while (s < ends[i] && isWhitespace(buf[s])) s++;
+        return s;
+    }
+
+    private int trimEnd(int i, int s) {
+        int e = ends[i];
+        while (e > s && isWhitespace(buf[e - 1])) e--;
+        return e;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= fieldCount) {
+            throw new IndexOutOfBoundsException(
+                    "Field " + i + " out of range on line " + lineNumber + " (" + fieldCount + " fields)");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Minimal stream view of a ByteBuffer, used to feed mapped file regions
+     * through the same buffer logic as ordinary streams.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer src;
+
+        ByteBufferInputStream(ByteBuffer src) {
+            this.src = src;
+        }
+
+        @Override
+        public int read() {
+            return src.hasRemaining() ? src.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!src.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, src.remaining());
+            src.get(b, off, n);
+            return n;
+        }
+    }
+}
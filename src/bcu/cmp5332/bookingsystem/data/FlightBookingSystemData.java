@@ -1,36 +1,131 @@
 package bcu.cmp5332.bookingsystem.data;
 
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.BookingLocks;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class FlightBookingSystemData {
-    
+
     private static final List<DataManager> dataManagers = new ArrayList<>();
-    
+
+    private static final FlightDataManager flightDataManager = new FlightDataManager();
+    private static final CustomerDataManager customerDataManager = new CustomerDataManager();
+    private static final BookingDataManager bookingDataManager = new BookingDataManager();
+    private static final BinarySnapshotDataManager snapshotDataManager =
+            new BinarySnapshotDataManager(flightDataManager, customerDataManager, bookingDataManager);
+
+    private static volatile Map<String, Long> lastLoadTimings = Collections.emptyMap();
+
     // runs only once when the object gets loaded to memory
     static {
-        dataManagers.add(new FlightDataManager());
-        
+        dataManagers.add(flightDataManager);
+
         // Now uncommented since CustomerDataManager & BookingDataManager are implemented
-        dataManagers.add(new CustomerDataManager());
-        dataManagers.add(new BookingDataManager());
+        dataManagers.add(customerDataManager);
+        dataManagers.add(bookingDataManager);
     }
-    
+
     public static FlightBookingSystem load() throws FlightBookingSystemException, IOException {
         FlightBookingSystem fbs = new FlightBookingSystem();
-        for (DataManager dm : dataManagers) {
-            dm.loadData(fbs);
-        }
+        load(fbs, flightDataManager, customerDataManager, bookingDataManager);
         return fbs;
     }
 
+    /**
+     * Loads all data into an existing system with the given data managers.
+     * A current binary snapshot is preferred; otherwise the text files are
+     * loaded, with flights and customers concurrently and bookings once both
+     * have finished.
+     *
+     * @param fbs the system to load into
+     * @param fdm flight data manager
+     * @param cdm customer data manager
+     * @param bdm booking data manager
+     * @throws FlightBookingSystemException if a data file cannot be parsed
+     * @throws IOException if a data file cannot be read
+     */
+    public static void load(FlightBookingSystem fbs, FlightDataManager fdm, CustomerDataManager cdm,
+                            BookingDataManager bdm) throws FlightBookingSystemException, IOException {
+        // queued writes must reach the files before they are read back
+        PersistenceService.flush();
+
+        long start = System.nanoTime();
+        boolean fromSnapshot;
+        try {
+            fromSnapshot = new BinarySnapshotDataManager(fdm, cdm, bdm).tryLoad(fbs);
+        } finally {
+            fbs.clearChanges();
+        }
+        if (fromSnapshot) {
+            Map<String, Long> timings = new LinkedHashMap<>();
+            timings.put("snapshot", (System.nanoTime() - start) / 1_000_000);
+            timings.put(LoadScheduler.TOTAL, timings.get("snapshot"));
+            lastLoadTimings = timings;
+            return;
+        }
+
+        LoadScheduler scheduler = new LoadScheduler()
+                .addStage("flights", fdm)
+                .addStage("customers", cdm)
+                .addStage("bookings", bdm, "flights", "customers");
+        try {
+            scheduler.load(fbs);
+        } finally {
+            lastLoadTimings = scheduler.getStageTimings();
+            // what was just read (or partially read) matches the files
+            fbs.clearChanges();
+        }
+    }
+
+    /**
+     * Returns the per-stage timings of the most recent load, in milliseconds.
+     *
+     * @return stage name to elapsed milliseconds
+     */
+    public static Map<String, Long> getLastLoadTimings() {
+        return lastLoadTimings;
+    }
+
+    /**
+     * Stores every data file that has changed since it was last written.
+     *
+     * @param fbs the system to store
+     * @throws IOException if a data file cannot be written
+     */
     public static void store(FlightBookingSystem fbs) throws IOException {
-        for (DataManager dm : dataManagers) {
-            dm.storeData(fbs);
+        store(fbs, dataManagers);
+    }
+
+    /**
+     * Stores the data files of the given managers that have changed since
+     * they were last written. Once every file matches the model the binary
+     * snapshot is refreshed as well, if it is out of date.
+     *
+     * @param fbs the system to store
+     * @param managers the data managers to consider
+     * @throws IOException if a data file cannot be written
+     */
+    @SuppressWarnings("try")
+    public static void store(FlightBookingSystem fbs, List<? extends DataManager> managers) throws IOException {
+        // flushed before locking: the flusher needs the lock to finish
+        PersistenceService.flush();
+        try (BookingLocks.Guard guard = fbs.getLocks().exclusive()) {
+            for (DataManager dm : managers) {
+                if (dm.hasChanges(fbs)) {
+                    dm.storeData(fbs);
+                }
+            }
+            if (!fbs.hasFlightChanges() && !fbs.hasCustomerChanges() && !fbs.hasBookingChanges()
+                    && !snapshotDataManager.isCurrent()) {
+                snapshotDataManager.storeData(fbs);
+            }
         }
     }
-    
+
 }
@@ -4,11 +4,14 @@ import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.Flight;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.time.LocalDate;
-import java.util.Scanner;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Manages the loading and storing of Flight data to/from flights.txt file.
@@ -18,9 +21,36 @@ public class FlightDataManager implements DataManager {
     
     private final String RESOURCE = "./resources/data/flights.txt";
     
+    /**
+     * Files at least this large are loaded with {@link MappedFlightLoader}.
+     */
+    public static final long PARALLEL_LOAD_THRESHOLD = 8L * 1024 * 1024;
+
+    private final long parallelLoadThreshold;
+    private final MappedFlightLoader mappedLoader;
+
+    public FlightDataManager() {
+        this(PARALLEL_LOAD_THRESHOLD, new MappedFlightLoader());
+    }
+
+    /**
+     * Creates a manager that loads files of a given size and up with a
+     * given loader, so tests can take the parallel path with small files.
+     *
+     * @param parallelLoadThreshold smallest file size loaded in parallel
+     * @param mappedLoader the loader used for those files
+     */
+    FlightDataManager(long parallelLoadThreshold, MappedFlightLoader mappedLoader) {
+        this.parallelLoadThreshold = parallelLoadThreshold;
+        this.mappedLoader = mappedLoader;
+    }
+
     /**
      * Loads flight data from the storage file.
      * 
+     * <p>Large files are memory-mapped and parsed in parallel; the resulting
+     * flights are identical to a sequential load.</p>
+     * 
      * @param fbs the flight booking system to load data into
      * @throws IOException if there's an error reading the file
      * @throws FlightBookingSystemException if there's an error parsing flight data
@@ -34,47 +64,82 @@ public class FlightDataManager implements DataManager {
             return;
         }
 
-        try (Scanner sc = new Scanner(file)) {
-            int line_idx = 1;
-            while (sc.hasNextLine()) {
-                String line = sc.nextLine();
-                String[] properties = line.split(SEPARATOR, -1);
+        if (file.length() >= parallelLoadThreshold) {
+            mappedLoader.load(file, fbs);
+            return;
+        }
+
+        try (FieldTokenizer tok = new FieldTokenizer(new FileInputStream(file), SEPARATOR)) {
+            while (tok.nextLine()) {
+                if (tok.isBlank()) continue;
                 try {
-                    int id = Integer.parseInt(properties[0]);
-                    String flightNumber = properties[1];
-                    String origin = properties[2];
-                    String destination = properties[3];
-                    LocalDate departureDate = LocalDate.parse(properties[4]);
-                    
-                    // Handle optional fields (backwards compatible)
-                    int capacity = 100;
-                    double price = 0.0;
-                    boolean deleted = false;
-                    
-                    if (properties.length > 5 && !properties[5].isEmpty()) {
-                        capacity = Integer.parseInt(properties[5]);
-                    }
-                    if (properties.length > 6 && !properties[6].isEmpty()) {
-                        price = Double.parseDouble(properties[6]);
-                    }
-                    if (properties.length > 7 && !properties[7].isEmpty()) {
-                        deleted = Boolean.parseBoolean(properties[7]);
-                    }
-                    
-                    Flight flight = new Flight(id, flightNumber, origin, destination, departureDate, capacity, price);
-                    flight.setDeleted(deleted);
-                    fbs.addFlight(flight);
-                    
-                } catch (NumberFormatException ex) {
-                    throw new FlightBookingSystemException(
-                        "Unable to parse flight id " + properties[0] + 
-                        " on line " + line_idx + "\nError: " + ex
-                    );
+                    fbs.addFlight(parseFlight(tok));
+                } catch (IllegalArgumentException | DateTimeParseException ex) {
+                    throw parseError(tok.getLineNumber(), tok.getLine(), tok.getString(0), ex);
                 }
-                line_idx++;
             }
         }
     }
+
+    /**
+     * Builds a flight from the current line of a tokenizer.
+     * 
+     * @param tok a tokenizer positioned on a non-blank flight line
+     * @return the parsed flight
+     * @throws IllegalArgumentException if the line has too few fields or a bad number
+     * @throws DateTimeParseException if the departure date is invalid
+     */
+    static Flight parseFlight(FieldTokenizer tok) {
+        if (tok.getFieldCount() < 5) {
+            throw new IllegalArgumentException("Expected at least 5 fields but found " + tok.getFieldCount());
+        }
+
+        int id = tok.getInt(0);
+        String flightNumber = tok.getString(1);
+        String origin = tok.getString(2);
+        String destination = tok.getString(3);
+        LocalDate departureDate = tok.getDate(4);
+        
+        // Handle optional fields (backwards compatible)
+        int capacity = 100;
+        double price = 0.0;
+        boolean deleted = false;
+        
+        if (tok.getFieldCount() > 5 && !tok.isEmpty(5)) {
+            capacity = tok.getInt(5);
+        }
+        if (tok.getFieldCount() > 6 && !tok.isEmpty(6)) {
+            price = tok.getDouble(6);
+        }
+        if (tok.getFieldCount() > 7 && !tok.isEmpty(7)) {
+            deleted = tok.getBoolean(7);
+        }
+        
+        Flight flight = new Flight(id, flightNumber, origin, destination, departureDate, capacity, price);
+        flight.setDeleted(deleted);
+        return flight;
+    }
+
+    /**
+     * Builds the exception reported for a flight line that cannot be parsed.
+     * 
+     * @param lineNumber the 1-based line number in flights.txt
+     * @param line the offending line
+     * @param idField the raw id field of the line
+     * @param ex the parse failure
+     * @return the exception to throw
+     */
+    static FlightBookingSystemException parseError(int lineNumber, String line, String idField, RuntimeException ex) {
+        if (ex instanceof NumberFormatException || ex instanceof DateTimeParseException) {
+            return new FlightBookingSystemException(
+                "Unable to parse flight id " + idField + 
+                " on line " + lineNumber + "\nError: " + ex
+            );
+        }
+        return new FlightBookingSystemException(
+            "Invalid flight entry on line " + lineNumber + ": " + line
+        );
+    }
     
     /**
      * Stores all flight data to the storage file.
@@ -101,5 +166,16 @@ public class FlightDataManager implements DataManager {
                 out.println();
             }
         }
+        fbs.clearFlightChanges();
+    }
+
+    @Override
+    public boolean hasChanges(FlightBookingSystem fbs) {
+        return fbs.hasFlightChanges();
+    }
+
+    @Override
+    public List<File> getDataFiles() {
+        return Collections.singletonList(new File(RESOURCE));
     }
 }
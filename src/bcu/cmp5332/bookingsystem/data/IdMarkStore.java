@@ -0,0 +1,105 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.IdAllocator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the high-water marks of the id allocators in ids.txt.
+ * Format: name::mark, one allocator per line.
+ *
+ * <p>The file is tiny and is rewritten in full, through a temporary file
+ * that is synced before it replaces the old one with an atomic rename, once
+ * per block of ids per thread (see {@link IdAllocator}). If ids.txt is
+ * missing but the temporary file is not, the marks are read from the
+ * temporary file.</p>
+ */
+public class IdMarkStore implements IdAllocator.Store {
+
+    private static final String RESOURCE = "./resources/data/ids.txt";
+    private static final String SEPARATOR = "::";
+
+    private final File file;
+    private Map<String, Integer> marks;
+
+    public IdMarkStore() {
+        this(new File(RESOURCE));
+    }
+
+    IdMarkStore(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized int load(String name) throws IOException {
+        return marks().getOrDefault(name, 0);
+    }
+
+    @Override
+    public synchronized void save(String name, int mark) throws IOException {
+        Map<String, Integer> updated = new LinkedHashMap<>(marks());
+        updated.merge(name, mark, Math::max);
+
+        File parentDir = file.getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            parentDir.mkdirs();
+        }
+        File tmpFile = tmpFile();
+        try (FileOutputStream fos = new FileOutputStream(tmpFile);
+             BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(fos, StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, Integer> entry : updated.entrySet()) {
+                bw.write(entry.getKey() + SEPARATOR + entry.getValue());
+                bw.newLine();
+            }
+            bw.flush();
+            fos.getFD().sync();
+        }
+
+        Files.move(tmpFile.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        marks = updated;
+    }
+
+    private File tmpFile() {
+        return new File(file.getPath() + ".tmp");
+    }
+
+    private Map<String, Integer> marks() throws IOException {
+        if (marks != null) {
+            return marks;
+        }
+        Map<String, Integer> read = new LinkedHashMap<>();
+        File source = file.exists() ? file : tmpFile();
+        if (source.exists()) {
+            try (BufferedReader br = new BufferedReader(new FileReader(source, StandardCharsets.UTF_8))) {
+                String line;
+                int lineNumber = 0;
+                while ((line = br.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    String[] parts = line.split(SEPARATOR, -1);
+                    try {
+                        read.put(parts[0], Integer.parseInt(parts[1].trim()));
+                    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                        throw new IOException("Invalid id mark on line " + lineNumber + " of " + source.getName());
+                    }
+                }
+            }
+        }
+        marks = read;
+        return marks;
+    }
+}
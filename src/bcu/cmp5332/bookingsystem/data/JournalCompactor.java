@@ -0,0 +1,111 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically folds the booking journal back into bookings.txt on a
+ * background thread, so that startup replay time and the size of the
+ * journal on disk stay bounded.
+ *
+ * <p>Every check interval the size of the journal is compared against the
+ * configured threshold and, once it is reached, the journal is compacted via
+ * {@link BookingDataManager#compactJournal()}. A threshold of zero compacts
+ * on every check that finds a non-empty journal. Compaction works on the
+ * files only, so it never needs to lock the in-memory model and commands
+ * keep appending to a fresh journal while it runs.</p>
+ *
+ * <p>flights.txt and customers.txt are rewritten in full by the commands that
+ * change them, so they never carry a journal and need no compaction.</p>
+ */
+public class JournalCompactor {
+
+    public static final long DEFAULT_MAX_JOURNAL_BYTES = 256 * 1024;
+    public static final long DEFAULT_CHECK_INTERVAL_SECONDS = 30;
+
+    private final BookingDataManager bookingDataManager;
+    private final long maxJournalBytes;
+    private final long checkIntervalSeconds;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a compactor with the default threshold and interval.
+     *
+     * @param bookingDataManager the data manager owning the journal
+     */
+    public JournalCompactor(BookingDataManager bookingDataManager) {
+        this(bookingDataManager, DEFAULT_MAX_JOURNAL_BYTES, DEFAULT_CHECK_INTERVAL_SECONDS);
+    }
+
+    /**
+     * Creates a compactor.
+     *
+     * @param bookingDataManager the data manager owning the journal
+     * @param maxJournalBytes journal size that triggers a compaction (0 = any)
+     * @param checkIntervalSeconds how often the journal size is checked
+     */
+    public JournalCompactor(BookingDataManager bookingDataManager, long maxJournalBytes, long checkIntervalSeconds) {
+        if (maxJournalBytes < 0 || checkIntervalSeconds <= 0) {
+            throw new IllegalArgumentException("Invalid compaction settings");
+        }
+        this.bookingDataManager = bookingDataManager;
+        this.maxJournalBytes = maxJournalBytes;
+        this.checkIntervalSeconds = checkIntervalSeconds;
+    }
+
+    /**
+     * Starts the background compaction thread. Calling this more than once
+     * has no effect.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "journal-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::compactIfNeeded,
+                checkIntervalSeconds, checkIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the background thread, waiting for a running compaction to finish.
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(checkIntervalSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+    }
+
+    /**
+     * Compacts the journal if it has reached the configured size.
+     *
+     * @return true if a compaction was performed
+     */
+    public boolean compactIfNeeded() {
+        long size = bookingDataManager.getJournalSize();
+        if (size == 0 || size < maxJournalBytes) {
+            return false;
+        }
+        try {
+            bookingDataManager.compactJournal();
+            return true;
+        } catch (IOException e) {
+            // the journal is left in place and retried on the next check
+            System.out.println("Error compacting bookings journal: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs DataManager loads as a small dependency graph.
+ *
+ * <p>Each stage names the stages it depends on. A stage starts as soon as all
+ * of its dependencies have finished, so independent stages (flights and
+ * customers) load concurrently while bookings, which link the two, wait for
+ * both. The wall-clock time of every stage is recorded and can be read back
+ * with {@link #getStageTimings()}.</p>
+ *
+ * <p>Stages that run concurrently must only touch disjoint parts of the
+ * {@link FlightBookingSystem}, as flights and customers do.</p>
+ */
+public class LoadScheduler {
+
+    public static final String TOTAL = "total";
+
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Adds a stage to the schedule.
+     *
+     * @param name unique stage name
+     * @param dataManager the data manager loaded by this stage
+     * @param dependsOn names of stages that must finish first
+     * @return this scheduler
+     */
+    public LoadScheduler addStage(String name, DataManager dataManager, String... dependsOn) {
+        if (stages.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate load stage: " + name);
+        }
+        for (String dependency : dependsOn) {
+            if (!stages.containsKey(dependency)) {
+                throw new IllegalArgumentException("Unknown load stage: " + dependency);
+            }
+        }
+        stages.put(name, new Stage(dataManager, dependsOn));
+        return this;
+    }
+
+    /**
+     * Loads every stage into the given system, waiting for all of them.
+     *
+     * @param fbs the system to load into
+     * @throws IOException if a data file cannot be read
+     * @throws FlightBookingSystemException if a data file cannot be parsed
+     */
+    public void load(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        timings.clear();
+        long start = System.nanoTime();
+
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        for (Map.Entry<String, Stage> entry : stages.entrySet()) {
+            String name = entry.getKey();
+            Stage stage = entry.getValue();
+
+            List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+            for (String dependency : stage.dependsOn) {
+                dependencies.add(futures.get(dependency));
+            }
+            CompletableFuture<Void> ready = CompletableFuture.allOf(toArray(dependencies));
+            futures.put(name, ready.thenRunAsync(() -> runStage(name, stage, fbs)));
+        }
+
+        try {
+            CompletableFuture.allOf(toArray(futures.values())).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof StageFailure) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof FlightBookingSystemException) {
+                throw (FlightBookingSystemException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        } finally {
+            timings.put(TOTAL, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private static CompletableFuture<?>[] toArray(Collection<CompletableFuture<Void>> futures) {
+        return futures.toArray(new CompletableFuture<?>[0]);
+    }
+
+    private void runStage(String name, Stage stage, FlightBookingSystem fbs) {
+        long start = System.nanoTime();
+        try {
+            stage.dataManager.loadData(fbs);
+        } catch (IOException | FlightBookingSystemException e) {
+            throw new StageFailure(e);
+        } finally {
+            timings.put(name, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Returns how long each stage of the last load took, in milliseconds,
+     * plus the overall time under {@link #TOTAL}.
+     *
+     * @return stage name to elapsed milliseconds
+     */
+    public Map<String, Long> getStageTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    private static final class Stage {
+
+        private final DataManager dataManager;
+        private final String[] dependsOn;
+
+        Stage(DataManager dataManager, String[] dependsOn) {
+            this.dataManager = dataManager;
+            this.dependsOn = dependsOn;
+        }
+    }
+
+    /**
+     * Carries a checked load failure out of a CompletableFuture.
+     */
+    private static final class StageFailure extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        StageFailure(Exception cause) {
+            super(cause);
+        }
+    }
+}
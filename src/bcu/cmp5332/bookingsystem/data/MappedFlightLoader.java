@@ -0,0 +1,227 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Loads a large flights.txt by memory-mapping it and parsing newline-aligned
+ * chunks in parallel on a {@link ForkJoinPool}.
+ *
+ * <p>The file is cut into chunks of roughly {@code chunkSize} bytes, each
+ * boundary moved forward to just after the next newline so no line is split.
+ * Every chunk is mapped and parsed independently with a {@link FieldTokenizer}
+ * into its own list. The lists are then added to the system in chunk order,
+ * so the result is exactly the same as a sequential load, including which
+ * line is reported when the file contains an error.</p>
+ */
+public class MappedFlightLoader {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Creates a loader using the common pool and the default chunk size.
+     */
+    public MappedFlightLoader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a loader.
+     *
+     * @param pool the pool chunks are parsed on
+     * @param chunkSize target size of each chunk in bytes
+     */
+    public MappedFlightLoader(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Parses the file and adds every flight to the system.
+     *
+     * @param file the flights file
+     * @param fbs the system to load into
+     * @throws IOException if the file cannot be read
+     * @throws FlightBookingSystemException if a line cannot be parsed
+     */
+    public void load(File file, FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+        for (Flight flight : parse(file)) {
+            fbs.addFlight(flight);
+        }
+    }
+
+    /**
+     * Parses the file into flights, in file order.
+     *
+     * @param file the flights file
+     * @return the parsed flights
+     * @throws IOException if the file cannot be read
+     * @throws FlightBookingSystemException if a line cannot be parsed
+     */
+    public List<Flight> parse(File file) throws IOException, FlightBookingSystemException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long[] bounds = chunkBoundaries(channel);
+            Chunk[] chunks = new Chunk[bounds.length - 1];
+            for (int i = 0; i < chunks.length; i++) {
+                chunks[i] = new Chunk(channel, bounds[i], bounds[i + 1]);
+            }
+
+            pool.invoke(new ParseTask(chunks, 0, chunks.length));
+
+            List<Flight> flights = new ArrayList<>();
+            int linesBefore = 0;
+            for (Chunk chunk : chunks) {
+                if (chunk.ioError != null) {
+                    throw chunk.ioError;
+                }
+                if (chunk.parseError != null) {
+                    throw FlightDataManager.parseError(linesBefore + chunk.errorLine,
+                            chunk.errorText, chunk.errorId, chunk.parseError);
+                }
+                flights.addAll(chunk.flights);
+                linesBefore += chunk.lines;
+            }
+            return flights;
+        }
+    }
+
+    /**
+     * Splits the file into ranges that each end just after a newline (or at
+     * the end of the file).
+     */
+    private long[] chunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long next = chunkSize;
+        while (next < size) {
+            long newline = -1;
+            long at = next;
+            while (newline < 0 && at < size) {
+                probe.clear();
+                int n = channel.read(probe, at);
+                if (n <= 0) break;
+                for (int i = 0; i < n; i++) {
+                    if (probe.get(i) == '\n') {
+                        newline = at + i;
+                        break;
+                    }
+                }
+                at += n;
+            }
+            if (newline < 0) {
+                break;
+            }
+            bounds.add(newline + 1);
+            next = newline + 1 + chunkSize;
+        }
+        if (bounds.get(bounds.size() - 1) < size) {
+            bounds.add(size);
+        }
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * One newline-aligned range of the file and the result of parsing it.
+     */
+    private static final class Chunk {
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        private final List<Flight> flights = new ArrayList<>();
+        private int lines;
+
+        private IOException ioError;
+        private RuntimeException parseError;
+        private int errorLine;
+        private String errorText;
+        private String errorId;
+
+        Chunk(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        void parse() {
+            try {
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                try (FieldTokenizer tok = new FieldTokenizer(region, DataManager.SEPARATOR)) {
+                    while (tok.nextLine()) {
+                        lines = tok.getLineNumber();
+                        if (tok.isBlank()) continue;
+                        try {
+                            flights.add(FlightDataManager.parseFlight(tok));
+                        } catch (IllegalArgumentException | DateTimeParseException ex) {
+                            parseError = ex;
+                            errorLine = tok.getLineNumber();
+                            errorText = tok.getLine();
+                            errorId = tok.getString(0);
+                            return;
+                        }
+                    }
+                }
+            } catch (IOException ex) {
+                ioError = ex;
+            }
+        }
+    }
+
+    /**
+     * Recursively splits the chunk array until a single chunk is left to parse.
+     */
+    private static final class ParseTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Chunk[] chunks;
+        private final int from;
+        private final int to;
+
+        ParseTask(Chunk[] chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) {
+                    chunks[from].parse();
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ParseTask(chunks, from, mid), new ParseTask(chunks, mid, to));
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.BookingLocks;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for commands.
+ *
+ * <p>Commands hand their writes to this service instead of calling
+ * {@link DataManager#storeData} themselves. How and when the write happens
+ * depends on the {@link DurabilityPolicy}:</p>
+ * <ul>
+ *   <li>{@code IMMEDIATE} – written and fsynced on the caller's thread before
+ *   the call returns (the default, and the behaviour commands had before).</li>
+ *   <li>{@code GROUPED} – queued and written by a background flusher once per
+ *   flush window or batch, with one fsync per touched file per batch.</li>
+ *   <li>{@code ASYNC} – like {@code GROUPED} but without fsync.</li>
+ * </ul>
+ *
+ * <p>Full-file stores of the same DataManager queued within one batch are
+ * coalesced into a single store, which reads the model when the batch is
+ * flushed. Ordered writes such as journal appends are never coalesced and keep
+ * their submission order. Every submission returns a future that completes
+ * once the write is durable under the current policy.</p>
+ *
+ * <p>Commands do not wait for those futures: they hold model locks the
+ * flusher may need. Outside {@code IMMEDIATE} a failed write is therefore
+ * only reported by the flusher, and the change stays in the model for the
+ * next full store to write.</p>
+ *
+ * <p>The flusher holds the {@link FlightBookingSystem}'s exclusive lock (see
+ * {@link bcu.cmp5332.bookingsystem.model.BookingLocks}) while it reads the
+ * model, so code that mutates the model outside the command loop must hold
+ * that lock or a booking lock as well.</p>
+ */
+public final class PersistenceService {
+
+    /**
+     * How strongly a write is persisted before it is acknowledged.
+     */
+    public enum DurabilityPolicy {
+        IMMEDIATE,
+        GROUPED,
+        ASYNC
+    }
+
+    /**
+     * A single write to one or more data files.
+     */
+    @FunctionalInterface
+    public interface Write {
+        void run() throws IOException;
+    }
+
+    public static final long DEFAULT_FLUSH_WINDOW_MILLIS = 50;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+    private static final Object lock = new Object();
+
+    private static DurabilityPolicy policy = DurabilityPolicy.IMMEDIATE;
+    private static long flushWindowMillis = DEFAULT_FLUSH_WINDOW_MILLIS;
+    private static int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+    // insertion ordered; coalesced stores keep the position of their first submission
+    private static final Map<Object, Pending> pending = new LinkedHashMap<>();
+    // futures of the batch the flusher has taken but not yet completed
+    private static final List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+    private static int submittedSinceFlush = 0;
+    private static long firstSubmitNanos = 0;
+    private static boolean flushRequested = false;
+    private static Thread flusher = null;
+
+    private PersistenceService() {}
+
+    /**
+     * Changes the durability policy. Anything still queued is flushed first.
+     *
+     * @param newPolicy the policy to use from now on
+     * @param windowMillis longest time a queued write waits before being flushed
+     * @param batchSize number of submissions that triggers an early flush
+     */
+    public static void configure(DurabilityPolicy newPolicy, long windowMillis, int batchSize) {
+        if (windowMillis < 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid persistence settings");
+        }
+        flush();
+        synchronized (lock) {
+            policy = newPolicy;
+            flushWindowMillis = windowMillis;
+            maxBatchSize = batchSize;
+            if (policy != DurabilityPolicy.IMMEDIATE && flusher == null) {
+                flusher = new Thread(PersistenceService::runFlusher, "persistence-flusher");
+                flusher.setDaemon(true);
+                flusher.start();
+            }
+        }
+    }
+
+    public static DurabilityPolicy getPolicy() {
+        synchronized (lock) {
+            return policy;
+        }
+    }
+
+    /**
+     * Stores a DataManager's data under the current policy. With
+     * {@code IMMEDIATE} a failure is thrown here; otherwise it is reported by
+     * the flusher and through {@link #submitStore}'s future.
+     *
+     * @param dm the data manager to store
+     * @param fbs the system to store
+     * @throws IOException if an immediate write fails
+     */
+    public static void store(DataManager dm, FlightBookingSystem fbs) throws IOException {
+        rethrowIfFailed(submitStore(dm, fbs));
+    }
+
+    /**
+     * Queues a full store of a DataManager, coalescing it with any store of
+     * the same manager that is still queued.
+     *
+     * @param dm the data manager to store
+     * @param fbs the system to store
+     * @return a future completed once the store is durable under the policy
+     */
+    public static CompletableFuture<Void> submitStore(DataManager dm, FlightBookingSystem fbs) {
+        return submit(dm, () -> dm.storeData(fbs), fbs, dm.getDataFiles());
+    }
+
+    /**
+     * Performs an ordered write (e.g. a journal append) under the current
+     * policy. With {@code IMMEDIATE} a failure is thrown here.
+     *
+     * @param file the file the write touches
+     * @param write the write itself
+     * @throws IOException if an immediate write fails
+     */
+    public static void write(File file, Write write) throws IOException {
+        rethrowIfFailed(submitWrite(file, write));
+    }
+
+    /**
+     * Queues an ordered write that is never coalesced with other writes.
+     *
+     * @param file the file the write touches
+     * @param write the write itself
+     * @return a future completed once the write is durable under the policy
+     */
+    public static CompletableFuture<Void> submitWrite(File file, Write write) {
+        return submit(new Object(), write, null, Collections.singletonList(file));
+    }
+
+    private static CompletableFuture<Void> submit(Object key, Write write, FlightBookingSystem fbs,
+                                                  List<File> files) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        synchronized (lock) {
+            if (policy != DurabilityPolicy.IMMEDIATE) {
+                Pending existing = pending.get(key);
+                if (existing != null) {
+                    // the queued store will read the model when it runs
+                    existing.write = write;
+                    existing.fbs = fbs;
+                    existing.futures.add(future);
+                } else {
+                    pending.put(key, new Pending(write, fbs, files, future));
+                }
+                if (submittedSinceFlush++ == 0) {
+                    firstSubmitNanos = System.nanoTime();
+                }
+                lock.notifyAll();
+                return future;
+            }
+        }
+
+        Pending immediate = new Pending(write, fbs, files, future);
+        runBatch(Collections.singletonList(immediate), true);
+        return future;
+    }
+
+    /**
+     * Writes everything that is queued and waits for it, and for any batch
+     * the flusher is already writing, to finish.
+     */
+    public static void flush() {
+        List<CompletableFuture<Void>> waitFor = new ArrayList<>();
+        synchronized (lock) {
+            waitFor.addAll(inFlight);
+            for (Pending p : pending.values()) {
+                waitFor.addAll(p.futures);
+            }
+            // with nothing queued the request would cut short the next batch's window
+            if (!pending.isEmpty()) {
+                flushRequested = true;
+                lock.notifyAll();
+            }
+        }
+        for (CompletableFuture<Void> future : waitFor) {
+            try {
+                future.join();
+            } catch (CompletionException ignored) {
+                // already reported by the flusher
+            }
+        }
+    }
+
+    private static void runFlusher() {
+        while (true) {
+            List<Pending> batch;
+            boolean sync;
+            synchronized (lock) {
+                try {
+                    while (pending.isEmpty()) {
+                        flushRequested = false;
+                        lock.wait();
+                    }
+                    long deadline = firstSubmitNanos + TimeUnit.MILLISECONDS.toNanos(flushWindowMillis);
+                    long remaining;
+                    while (!flushRequested && submittedSinceFlush < maxBatchSize
+                            && (remaining = deadline - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                for (Pending p : batch) {
+                    inFlight.addAll(p.futures);
+                }
+                pending.clear();
+                submittedSinceFlush = 0;
+                flushRequested = false;
+                sync = policy != DurabilityPolicy.ASYNC;
+            }
+            try {
+                runBatch(batch, sync);
+            } finally {
+                synchronized (lock) {
+                    inFlight.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a batch of writes in order, then fsyncs every file the batch
+     * touched once, and finally completes the futures.
+     */
+    @SuppressWarnings("try")
+    private static void runBatch(List<Pending> batch, boolean sync) {
+        Set<File> touched = new LinkedHashSet<>();
+        for (Pending p : batch) {
+            try {
+                if (p.fbs != null) {
+                    try (BookingLocks.Guard guard = p.fbs.getLocks().exclusive()) {
+                        p.write.run();
+                    }
+                } else {
+                    p.write.run();
+                }
+                touched.addAll(p.files);
+            } catch (IOException | RuntimeException e) {
+                p.failure = e;
+                System.out.println("Error saving data: " + e.getMessage());
+            }
+        }
+
+        IOException syncFailure = null;
+        if (sync) {
+            for (File file : touched) {
+                try {
+                    fsync(file);
+                } catch (IOException e) {
+                    syncFailure = e;
+                }
+            }
+        }
+
+        for (Pending p : batch) {
+            Exception failure = p.failure != null ? p.failure : syncFailure;
+            for (CompletableFuture<Void> future : p.futures) {
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                } else {
+                    future.complete(null);
+                }
+            }
+        }
+    }
+
+    private static void fsync(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (NoSuchFileException ignored) {
+            // renamed or deleted since the write, e.g. a journal rotated by compaction
+        }
+    }
+
+    private static void rethrowIfFailed(CompletableFuture<Void> future) throws IOException {
+        if (!future.isCompletedExceptionally()) {
+            return;
+        }
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static final class Pending {
+
+        private Write write;
+        private FlightBookingSystem fbs;
+        private final List<File> files;
+        private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        private Exception failure;
+
+        Pending(Write write, FlightBookingSystem fbs, List<File> files, CompletableFuture<Void> future) {
+            this.write = write;
+            this.fbs = fbs;
+            this.files = files;
+            this.futures.add(future);
+        }
+    }
+}
@@ -34,7 +34,8 @@ public class AddBookingWindow extends JFrame {
         // Customer selection
         add(new JLabel("Select Customer:"));
         comboCustomer = new JComboBox<>();
-        for (Customer c : fbs.getCustomers().values()) {
+        SystemSnapshot snapshot = fbs.getSnapshot();
+        for (Customer c : snapshot.getCustomers()) {
             comboCustomer.addItem(c.getId() + ": " + c.getName());
         }
         add(comboCustomer);
@@ -42,7 +43,7 @@ public class AddBookingWindow extends JFrame {
         // Flight selection with capacity info
         add(new JLabel("Select Flight:"));
         comboFlight = new JComboBox<>();
-        for (Flight f : fbs.getFlights()) {
+        for (Flight f : snapshot.getFlights()) {
             String availability = f.getAvailableSeats() > 0 ? 
                 " [" + f.getAvailableSeats() + " seats available]" : " [FULL]";
             comboFlight.addItem(f.getId() + ": " + f.getFlightNumber() + 
@@ -60,6 +61,7 @@ public class AddBookingWindow extends JFrame {
         setVisible(true);
     }
 
+    @SuppressWarnings("try")
     private void addBooking() {
         try {
             if (comboCustomer.getSelectedIndex() == -1 || comboFlight.getSelectedIndex() == -1) {
@@ -70,36 +72,55 @@ public class AddBookingWindow extends JFrame {
             // Get selected customer
             String custStr = (String) comboCustomer.getSelectedItem();
             int custId = Integer.parseInt(custStr.split(":")[0].trim());
-            Customer c = fbs.getCustomerByID(custId);
 
             // Get selected flight
             String flightStr = (String) comboFlight.getSelectedItem();
             int flightId = Integer.parseInt(flightStr.split(":")[0].trim());
-            Flight f = fbs.getFlightByID(flightId);
 
-            // CHECK CAPACITY using safe add
-            boolean canAdd = f.addPassengerSafe(c);
-            
+            Flight f;
+            boolean canAdd;
+            String seat = null;
+            double fare = 0;
+            try (BookingLocks.Guard guard = bookingDataManager.lock(fbs, custId, flightId)) {
+                Customer c = fbs.getCustomerByID(custId);
+                f = fbs.getFlightByID(flightId);
+
+                fare = fbs.getPricing().quote(f);
+
+                // CHECK CAPACITY using safe add
+                canAdd = f.addPassengerSafe(c);
+
+                if (canAdd) {
+                    // Create booking
+                    Booking b = new Booking(c, f, LocalDate.now());
+                    b.setSeat(f.getSeatMap().assignAdjacent(1));
+                    seat = b.getSeatLabel();
+                    c.getBookings().add(b);
+                    // Note: passenger already added via addPassengerSafe above
+                    fbs.addBooking(b);
+
+                    // Save immediately
+                    bookingDataManager.recordAdd(fbs, b);
+                }
+            }
+
             if (!canAdd) {
-                JOptionPane.showMessageDialog(this, 
-                    "Cannot make booking: Flight " + f.getFlightNumber() + 
-                    " is at full capacity (" + f.getCapacity() + " seats).",
+                int choice = JOptionPane.showConfirmDialog(this,
+                    "Flight " + f.getFlightNumber() +
+                    " is at full capacity (" + f.getCapacity() + " seats).\nJoin the waitlist?",
                     "Flight Full",
+                    JOptionPane.YES_NO_OPTION,
                     JOptionPane.WARNING_MESSAGE);
+                if (choice == JOptionPane.YES_OPTION) {
+                    joinWaitlist(custId, f);
+                }
                 return;
             }
 
-            // Create booking
-            Booking b = new Booking(c, f, LocalDate.now());
-            c.getBookings().add(b);
-            // Note: passenger already added via addPassengerSafe above
-            fbs.addBooking(b);
-
-            // Save immediately
-            bookingDataManager.storeData(fbs);
-
             JOptionPane.showMessageDialog(this, 
-                "Booking added successfully!\nSeats remaining: " + f.getAvailableSeats());
+                "Booking added successfully!" + (seat != null ? "\nSeat: " + seat : "")
+                + String.format("\nFare: $%.2f", fare)
+                + "\nSeats remaining: " + f.getAvailableSeats());
 
             // Refresh GUI
             mainWindow.displayBookings();
@@ -109,4 +130,22 @@ public class AddBookingWindow extends JFrame {
             JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage());
         }
     }
+
+    private void joinWaitlist(int custId, Flight f) throws Exception {
+        Customer c = fbs.getCustomerByID(custId);
+        if (fbs.getBooking(custId, f.getId()) != null) {
+            JOptionPane.showMessageDialog(this, "Customer already has a booking on this flight.");
+            return;
+        }
+        Waitlist.Entry entry = f.getWaitlist().add(c, System.currentTimeMillis(), CustomerTier.of(c));
+        if (entry == null) {
+            JOptionPane.showMessageDialog(this, "Customer is already on the waitlist.");
+            return;
+        }
+        bookingDataManager.recordJoin(fbs, f, entry);
+
+        JOptionPane.showMessageDialog(this,
+            "Added to the waitlist at position " + f.getWaitlist().positionOf(custId) + ".");
+        dispose();
+    }
 }
@@ -88,7 +88,8 @@ public class AddCustomerWindow extends JFrame {
                     new CustomerDataManager()
             );
 
-            addCustomer.execute(mw.getFlightBookingSystem());
+            FlightBookingSystem fbs = mw.getFlightBookingSystem();
+            addCustomer.executeLocked(fbs);
             mw.displayCustomers();
             setVisible(false);
 
@@ -83,7 +83,8 @@ public class AddFlightWindow extends JFrame {
 
             // Create and execute the command
             Command addFlight = new AddFlight(flightNumber, origin, destination, departureDate, capacity, price, new FlightDataManager());
-            addFlight.execute(mw.getFlightBookingSystem());
+            FlightBookingSystem fbs = mw.getFlightBookingSystem();
+            addFlight.executeLocked(fbs);
 
             // Update the display
             mw.displayFlights();
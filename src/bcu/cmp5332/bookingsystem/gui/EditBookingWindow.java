@@ -1,15 +1,19 @@
 package bcu.cmp5332.bookingsystem.gui;
 
 import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import bcu.cmp5332.bookingsystem.model.*;
 
 import javax.swing.*;
 import java.awt.*;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 public class EditBookingWindow extends JFrame {
 
     private JComboBox<String> comboCustomerBooking;
+    private final List<Booking> comboBookings = new ArrayList<>();
     private JComboBox<String> comboFlight;
     private JButton btnSave;
 
@@ -30,7 +34,9 @@ public class EditBookingWindow extends JFrame {
         // Select existing booking
         add(new JLabel("Select Booking (Customer - Flight):"));
         comboCustomerBooking = new JComboBox<>();
-        for (Booking b : fbs.getBookings()) {
+        SystemSnapshot snapshot = fbs.getSnapshot();
+        for (Booking b : snapshot.getBookings()) {
+            comboBookings.add(b);
             comboCustomerBooking.addItem(b.getCustomer().getId() + ":" + b.getCustomer().getName()
                     + " -> " + b.getFlight().getFlightNumber());
         }
@@ -39,7 +45,7 @@ public class EditBookingWindow extends JFrame {
         // Select new flight
         add(new JLabel("Select New Flight:"));
         comboFlight = new JComboBox<>();
-        for (Flight f : fbs.getFlights()) {
+        for (Flight f : snapshot.getFlights()) {
             comboFlight.addItem(f.getId() + ": " + f.getFlightNumber() + " (" + f.getOrigin() + " -> " + f.getDestination() + ")");
         }
         add(comboFlight);
@@ -53,6 +59,7 @@ public class EditBookingWindow extends JFrame {
         setVisible(true);
     }
 
+    @SuppressWarnings("try")
     private void saveEdit() {
         try {
             if (comboCustomerBooking.getSelectedIndex() == -1 || comboFlight.getSelectedIndex() == -1) {
@@ -61,35 +68,51 @@ public class EditBookingWindow extends JFrame {
             }
 
             // Selected booking
-            String bookingStr = (String) comboCustomerBooking.getSelectedItem();
-            int custId = Integer.parseInt(bookingStr.split(":")[0].trim());
-            Booking selectedBooking = null;
-            for (Booking b : fbs.getBookings()) {
-                if (b.getCustomer().getId() == custId) {
-                    selectedBooking = b;
-                    break;
-                }
-            }
+            Booking selectedBooking = comboBookings.get(comboCustomerBooking.getSelectedIndex());
 
             if (selectedBooking == null) {
                 JOptionPane.showMessageDialog(this, "Booking not found.");
                 return;
             }
 
-            // Remove old flight passenger
-            selectedBooking.getFlight().removePassenger(selectedBooking.getCustomer());
-
             // New flight
             String flightStr = (String) comboFlight.getSelectedItem();
             int flightId = Integer.parseInt(flightStr.split(":")[0].trim());
-            Flight newFlight = fbs.getFlightByID(flightId);
 
-            // Update booking
-            selectedBooking.setFlight(newFlight);
-            newFlight.addPassenger(selectedBooking.getCustomer());
+            Flight oldFlight = selectedBooking.getFlight();
+            try (BookingLocks.Guard guard = bookingDataManager.lock(fbs,
+                    selectedBooking.getCustomer().getId(), oldFlight.getId(), flightId)) {
+                if (selectedBooking.getFlight() != oldFlight) {
+                    throw new FlightBookingSystemException("Booking was changed meanwhile; reopen the window.");
+                }
+                if (flightId == oldFlight.getId()) {
+                    throw new FlightBookingSystemException("The booking is already on this flight.");
+                }
+                Flight newFlight = fbs.getFlightByID(flightId);
+                if (newFlight.isDeleted()) {
+                    throw new FlightBookingSystemException("Cannot move a booking to a deleted flight.");
+                }
+                if (newFlight.getDepartureDate().isBefore(fbs.getSystemDate())) {
+                    throw new FlightBookingSystemException(
+                            "Flight " + newFlight.getFlightNumber() + " has already departed.");
+                }
+                if (fbs.getBooking(selectedBooking.getCustomer().getId(), newFlight.getId()) != null) {
+                    throw new FlightBookingSystemException("Customer already has a booking on this flight.");
+                }
+
+                // Take a seat on the new flight before giving up the old one
+                if (!newFlight.addPassengerSafe(selectedBooking.getCustomer())) {
+                    throw new FlightBookingSystemException("Flight " + newFlight.getFlightNumber() + " is full.");
+                }
+                oldFlight.removePassenger(selectedBooking.getCustomer());
+
+                // Update booking
+                fbs.moveBooking(selectedBooking, newFlight);
 
-            // Save changes
-            bookingDataManager.storeData(fbs);
+                // Save changes
+                bookingDataManager.recordMove(fbs, selectedBooking, oldFlight);
+            }
+            bookingDataManager.promoteWaitlisted(fbs, oldFlight.getId());
 
             JOptionPane.showMessageDialog(this, "Booking updated successfully!");
             mainWindow.displayBookings();
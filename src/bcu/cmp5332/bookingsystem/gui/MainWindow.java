@@ -11,6 +11,9 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -32,7 +35,7 @@ public class MainWindow extends JFrame implements ActionListener {
     private JMenu adminMenu, flightsMenu, bookingsMenu, customersMenu;
 
     private JMenuItem adminExit;
-    private JMenuItem flightsView, flightsAdd, flightsViewPassengers, flightsDelete;
+    private JMenuItem flightsView, flightsSearch, flightsFareCalendar, flightsAdd, flightsViewPassengers, flightsDelete;
     private JMenuItem bookingsView, bookingsIssue, bookingsCancel, bookingsEdit;
     private JMenuItem custView, custAdd, custViewBookings, custDelete;
 
@@ -106,11 +109,15 @@ public class MainWindow extends JFrame implements ActionListener {
         adminMenu.add(adminExit);
 
         flightsView = new JMenuItem("View All");
+        flightsSearch = new JMenuItem("Search");
+        flightsFareCalendar = new JMenuItem("Fare Calendar");
         flightsAdd = new JMenuItem("Add");
         flightsViewPassengers = new JMenuItem("View Passengers");
         flightsDelete = new JMenuItem("Delete");
 
         flightsMenu.add(flightsView);
+        flightsMenu.add(flightsSearch);
+        flightsMenu.add(flightsFareCalendar);
         flightsMenu.add(flightsAdd);
         flightsMenu.addSeparator();
         flightsMenu.add(flightsViewPassengers);
@@ -138,7 +145,7 @@ public class MainWindow extends JFrame implements ActionListener {
         customersMenu.add(custDelete);
 
         for (JMenuItem item : new JMenuItem[]{
-                flightsView, flightsAdd, flightsViewPassengers, flightsDelete,
+                flightsView, flightsSearch, flightsFareCalendar, flightsAdd, flightsViewPassengers, flightsDelete,
                 bookingsView, bookingsIssue, bookingsCancel, bookingsEdit,
                 custView, custAdd, custViewBookings, custDelete
         }) {
@@ -205,7 +212,7 @@ public class MainWindow extends JFrame implements ActionListener {
 
         try {
             int flightId = Integer.parseInt(input.trim());
-            new DeleteFlight(flightId, new FlightDataManager()).execute(fbs);
+            new DeleteFlight(flightId, new FlightDataManager()).executeLocked(fbs);
             displayFlights();
         } catch (NumberFormatException e) {
             throw new FlightBookingSystemException("Invalid Flight ID format.");
@@ -232,7 +239,7 @@ public class MainWindow extends JFrame implements ActionListener {
 
         try {
             int customerId = Integer.parseInt(input.trim());
-            new DeleteCustomer(customerId, new CustomerDataManager()).execute(fbs);
+            new DeleteCustomer(customerId, new CustomerDataManager()).executeLocked(fbs);
             displayCustomers();
         } catch (NumberFormatException e) {
             throw new FlightBookingSystemException("Invalid Customer ID format.");
@@ -243,10 +250,12 @@ public class MainWindow extends JFrame implements ActionListener {
      * Cancels an existing booking.
      *
      * <p>This operation is restricted to administrators. The booking is removed
-     * from the system and the associated seat is released.</p>
+     * from the system and the associated seat is released, then offered to
+     * the flight's waitlist.</p>
      *
      * @throws FlightBookingSystemException if access is denied or booking not found
      */
+    @SuppressWarnings("try")
     private void cancelBooking() throws FlightBookingSystemException {
         AuthService.requireAdmin();
 
@@ -262,21 +271,20 @@ public class MainWindow extends JFrame implements ActionListener {
             int customerId = Integer.parseInt(custInput.trim());
             int flightId = Integer.parseInt(flightInput.trim());
 
-            Booking target = null;
-            for (Booking b : fbs.getBookings()) {
-                if (b.getCustomer().getId() == customerId &&
-                        b.getFlight().getId() == flightId) {
-                    target = b;
-                    break;
+            try (BookingLocks.Guard guard = bookingDataManager.lock(fbs, customerId, flightId)) {
+                Booking target = fbs.getBooking(customerId, flightId);
+
+                if (target == null) {
+                    throw new FlightBookingSystemException("Booking not found.");
                 }
-            }
 
-            if (target == null) {
-                throw new FlightBookingSystemException("Booking not found.");
+                target.getCustomer().getBookings().remove(target);
+                target.getFlight().removePassenger(target.getCustomer());
+                fbs.removeBooking(target);
+                bookingDataManager.recordCancel(fbs, target);
             }
-
-            fbs.removeBooking(target);
-            bookingDataManager.storeData(fbs);
+            // after the locks are released: promoting takes the locks of other customers
+            bookingDataManager.promoteWaitlisted(fbs, flightId);
             displayBookings();
 
         } catch (NumberFormatException e) {
@@ -372,11 +380,12 @@ public class MainWindow extends JFrame implements ActionListener {
         try {
             if (src == adminExit) {
                 FlightBookingSystemData.store(fbs);
-                bookingDataManager.storeData(fbs);
                 System.exit(0);
             }
 
             if (src == flightsView) displayFlights();
+            if (src == flightsSearch) searchFlights();
+            if (src == flightsFareCalendar) fareCalendar();
             if (src == flightsAdd) new AddFlightWindow(this, fbs);
             if (src == flightsViewPassengers) viewPassengersForFlight();
             if (src == flightsDelete) deleteFlight();
@@ -412,18 +421,123 @@ public class MainWindow extends JFrame implements ActionListener {
      */
     public void displayFlights() {
         refreshDataFromFiles();
-        List<Flight> flights = fbs.getFlights();
+        showFlights(fbs.getSnapshot().getFlights());
+    }
+
+    /**
+     * Prompts for a route and optional date range and displays the matching
+     * flights.
+     *
+     * @throws FlightBookingSystemException if a date is invalid
+     */
+    private void searchFlights() throws FlightBookingSystemException {
+        JTextField originText = new JTextField();
+        JTextField destinationText = new JTextField();
+        JTextField fromText = new JTextField();
+        JTextField toText = new JTextField();
+
+        JPanel form = new JPanel(new GridLayout(4, 2, 6, 6));
+        form.add(new JLabel("Origin:"));
+        form.add(originText);
+        form.add(new JLabel("Destination:"));
+        form.add(destinationText);
+        form.add(new JLabel("From (YYYY-MM-DD, optional):"));
+        form.add(fromText);
+        form.add(new JLabel("To (YYYY-MM-DD, optional):"));
+        form.add(toText);
+
+        int choice = JOptionPane.showConfirmDialog(this, form, "Search Flights", JOptionPane.OK_CANCEL_OPTION);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = fromText.getText().trim().isEmpty() ? null : LocalDate.parse(fromText.getText().trim());
+            to = toText.getText().trim().isEmpty() ? null : LocalDate.parse(toText.getText().trim());
+        } catch (DateTimeParseException e) {
+            throw new FlightBookingSystemException("Invalid date format. Use YYYY-MM-DD.");
+        }
+
+        refreshDataFromFiles();
+        showFlights(fbs.searchFlights(originText.getText().trim(), destinationText.getText().trim(), from, to));
+    }
+
+    /**
+     * Prompts for a route and optional date range and displays the lowest
+     * fare and free seats on each day with flights, from today by default.
+     *
+     * @throws FlightBookingSystemException if a date is invalid
+     */
+    private void fareCalendar() throws FlightBookingSystemException {
+        JTextField originText = new JTextField();
+        JTextField destinationText = new JTextField();
+        JTextField fromText = new JTextField();
+        JTextField toText = new JTextField();
+
+        JPanel form = new JPanel(new GridLayout(4, 2, 6, 6));
+        form.add(new JLabel("Origin:"));
+        form.add(originText);
+        form.add(new JLabel("Destination:"));
+        form.add(destinationText);
+        form.add(new JLabel("From (YYYY-MM-DD, optional):"));
+        form.add(fromText);
+        form.add(new JLabel("To (YYYY-MM-DD, optional):"));
+        form.add(toText);
+
+        int choice = JOptionPane.showConfirmDialog(this, form, "Fare Calendar", JOptionPane.OK_CANCEL_OPTION);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = fromText.getText().trim().isEmpty() ? null : LocalDate.parse(fromText.getText().trim());
+            to = toText.getText().trim().isEmpty() ? null : LocalDate.parse(toText.getText().trim());
+        } catch (DateTimeParseException e) {
+            throw new FlightBookingSystemException("Invalid date format. Use YYYY-MM-DD.");
+        }
+
+        refreshDataFromFiles();
+        List<RouteDay> days = fbs.getFareCalendar(originText.getText().trim(), destinationText.getText().trim(),
+                from != null ? from : fbs.getSystemDate(), to);
+
+        String[] cols = {"Date", "Flights", "Lowest Fare", "Cheapest Flight", "Seats Left"};
+        Object[][] data = new Object[days.size()][5];
+
+        int i = 0;
+        for (RouteDay day : days) {
+            Flight cheapest = day.getCheapestFlight();
+            data[i++] = new Object[]{
+                    day.getDate(), day.getFlights().size(),
+                    cheapest == null ? "Sold out" : String.format("$%.2f", day.getMinFare()),
+                    cheapest == null ? "" : cheapest.getFlightNumber(),
+                    day.getAvailableSeats()
+            };
+        }
 
+        showTable(data, cols);
+    }
+
+    /**
+     * Renders a list of flights as a table.
+     *
+     * @param flights the flights to show
+     */
+    private void showFlights(Collection<Flight> flights) {
         String[] cols = {"ID", "Number", "Origin", "Destination", "Date", "Price", "Capacity", "Booked"};
         Object[][] data = new Object[flights.size()][8];
+        PricingEngine pricing = fbs.getPricing();
 
-        for (int i = 0; i < flights.size(); i++) {
-            Flight f = flights.get(i);
-            data[i] = new Object[]{
+        int i = 0;
+        for (Flight f : flights) {
+            data[i++] = new Object[]{
                     f.getId(), f.getFlightNumber(), f.getOrigin(),
                     f.getDestination(), f.getDepartureDate(),
-                    String.format("$%.2f", f.getPrice()),
-                    f.getCapacity(), f.getPassengers().size()
+                    String.format("$%.2f", pricing.quote(f)),
+                    f.getCapacity(), f.getPassengerCount()
             };
         }
 
@@ -436,11 +550,13 @@ public class MainWindow extends JFrame implements ActionListener {
     public void displayCustomers() {
         refreshDataFromFiles();
 
+        Collection<Customer> customers = fbs.getSnapshot().getCustomers();
+
         String[] cols = {"ID", "Name", "Phone", "Email", "Bookings"};
-        Object[][] data = new Object[fbs.getCustomers().size()][5];
+        Object[][] data = new Object[customers.size()][5];
 
         int i = 0;
-        for (Customer c : fbs.getCustomers().values()) {
+        for (Customer c : customers) {
             data[i++] = new Object[]{
                     c.getId(), c.getName(), c.getPhone(),
                     c.getEmail(), c.getBookings().size()
@@ -455,17 +571,18 @@ public class MainWindow extends JFrame implements ActionListener {
      */
     public void displayBookings() {
         refreshDataFromFiles();
-        List<Booking> bookings = fbs.getBookings();
+        Collection<Booking> bookings = fbs.getSnapshot().getBookings();
 
-        String[] cols = {"Booking ID", "Customer", "Flight", "Date", "Price"};
-        Object[][] data = new Object[bookings.size()][5];
+        String[] cols = {"Booking ID", "Customer", "Flight", "Seat", "Date", "Price"};
+        Object[][] data = new Object[bookings.size()][6];
 
-        for (int i = 0; i < bookings.size(); i++) {
-            Booking b = bookings.get(i);
-            data[i] = new Object[]{
+        int i = 0;
+        for (Booking b : bookings) {
+            data[i++] = new Object[]{
                     b.getId(),
                     b.getCustomer().getName(),
                     b.getFlight().getFlightNumber(),
+                    b.getSeatLabel() != null ? b.getSeatLabel() : "-",
                     b.getBookingDate(),
                     String.format("$%.2f", b.getFlight().getPrice())
             };
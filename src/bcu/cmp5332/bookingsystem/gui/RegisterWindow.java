@@ -3,9 +3,12 @@ package bcu.cmp5332.bookingsystem.gui;
 import bcu.cmp5332.bookingsystem.auth.AuthService;
 import bcu.cmp5332.bookingsystem.auth.PasswordUtil;
 import bcu.cmp5332.bookingsystem.data.CustomerDataManager;
+import bcu.cmp5332.bookingsystem.data.PersistenceService;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.BookingLocks;
 import bcu.cmp5332.bookingsystem.model.Customer;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.IdAllocator;
 
 import javax.swing.*;
 import java.awt.*;
@@ -145,6 +148,7 @@ public class RegisterWindow extends JFrame {
     /**
      * Registers a new customer and starts a customer session.
      */
+    @SuppressWarnings("try")
     private void register() {
         try {
             String name = nameText.getText().trim();
@@ -156,27 +160,22 @@ public class RegisterWindow extends JFrame {
                 throw new FlightBookingSystemException("All required fields must be filled.");
             }
 
-            for (Customer c : fbs.getCustomers().values()) {
-                if (email.equalsIgnoreCase(c.getEmail())) {
-                    throw new FlightBookingSystemException("Email already registered.");
-                }
-            }
-
-            int maxId = 0;
-            for (Customer c : fbs.getCustomers().values()) {
-                maxId = Math.max(maxId, c.getId());
+            if (fbs.getCustomerByEmail(email) != null) {
+                throw new FlightBookingSystemException("Email already registered.");
             }
 
             Customer customer = new Customer(
-                    ++maxId,
+                    IdAllocator.CUSTOMERS.next(),
                     name,
                     phone,
                     email,
                     PasswordUtil.hash(password)
             );
 
-            fbs.addCustomer(customer);
-            new CustomerDataManager().storeData(fbs);
+            try (BookingLocks.Guard guard = fbs.getLocks().exclusive()) {
+                fbs.addCustomer(customer);
+            }
+            PersistenceService.store(new CustomerDataManager(), fbs);
 
             AuthService.startCustomerSession(customer);
 
@@ -6,7 +6,7 @@ import bcu.cmp5332.bookingsystem.model.Flight;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.List;
+import java.util.Set;
 
 /**
  * Window to display the list of passengers for a selected flight.
@@ -35,7 +35,7 @@ public class ViewPassengersWindow extends JFrame {
 
         // Create table with passenger data
         String[] columnNames = {"Customer ID", "Name", "Phone", "Email"};
-        List<Customer> passengers = flight.getPassengers();
+        Set<Customer> passengers = flight.getPassengers();
         
         Object[][] data = new Object[passengers.size()][4];
         int row = 0;
@@ -73,7 +73,7 @@ public class ViewPassengersWindow extends JFrame {
         infoPanel.add(new JLabel(flight.getDepartureDate().toString()));
         
         infoPanel.add(new JLabel("Capacity:"));
-        infoPanel.add(new JLabel(passengers.size() + " / " + flight.getCapacity()));
+        infoPanel.add(new JLabel(flight.getPassengerCount() + " / " + flight.getCapacity()));
         
         infoPanel.add(new JLabel("Available Seats:"));
         infoPanel.add(new JLabel(String.valueOf(flight.getAvailableSeats())));
@@ -5,12 +5,18 @@ import bcu.cmp5332.bookingsystem.commands.AddCustomer;
 import bcu.cmp5332.bookingsystem.commands.AddFlight;
 import bcu.cmp5332.bookingsystem.commands.CancelBooking;
 import bcu.cmp5332.bookingsystem.commands.Command;
+import bcu.cmp5332.bookingsystem.commands.ConfirmHold;
+import bcu.cmp5332.bookingsystem.commands.FareCalendar;
 import bcu.cmp5332.bookingsystem.commands.Help;
+import bcu.cmp5332.bookingsystem.commands.HoldSeat;
 import bcu.cmp5332.bookingsystem.commands.ListCustomers;
 import bcu.cmp5332.bookingsystem.commands.ListFlights;
 import bcu.cmp5332.bookingsystem.commands.LoadGUI;
 import bcu.cmp5332.bookingsystem.commands.Login;
 import bcu.cmp5332.bookingsystem.commands.Logout;
+import bcu.cmp5332.bookingsystem.commands.ReleaseHold;
+import bcu.cmp5332.bookingsystem.commands.SearchFlights;
+import bcu.cmp5332.bookingsystem.commands.SearchItinerary;
 import bcu.cmp5332.bookingsystem.commands.ShowCustomer;
 import bcu.cmp5332.bookingsystem.commands.ShowFlight;
 
@@ -150,6 +156,36 @@ public class CommandParser {
                 return new ListFlights();
             }
 
+            if (cmd.equals("searchflights") && parts.length >= 3 && parts.length <= 5) {
+                try {
+                    LocalDate from = parts.length > 3 ? LocalDate.parse(parts[3]) : null;
+                    LocalDate to = parts.length > 4 ? LocalDate.parse(parts[4]) : null;
+                    return new SearchFlights(parts[1], parts[2], from, to);
+                } catch (DateTimeParseException e) {
+                    throw new FlightBookingSystemException("Invalid date format. Use YYYY-MM-DD.");
+                }
+            }
+
+            if (cmd.equals("searchitinerary") && parts.length >= 3 && parts.length <= 5) {
+                try {
+                    LocalDate from = parts.length > 3 ? LocalDate.parse(parts[3]) : null;
+                    LocalDate to = parts.length > 4 ? LocalDate.parse(parts[4]) : null;
+                    return new SearchItinerary(parts[1], parts[2], from, to);
+                } catch (DateTimeParseException e) {
+                    throw new FlightBookingSystemException("Invalid date format. Use YYYY-MM-DD.");
+                }
+            }
+
+            if (cmd.equals("farecalendar") && parts.length >= 3 && parts.length <= 5) {
+                try {
+                    LocalDate from = parts.length > 3 ? LocalDate.parse(parts[3]) : null;
+                    LocalDate to = parts.length > 4 ? LocalDate.parse(parts[4]) : null;
+                    return new FareCalendar(parts[1], parts[2], from, to);
+                } catch (DateTimeParseException e) {
+                    throw new FlightBookingSystemException("Invalid date format. Use YYYY-MM-DD.");
+                }
+            }
+
             if (cmd.equals("listcustomers")) {
                 return new ListCustomers();
             }
@@ -172,10 +208,11 @@ public class CommandParser {
                 return new LoadGUI();
             }
 
-            if (cmd.equals("addbooking") && parts.length == 3) {
+            if (cmd.equals("addbooking") && (parts.length == 3 || parts.length == 4)) {
                 int customerId = Integer.parseInt(parts[1]);
                 int flightId = Integer.parseInt(parts[2]);
-                return new AddBooking(customerId, flightId, bookingDataManager);
+                String seat = parts.length == 4 ? parts[3] : null;
+                return new AddBooking(customerId, flightId, seat, bookingDataManager);
             }
 
             if (cmd.equals("cancelbooking") && parts.length == 3) {
@@ -184,6 +221,21 @@ public class CommandParser {
                 return new CancelBooking(customerId, flightId, bookingDataManager);
             }
 
+            if (cmd.equals("holdseat") && (parts.length == 3 || parts.length == 4)) {
+                int customerId = Integer.parseInt(parts[1]);
+                int flightId = Integer.parseInt(parts[2]);
+                String seat = parts.length == 4 ? parts[3] : null;
+                return new HoldSeat(customerId, flightId, seat, bookingDataManager);
+            }
+
+            if (cmd.equals("confirmhold") && parts.length == 2) {
+                return new ConfirmHold(Integer.parseInt(parts[1]), bookingDataManager);
+            }
+
+            if (cmd.equals("releasehold") && parts.length == 2) {
+                return new ReleaseHold(Integer.parseInt(parts[1]), bookingDataManager);
+            }
+
             if (cmd.equals("editbooking") && parts.length == 3) {
                 int bookingId = Integer.parseInt(parts[1]);
                 int newFlightId = Integer.parseInt(parts[2]);
@@ -3,8 +3,11 @@ package bcu.cmp5332.bookingsystem.main;
 import bcu.cmp5332.bookingsystem.data.*;
 import bcu.cmp5332.bookingsystem.commands.Command;
 import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import bcu.cmp5332.bookingsystem.model.IdAllocator;
+import bcu.cmp5332.bookingsystem.model.SeatHolds;
 
 import java.io.*;
+import java.util.List;
 
 public class Main {
 
@@ -17,11 +20,16 @@ public class Main {
         CustomerDataManager customerDM = new CustomerDataManager();
         BookingDataManager bookingDM = new BookingDataManager();
 
+        // ✅ Continue ids above every id handed out before
+        try {
+            IdAllocator.setStore(new IdMarkStore());
+        } catch (IOException e) {
+            System.out.println("Error reading ids: " + e.getMessage());
+        }
+
         // ✅ Load existing data (if any)
         try {
-            flightDM.loadData(fbs);
-            customerDM.loadData(fbs);
-            bookingDM.loadData(fbs);
+            FlightBookingSystemData.load(fbs, flightDM, customerDM, bookingDM);
         } catch (Exception e) {
             System.out.println("Error loading data: " + e.getMessage());
         }
@@ -29,6 +37,24 @@ public class Main {
         // ✅ Set DataManagers in CommandParser
         CommandParser.setDataManagers(flightDM, customerDM, bookingDM);
 
+        // ✅ Group command writes into one flush per window
+        PersistenceService.configure(PersistenceService.DurabilityPolicy.GROUPED,
+                PersistenceService.DEFAULT_FLUSH_WINDOW_MILLIS, PersistenceService.DEFAULT_MAX_BATCH_SIZE);
+
+        // ✅ Keep the bookings journal bounded in the background
+        JournalCompactor compactor = new JournalCompactor(bookingDM);
+        compactor.start();
+
+        // ✅ Free the seats of expired holds and offer them to the waitlist
+        SeatHolds holds = fbs.getHolds();
+        holds.start(hold -> {
+            try {
+                bookingDM.promoteWaitlisted(fbs, hold.getFlight().getId());
+            } catch (Exception e) {
+                System.out.println("Error promoting waitlist: " + e.getMessage());
+            }
+        });
+
         BufferedReader br = new BufferedReader(new InputStreamReader(System.in));
 
         System.out.println("Flight Booking System");
@@ -43,17 +69,17 @@ public class Main {
 
             try {
                 Command command = CommandParser.parse(line);
-                command.execute(fbs);
+                command.executeLocked(fbs);
             } catch (FlightBookingSystemException ex) {
                 System.out.println(ex.getMessage());
             }
         }
 
         // ✅ Save all data on exit
+        holds.stop();
+        compactor.stop();
         try {
-            flightDM.storeData(fbs);
-            customerDM.storeData(fbs);
-            bookingDM.storeData(fbs);
+            FlightBookingSystemData.store(fbs, List.of(flightDM, customerDM, bookingDM));
         } catch (Exception e) {
             System.out.println("Error saving data: " + e.getMessage());
         }
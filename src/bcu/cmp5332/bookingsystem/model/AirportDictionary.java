@@ -0,0 +1,100 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared dictionary of airport names.
+ *
+ * <p>Every distinct airport name is stored once and given a small integer
+ * code. Flights keep only the codes of their origin and destination, so a
+ * catalogue with millions of flights between a few hundred airports holds a
+ * few hundred Strings, and two flights serve the same route exactly when
+ * their codes are equal.</p>
+ *
+ * <p>Codes are handed out in order of first use and never change while the
+ * program runs. They are not persisted; the data files keep the names.
+ * Lookups are lock-free; only adding a new name takes a lock.</p>
+ */
+public final class AirportDictionary {
+
+    /**
+     * Code used for a missing (null) airport name.
+     */
+    public static final int NONE = -1;
+
+    private static final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+
+    // published before the code is put in the map, so any code a reader can
+    // obtain already has its name in this array
+    private static volatile String[] names = new String[64];
+    private static int size = 0;
+
+    private AirportDictionary() {}
+
+    /**
+     * Returns the code of an airport name, adding the name if it is new.
+     *
+     * @param name the airport name
+     * @return the airport's code, or {@link #NONE} for null
+     */
+    public static int codeOf(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Integer code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        synchronized (AirportDictionary.class) {
+            code = codes.get(name);
+            if (code != null) {
+                return code;
+            }
+            String[] current = names;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+            }
+            current[size] = name;
+            names = current;
+            codes.put(name, size);
+            return size++;
+        }
+    }
+
+    /**
+     * Returns the code of an airport name without adding it.
+     *
+     * @param name the airport name
+     * @return the airport's code, or {@link #NONE} if it is not known
+     */
+    public static int find(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Integer code = codes.get(name);
+        return code != null ? code : NONE;
+    }
+
+    /**
+     * Returns the shared name for a code.
+     *
+     * @param code a code returned by {@link #codeOf}
+     * @return the airport name, or null for {@link #NONE}
+     */
+    public static String nameOf(int code) {
+        if (code == NONE) {
+            return null;
+        }
+        return names[code];
+    }
+
+    /**
+     * Returns the number of distinct airport names seen so far.
+     *
+     * @return the dictionary size
+     */
+    public static int size() {
+        return codes.size();
+    }
+}
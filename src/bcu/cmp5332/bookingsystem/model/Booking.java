@@ -4,14 +4,27 @@ import java.time.LocalDate;
 
 public class Booking {
 
-    private static int nextId = 1;
     private int id;
     private Customer customer;
     private Flight flight;
     private LocalDate bookingDate;
+    private int seat = SeatMap.NO_SEAT;
 
     public Booking(Customer customer, Flight flight, LocalDate bookingDate) {
-        this.id = nextId++;
+        this(IdAllocator.BOOKINGS.next(), customer, flight, bookingDate);
+    }
+
+    /**
+     * Creates a booking with an id it was given before, e.g. one loaded from
+     * the data files.
+     *
+     * @param id the booking id
+     * @param customer the customer
+     * @param flight the flight
+     * @param bookingDate the date the booking was made
+     */
+    public Booking(int id, Customer customer, Flight flight, LocalDate bookingDate) {
+        this.id = id;
         this.customer = customer;
         this.flight = flight;
         this.bookingDate = bookingDate;
@@ -33,10 +46,45 @@ public class Booking {
         return flight;
     }
 
+    /**
+     * Sets the flight. For a booking that is already in a
+     * FlightBookingSystem use {@link FlightBookingSystem#moveBooking} so its
+     * lookups stay in sync.
+     *
+     * @param flight the new flight
+     */
     public void setFlight(Flight flight) {
         this.flight = flight;
     }
 
+    /**
+     * Gets the seat number in the flight's {@link SeatMap}.
+     *
+     * @return the seat, or {@link SeatMap#NO_SEAT} if none is assigned
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * Records the seat assigned to this booking. The seat must already be
+     * assigned in the flight's seat map.
+     *
+     * @param seat the seat, or {@link SeatMap#NO_SEAT}
+     */
+    public void setSeat(int seat) {
+        this.seat = seat;
+    }
+
+    /**
+     * Gets the label of the assigned seat, such as "12C".
+     *
+     * @return the label, or null if no seat is assigned
+     */
+    public String getSeatLabel() {
+        return seat == SeatMap.NO_SEAT ? null : flight.getSeatMap().label(seat);
+    }
+
     public LocalDate getBookingDate() {
         return bookingDate;
     }
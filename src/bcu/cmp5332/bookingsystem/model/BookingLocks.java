@@ -0,0 +1,139 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Locks that let several threads change a {@link FlightBookingSystem} at
+ * once.
+ *
+ * <p>Changes to individual bookings (adding, cancelling or moving one) take
+ * the system lock in shared mode plus the stripe lock of their customer and
+ * of every flight involved. Bookings with different customers on different
+ * flights therefore run in parallel, while two changes to the same customer
+ * or flight take turns. Everything else (adding or deleting flights and
+ * customers, loading, full stores, listings) takes the system lock
+ * exclusively and so sees no booking half done.</p>
+ *
+ * <p>Locks are always taken in the same order to rule out deadlock: the
+ * system lock, then the customer stripe, then the flight stripes in
+ * ascending stripe order. A move between two flights locks both flights
+ * that way, whichever direction it goes. Ids share a stripe when they hash
+ * to the same slot, which only costs some parallelism.</p>
+ */
+public final class BookingLocks {
+
+    public static final int DEFAULT_STRIPES = 64;
+
+    /**
+     * Holds a set of locks until closed; use with try-with-resources.
+     */
+    public interface Guard extends AutoCloseable {
+
+        /**
+         * Releases the locks, in reverse order of acquisition.
+         */
+        @Override
+        void close();
+    }
+
+    private final ReentrantReadWriteLock system = new ReentrantReadWriteLock();
+    private final ReentrantLock[] customerStripes;
+    private final ReentrantLock[] flightStripes;
+    private final int mask;
+
+    public BookingLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates locks with the given number of stripes per entity kind.
+     *
+     * @param stripes a power of two
+     */
+    public BookingLocks(int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a power of two");
+        }
+        customerStripes = newStripes(stripes);
+        flightStripes = newStripes(stripes);
+        mask = stripes - 1;
+    }
+
+    private static ReentrantLock[] newStripes(int stripes) {
+        ReentrantLock[] locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    /**
+     * Takes the system lock exclusively, waiting for booking changes in
+     * progress to finish. Reentrant.
+     *
+     * @return the guard releasing the lock
+     * @throws IllegalStateException if the thread holds a booking lock
+     */
+    public Guard exclusive() {
+        if (system.getReadHoldCount() > 0 && !system.isWriteLockedByCurrentThread()) {
+            // a read lock cannot be upgraded; waiting here would never end
+            throw new IllegalStateException("Exclusive lock requested while holding a booking lock");
+        }
+        Lock lock = system.writeLock();
+        lock.lock();
+        return lock::unlock;
+    }
+
+    /**
+     * Locks a customer and one or more flights for a booking change. Taken by
+     * id, so the customer and flights can be looked up once it is held.
+     *
+     * @param customerId the customer whose booking changes
+     * @param flightIds the flights involved, e.g. old and new flight of a move
+     * @return the guard releasing the locks
+     */
+    public Guard lockBooking(int customerId, int... flightIds) {
+        int[] stripes = new int[flightIds.length];
+        for (int i = 0; i < flightIds.length; i++) {
+            stripes[i] = stripe(flightIds[i]);
+        }
+        Arrays.sort(stripes);
+
+        Lock[] held = new Lock[2 + stripes.length];
+        int count = 0;
+        try {
+            held[count] = system.readLock();
+            held[count].lock();
+            count++;
+            held[count] = customerStripes[stripe(customerId)];
+            held[count].lock();
+            count++;
+            for (int i = 0; i < stripes.length; i++) {
+                if (i > 0 && stripes[i] == stripes[i - 1]) {
+                    continue;
+                }
+                held[count] = flightStripes[stripes[i]];
+                held[count].lock();
+                count++;
+            }
+        } catch (RuntimeException | Error e) {
+            release(held, count);
+            throw e;
+        }
+        int acquired = count;
+        return () -> release(held, acquired);
+    }
+
+    private static void release(Lock[] held, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            held[i].unlock();
+        }
+    }
+
+    private int stripe(int id) {
+        return IntObjectMap.hash(id, mask);
+    }
+}
@@ -72,6 +72,13 @@ public class Customer {
         return deleted;
     }
 
+    /**
+     * Sets the soft delete flag. For a customer that is already in a
+     * FlightBookingSystem use {@link FlightBookingSystem#deleteCustomer} so
+     * the email index stays in sync.
+     *
+     * @param deleted true to hide the customer
+     */
     public void setDeleted(boolean deleted) {
         this.deleted = deleted;
     }
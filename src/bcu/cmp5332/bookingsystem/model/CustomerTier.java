@@ -0,0 +1,28 @@
+package bcu.cmp5332.bookingsystem.model;
+
+/**
+ * Loyalty tier of a customer, earned by the number of bookings they hold.
+ * Higher tiers are served first from a flight's {@link Waitlist}.
+ */
+public enum CustomerTier {
+    STANDARD,
+    SILVER,
+    GOLD;
+
+    public static final int SILVER_BOOKINGS = 3;
+    public static final int GOLD_BOOKINGS = 10;
+
+    /**
+     * Gets the tier a customer has earned so far.
+     *
+     * @param customer the customer
+     * @return the customer's tier
+     */
+    public static CustomerTier of(Customer customer) {
+        int bookings = customer.getBookings().size();
+        if (bookings >= GOLD_BOOKINGS) {
+            return GOLD;
+        }
+        return bookings >= SILVER_BOOKINGS ? SILVER : STANDARD;
+    }
+}
@@ -2,28 +2,55 @@ package bcu.cmp5332.bookingsystem.model;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a flight in the booking system.
  * Stores flight details, passenger list, capacity, and pricing information.
+ *
+ * <p>Seats are counted with an atomic counter, so concurrent bookings on the
+ * same flight can reserve seats without a lock and never overbook it.
+ * Which seat a booking holds is kept in a {@link SeatMap}, created the
+ * first time a seat is assigned, and customers waiting for a seat on a
+ * full flight in a {@link Waitlist}, likewise created on first use.</p>
+ *
+ * <p>A seat can also be held for a customer for a while before it is
+ * booked (see {@link SeatHolds}). A held seat counts as taken until the
+ * hold is confirmed as a booking or released.</p>
+ *
+ * <p>The fare charged is worked out by a {@link PricingEngine} from the
+ * base {@link #getPrice() price}; the flight caches what the engine needs
+ * and keeps its route's demand totals up to date as seats change.</p>
  */
 public class Flight {
 
     private int id;
     private String flightNumber;
-    private String origin;
-    private String destination;
+    // codes in the shared AirportDictionary
+    private int origin;
+    private int destination;
     private LocalDate departureDate;
 
     private final Set<Customer> passengers;
+    private final Set<Customer> passengersView;
+    // seats taken, including held ones and ones reserved by a booking still being added
+    private final AtomicInteger bookedSeats = new AtomicInteger();
+    private final AtomicInteger heldSeats = new AtomicInteger();
+    // null until a seat is assigned, so flights without seats cost nothing
+    private volatile SeatMap seatMap;
+    private volatile Waitlist waitlist;
+    // set by the PricingEngine; the curve is dropped when price, capacity or date change
+    private volatile PricingEngine.FareCurve fareCurve;
+    private volatile PricingEngine.RouteDemand routeDemand;
+    // set by FlightBookingSystem while active; marked stale as seats or fares change
+    private volatile RouteDay routeDay;
 
-    private int capacity = 100; // default flight capacity
+    private volatile int capacity = 100; // default flight capacity
     private double price = 0.0; // flight price in currency units
-    private boolean deleted = false; // soft delete flag
+    private volatile boolean deleted = false; // soft delete flag
 
     // --- Constructors ---
     
@@ -39,10 +66,11 @@ public class Flight {
     public Flight(int id, String flightNumber, String origin, String destination, LocalDate departureDate) {
         this.id = id;
         this.flightNumber = flightNumber;
-        this.origin = origin;
-        this.destination = destination;
+        this.origin = AirportDictionary.codeOf(origin);
+        this.destination = AirportDictionary.codeOf(destination);
         this.departureDate = departureDate;
-        this.passengers = new HashSet<>();
+        this.passengers = ConcurrentHashMap.newKeySet();
+        this.passengersView = Collections.unmodifiableSet(passengers);
     }
     
     /**
@@ -60,12 +88,13 @@ public class Flight {
                   LocalDate departureDate, int capacity, double price) {
         this.id = id;
         this.flightNumber = flightNumber;
-        this.origin = origin;
-        this.destination = destination;
+        this.origin = AirportDictionary.codeOf(origin);
+        this.destination = AirportDictionary.codeOf(destination);
         this.departureDate = departureDate;
         this.capacity = capacity;
         this.price = price;
-        this.passengers = new HashSet<>();
+        this.passengers = ConcurrentHashMap.newKeySet();
+        this.passengersView = Collections.unmodifiableSet(passengers);
     }
 
     // --- Getters / Setters ---
@@ -76,14 +105,33 @@ public class Flight {
     public String getFlightNumber() { return flightNumber; }
     public void setFlightNumber(String flightNumber) { this.flightNumber = flightNumber; }
 
-    public String getOrigin() { return origin; }
-    public void setOrigin(String origin) { this.origin = origin; }
+    // changing the route or date of a flight that is already in a
+    // FlightBookingSystem bypasses its route index; re-add the flight instead
+    public String getOrigin() { return AirportDictionary.nameOf(origin); }
+    public void setOrigin(String origin) { this.origin = AirportDictionary.codeOf(origin); }
 
-    public String getDestination() { return destination; }
-    public void setDestination(String destination) { this.destination = destination; }
+    public String getDestination() { return AirportDictionary.nameOf(destination); }
+    public void setDestination(String destination) { this.destination = AirportDictionary.codeOf(destination); }
+
+    /**
+     * Gets the AirportDictionary code of the departure location.
+     * 
+     * @return the origin code
+     */
+    public int getOriginCode() { return origin; }
+
+    /**
+     * Gets the AirportDictionary code of the arrival location.
+     * 
+     * @return the destination code
+     */
+    public int getDestinationCode() { return destination; }
 
     public LocalDate getDepartureDate() { return departureDate; }
-    public void setDepartureDate(LocalDate departureDate) { this.departureDate = departureDate; }
+    public void setDepartureDate(LocalDate departureDate) {
+        this.departureDate = departureDate;
+        fareCurve = null;
+    }
 
     /**
      * Gets the maximum passenger capacity for this flight.
@@ -97,7 +145,21 @@ public class Flight {
      * 
      * @param capacity the maximum number of passengers
      */
-    public void setCapacity(int capacity) { this.capacity = capacity; }
+    public void setCapacity(int capacity) {
+        synchronized (this) {
+            PricingEngine.RouteDemand demand = routeDemand;
+            if (demand != null) {
+                demand.offered.addAndGet(capacity - this.capacity);
+            }
+            this.capacity = capacity;
+        }
+        fareCurve = null;
+        routeDayChanged();
+        SeatMap seats = seatMap;
+        if (seats != null) {
+            seats.setSeatCount(capacity);
+        }
+    }
 
     /**
      * Gets the price per seat for this flight.
@@ -111,32 +173,146 @@ public class Flight {
      * 
      * @param price the price in currency units
      */
-    public void setPrice(double price) { this.price = price; }
+    public void setPrice(double price) {
+        this.price = price;
+        fareCurve = null;
+        routeDayChanged();
+    }
 
     public boolean isDeleted() { return deleted; }
+
+    /**
+     * Sets the soft delete flag. For a flight that is already in a
+     * FlightBookingSystem use {@link FlightBookingSystem#deleteFlight} so
+     * route searches stay in sync.
+     * 
+     * @param deleted true to hide the flight
+     */
     public void setDeleted(boolean deleted) { this.deleted = deleted; }
 
     // --- Passenger Handling ---
     
     /**
-     * Gets the list of passengers booked on this flight.
+     * Gets the passengers booked on this flight.
+     * 
+     * <p>The set is a live read-only view, not a copy: it changes as
+     * passengers are added or removed. Use {@link #getPassengerCount()} when
+     * only the number is needed.</p>
+     * 
+     * @return unmodifiable view of the passengers
+     */
+    public Set<Customer> getPassengers() {
+        return passengersView;
+    }
+
+    /**
+     * Gets the number of passengers booked on this flight.
+     * 
+     * @return the number of booked seats, not counting held ones
+     */
+    public int getPassengerCount() {
+        return bookedSeats.get() - heldSeats.get();
+    }
+
+    /**
+     * Gets the number of seats taken, booked or held.
+     * 
+     * @return the number of seats taken
+     */
+    public int getSeatsTaken() {
+        return bookedSeats.get();
+    }
+
+    /**
+     * Gets the number of seats held and not yet booked.
+     * 
+     * @return the number of held seats
+     */
+    public int getHeldSeats() {
+        return heldSeats.get();
+    }
+
+    /**
+     * Reserves one seat if the flight is not full, without locking.
+     * Concurrent callers can never take more seats than the capacity.
+     * 
+     * @return true if a seat was reserved, false if the flight is full
+     */
+    public boolean tryReserveSeat() {
+        while (true) {
+            int booked = bookedSeats.get();
+            if (booked >= capacity) {
+                return false;
+            }
+            if (bookedSeats.compareAndSet(booked, booked + 1)) {
+                seatsTaken(1);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives back a seat taken with {@link #tryReserveSeat()}.
+     */
+    public void releaseSeat() {
+        bookedSeats.decrementAndGet();
+        seatsTaken(-1);
+    }
+
+    /**
+     * Holds one seat if the flight is neither full nor deleted. The seat
+     * stays taken until {@link #confirmHeldSeat} or {@link #releaseHeldSeat}.
+     * 
+     * @return true if a seat was held
+     */
+    public boolean tryHoldSeat() {
+        if (deleted || !tryReserveSeat()) {
+            return false;
+        }
+        heldSeats.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Gives back a seat taken with {@link #tryHoldSeat()}.
+     */
+    public void releaseHeldSeat() {
+        heldSeats.decrementAndGet();
+        releaseSeat();
+    }
+
+    /**
+     * Turns a seat taken with {@link #tryHoldSeat()} into a booked seat for
+     * a passenger.
      * 
-     * @return an immutable list of passengers
+     * @param passenger the customer to add as a passenger
+     * @return true if the passenger was added, false if they were already on
+     *         the flight, in which case the seat is still held
      */
-    public List<Customer> getPassengers() {
-        return new ArrayList<>(passengers);
+    public boolean confirmHeldSeat(Customer passenger) {
+        if (!passengers.add(passenger)) {
+            return false;
+        }
+        heldSeats.decrementAndGet();
+        return true;
     }
 
     /**
      * Safely adds a passenger to the flight, checking capacity and deleted status.
+     * Safe to call from several threads at once.
      * 
      * @param passenger the customer to add as a passenger
      * @return true if the passenger was added, false if flight is full or deleted
+     *         or the customer is already on it
      */
     public boolean addPassengerSafe(Customer passenger) {
         if (deleted) return false;
-        if (passengers.size() >= capacity) return false;
-        return passengers.add(passenger);
+        if (!tryReserveSeat()) return false;
+        if (!passengers.add(passenger)) {
+            releaseSeat();
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -146,25 +322,133 @@ public class Flight {
      * @param passenger the customer to add as a passenger
      */
     public void addPassenger(Customer passenger) {
-        passengers.add(passenger);
+        if (passengers.add(passenger)) {
+            bookedSeats.incrementAndGet();
+            seatsTaken(1);
+        }
     }
     
     /**
-     * Removes a passenger from the flight.
+     * Removes a passenger from the flight, freeing their seat.
      * 
      * @param passenger the customer to remove
      */
     public void removePassenger(Customer passenger) {
-        passengers.remove(passenger);
+        if (passengers.remove(passenger)) {
+            releaseSeat();
+        }
     }
     
+    /**
+     * Gets the seat map of this flight, creating it with one seat per unit
+     * of capacity on first use.
+     * 
+     * @return the seat map
+     */
+    public SeatMap getSeatMap() {
+        SeatMap seats = seatMap;
+        if (seats == null) {
+            synchronized (this) {
+                seats = seatMap;
+                if (seats == null) {
+                    seats = new SeatMap(capacity);
+                    seatMap = seats;
+                }
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * Gets the waitlist of this flight, creating it on first use.
+     * 
+     * @return the waitlist
+     */
+    public Waitlist getWaitlist() {
+        Waitlist queue = waitlist;
+        if (queue == null) {
+            synchronized (this) {
+                queue = waitlist;
+                if (queue == null) {
+                    queue = new Waitlist();
+                    waitlist = queue;
+                }
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Tells whether anyone is waiting for a seat, without creating the
+     * waitlist.
+     * 
+     * @return true if the waitlist exists and is not empty
+     */
+    public boolean hasWaitlist() {
+        Waitlist queue = waitlist;
+        return queue != null && !queue.isEmpty();
+    }
+
+    PricingEngine.FareCurve getFareCurve() {
+        return fareCurve;
+    }
+
+    void setFareCurve(PricingEngine.FareCurve fareCurve) {
+        this.fareCurve = fareCurve;
+    }
+
+    PricingEngine.RouteDemand getRouteDemand() {
+        return routeDemand;
+    }
+
+    /**
+     * Moves this flight's seats from the totals of one route to another,
+     * or out of route totals when null. A seat taken or freed during the
+     * move may be counted wrongly; flights only move while being added or
+     * deleted, with booking commands locked out.
+     */
+    synchronized void setRouteDemand(PricingEngine.RouteDemand demand) {
+        PricingEngine.RouteDemand old = routeDemand;
+        if (old == demand) {
+            return;
+        }
+        if (old != null) {
+            old.offered.addAndGet(-capacity);
+            old.taken.addAndGet(-bookedSeats.get());
+        }
+        routeDemand = demand;
+        if (demand != null) {
+            demand.offered.addAndGet(capacity);
+            demand.taken.addAndGet(bookedSeats.get());
+        }
+    }
+
+    void setRouteDay(RouteDay day) {
+        routeDay = day;
+    }
+
+    private void seatsTaken(int delta) {
+        PricingEngine.RouteDemand demand = routeDemand;
+        if (demand != null) {
+            demand.taken.addAndGet(delta);
+        }
+        routeDayChanged();
+    }
+
+    private void routeDayChanged() {
+        RouteDay day = routeDay;
+        if (day != null) {
+            day.markStale();
+        }
+    }
+
     /**
      * Gets the number of available seats on this flight.
      * 
-     * @return the number of seats still available
+     * @return the number of seats neither booked nor held
      */
     public int getAvailableSeats() {
-        return capacity - passengers.size();
+        return capacity - bookedSeats.get();
     }
 
     // --- Display Helpers ---
@@ -177,7 +461,7 @@ public class Flight {
     public String getDetailsShort() {
         DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
         return "Flight #" + id + " - " + flightNumber + " - " +
-               origin + " to " + destination +
+               getOrigin() + " to " + getDestination() +
                " on " + departureDate.format(dtf);
     }
 
@@ -190,12 +474,12 @@ public class Flight {
         DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd/MM/yyyy");
         return "Flight ID: " + id + "\n" +
                "Flight Number: " + flightNumber + "\n" +
-               "From: " + origin + "\n" +
-               "To: " + destination + "\n" +
+               "From: " + getOrigin() + "\n" +
+               "To: " + getDestination() + "\n" +
                "Departure Date: " + departureDate.format(dtf) + "\n" +
                "Price: $" + String.format("%.2f", price) + "\n" +
                "Capacity: " + capacity + "\n" +
-               "Number of Passengers: " + passengers.size() + "\n" +
+               "Number of Passengers: " + getPassengerCount() + "\n" +
                "Available Seats: " + getAvailableSeats();
     }
 
@@ -3,40 +3,146 @@ package bcu.cmp5332.bookingsystem.model;
 import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
 
 /**
  * Central model class for the Flight Booking System.
  * Updated to filter deleted entities from views (70-79% requirement).
+ *
+ * <p>Threads share a system through its {@link #getLocks() locks}: booking
+ * changes hold a booking lock and may run in parallel, everything else holds
+ * the exclusive lock. The booking indexes are guarded internally so that
+ * parallel booking changes can update them.</p>
+ *
+ * <p>Readers that only list entities can skip the locks altogether and
+ * iterate a {@link #getSnapshot() snapshot}, which every change replaces
+ * with a new version.</p>
  */
 public class FlightBookingSystem {
 
     private final LocalDate systemDate = LocalDate.parse("2024-11-11");
 
-    private final Map<Integer, Customer> customers = new TreeMap<>();
-    private final Map<Integer, Flight> flights = new TreeMap<>();
-    private final List<Booking> bookings = new ArrayList<>();
+    private final BookingLocks locks = new BookingLocks();
+    private final SeatHolds holds = new SeatHolds();
+    private final PricingEngine pricing = new PricingEngine(systemDate);
+
+    // active flights and customers and all bookings, republished on every
+    // change; with snapshotEdit guarded by snapshotLock, which is only ever
+    // held for a single publish or hand-out
+    private final Object snapshotLock = new Object();
+    private SystemSnapshot snapshot = SystemSnapshot.EMPTY;
+    // owns the trie nodes created since the last hand-out, which no reader
+    // can see yet, so they are changed in place; null right after a hand-out
+    private Object snapshotEdit;
+
+    // all entities by id, in id order
+    private final OrderedIntObjectMap<Customer> customers = new OrderedIntObjectMap<>();
+    private final OrderedIntObjectMap<Flight> flights = new OrderedIntObjectMap<>();
+
+    // active (non-deleted) entities, kept up to date by add and delete
+    private final List<Flight> activeFlights = new ArrayList<>(); // sorted by id
+    private final List<Flight> activeFlightsView = Collections.unmodifiableList(activeFlights);
+    private final NavigableMap<Integer, Customer> activeCustomers = new TreeMap<>();
+    private final NavigableMap<Integer, Customer> activeCustomersView =
+            Collections.unmodifiableNavigableMap(activeCustomers);
+
+    // active flights by route (origin and destination codes) and departure
+    // date, each day with its cheapest fare and free seats for the calendar
+    private final Map<Long, TreeMap<LocalDate, RouteDay>> routes = new HashMap<>();
+    // active flights by origin and departure date, for connecting itineraries
+    private final RouteGraph routeGraph = new RouteGraph();
+    // bookings by id, and by (customer, flight) pair; with changedBookings
+    // guarded by bookingIndexLock, as booking changes run in parallel
+    private final Object bookingIndexLock = new Object();
+    private final OrderedIntObjectMap<Booking> bookings = new OrderedIntObjectMap<>();
+    private final Map<Long, Booking> bookingsByPair = new HashMap<>();
+
+    // active customers by case-folded email; customers that share an email
+    // with the indexed one (lowest id) wait in sharedEmails
+    private final Map<String, Customer> customersByEmail = new HashMap<>();
+    private final Map<String, TreeMap<Integer, Customer>> sharedEmails = new HashMap<>();
+
+    // ids of entities changed since their data file was last written
+    private final Set<Integer> changedFlights = new HashSet<>();
+    private final Set<Integer> changedCustomers = new HashSet<>();
+    private final Set<Integer> changedBookings = new HashSet<>();
 
     public LocalDate getSystemDate() {
         return systemDate;
     }
 
+    /**
+     * Gets the locks that coordinate threads using this system.
+     *
+     * @return the system's locks
+     */
+    public BookingLocks getLocks() {
+        return locks;
+    }
+
+    /**
+     * Gets the engine that prices this system's flights as of the system
+     * date.
+     *
+     * @return the pricing engine
+     */
+    public PricingEngine getPricing() {
+        return pricing;
+    }
+
+    /**
+     * Gets the seats currently held for customers.
+     *
+     * @return the system's seat holds
+     */
+    public SeatHolds getHolds() {
+        return holds;
+    }
+
+    /**
+     * Gets the latest snapshot of the active flights and customers and all
+     * bookings. It can be iterated without locks while other threads change
+     * the system; call again to see their changes.
+     *
+     * @return the current snapshot
+     */
+    public SystemSnapshot getSnapshot() {
+        synchronized (snapshotLock) {
+            // the snapshot is about to be shared: freeze its nodes
+            snapshotEdit = null;
+            return snapshot;
+        }
+    }
+
+    private void publish(BiFunction<SystemSnapshot, Object, SystemSnapshot> change) {
+        synchronized (snapshotLock) {
+            if (snapshotEdit == null) {
+                snapshotEdit = new Object();
+            }
+            snapshot = change.apply(snapshot, snapshotEdit);
+        }
+    }
+
     // ---------- FLIGHTS ----------
     
     /**
-     * Gets all non-deleted flights.
+     * Gets all non-deleted flights, ordered by ID.
      * Requirement: 70-79% - Filter out deleted flights from list views.
      * 
+     * <p>The list is a live read-only view: it is not copied, and it changes
+     * as flights are added or deleted. Copy it before changing the
+     * system while iterating, and hold the exclusive lock while iterating
+     * if other threads may change it; lock-free readers use
+     * {@link #getSnapshot()}.</p>
+     * 
      * @return list of active flights only
      */
     public List<Flight> getFlights() {
-        return flights.values().stream()
-                .filter(f -> !f.isDeleted())
-                .collect(Collectors.toList());
+        return activeFlightsView;
     }
     
     /**
-     * Gets ALL flights including deleted ones (for internal use).
+     * Gets ALL flights including deleted ones (for internal use), ordered by ID.
      * 
      * @return list of all flights
      */
@@ -52,10 +158,11 @@ public class FlightBookingSystem {
      * @throws FlightBookingSystemException if flight not found
      */
     public Flight getFlightByID(int id) throws FlightBookingSystemException {
-        if (!flights.containsKey(id)) {
+        Flight flight = flights.get(id);
+        if (flight == null) {
             throw new FlightBookingSystemException("There is no flight with that ID.");
         }
-        return flights.get(id);
+        return flight;
     }
 
     /**
@@ -65,39 +172,235 @@ public class FlightBookingSystem {
      * @throws FlightBookingSystemException if there's an error adding
      */
     public void addFlight(Flight flight) throws FlightBookingSystemException {
-        flights.put(flight.getId(), flight);
+        IdAllocator.FLIGHTS.advancePast(flight.getId());
+        Flight previous = flights.put(flight.getId(), flight);
+        if (previous != null && !previous.isDeleted()) {
+            deactivate(previous);
+        }
+        if (!flight.isDeleted()) {
+            activate(flight);
+        }
+        changedFlights.add(flight.getId());
+    }
+
+    /**
+     * Soft deletes a flight, removing it from route searches.
+     * 
+     * @param flight the flight to delete
+     */
+    public void deleteFlight(Flight flight) {
+        if (flight.isDeleted()) {
+            return;
+        }
+        flight.setDeleted(true);
+        deactivate(flight);
+        changedFlights.add(flight.getId());
+    }
+
+    /**
+     * Finds active flights on a route, ordered by departure date and ID.
+     * Airport names must match exactly as stored.
+     * 
+     * @param origin the departure location
+     * @param destination the arrival location
+     * @param from earliest departure date (inclusive), or null for no limit
+     * @param to latest departure date (inclusive), or null for no limit
+     * @return the matching flights
+     */
+    public List<Flight> searchFlights(String origin, String destination, LocalDate from, LocalDate to) {
+        List<Flight> result = new ArrayList<>();
+        for (RouteDay day : routeDays(origin, destination, from, to)) {
+            result.addAll(day.getFlights());
+        }
+        return result;
+    }
+
+    /**
+     * Gets the fare calendar of a route: for each day with active flights,
+     * the lowest current fare and the free seats. Each day's summary is
+     * kept up to date as its flights change, so this costs a lookup per
+     * day rather than a look at every flight. Airport names must match
+     * exactly as stored.
+     * 
+     * @param origin the departure location
+     * @param destination the arrival location
+     * @param from earliest departure date (inclusive), or null for no limit
+     * @param to latest departure date (inclusive), or null for no limit
+     * @return the days with active flights, in date order
+     */
+    public List<RouteDay> getFareCalendar(String origin, String destination, LocalDate from, LocalDate to) {
+        return new ArrayList<>(routeDays(origin, destination, from, to));
+    }
+
+    private Collection<RouteDay> routeDays(String origin, String destination, LocalDate from, LocalDate to) {
+        int originCode = AirportDictionary.find(origin);
+        int destinationCode = AirportDictionary.find(destination);
+        if (originCode == AirportDictionary.NONE || destinationCode == AirportDictionary.NONE) {
+            return Collections.emptyList();
+        }
+
+        TreeMap<LocalDate, RouteDay> byDate = routes.get(routeKey(originCode, destinationCode));
+        if (byDate == null) {
+            return Collections.emptyList();
+        }
+
+        NavigableMap<LocalDate, RouteDay> range = byDate;
+        if (from != null && to != null) {
+            if (from.isAfter(to)) {
+                return Collections.emptyList();
+            }
+            range = byDate.subMap(from, true, to, true);
+        } else if (from != null) {
+            range = byDate.tailMap(from, true);
+        } else if (to != null) {
+            range = byDate.headMap(to, true);
+        }
+        return range.values();
+    }
+
+    /**
+     * Finds itineraries of up to {@value RouteGraph#DEFAULT_MAX_LEGS}
+     * connecting active flights between two airports, earliest arrival
+     * first. Airport names must match exactly as stored.
+     * 
+     * @param origin the departure location
+     * @param destination the arrival location
+     * @param from earliest departure date (inclusive)
+     * @param to latest departure date of the first flight (inclusive), or
+     *           null for no limit
+     * @return the itineraries
+     * @see RouteGraph#search(int, int, LocalDate, LocalDate)
+     */
+    public List<RouteGraph.Itinerary> searchItineraries(String origin, String destination,
+                                                       LocalDate from, LocalDate to) {
+        int originCode = AirportDictionary.find(origin);
+        int destinationCode = AirportDictionary.find(destination);
+        if (originCode == AirportDictionary.NONE || destinationCode == AirportDictionary.NONE) {
+            return Collections.emptyList();
+        }
+        return routeGraph.search(originCode, destinationCode, from, to);
+    }
+
+    /**
+     * Gets the graph of active flights, for itinerary searches with
+     * other limits than {@link #searchItineraries}.
+     * 
+     * @return the route graph
+     */
+    public RouteGraph getRouteGraph() {
+        return routeGraph;
+    }
+
+    private void activate(Flight flight) {
+        int at = activeFlights.size();
+        if (at > 0 && activeFlights.get(at - 1).getId() > flight.getId()) {
+            at = -(activeFlightIndex(flight.getId()) + 1);
+        }
+        activeFlights.add(at, flight);
+        indexRoute(flight);
+        publish((current, edit) -> current.withFlight(flight, edit));
+    }
+
+    private void deactivate(Flight flight) {
+        int at = activeFlightIndex(flight.getId());
+        if (at >= 0 && activeFlights.get(at) == flight) {
+            activeFlights.remove(at);
+        }
+        unindexRoute(flight);
+        publish((current, edit) -> current.withoutFlight(flight, edit));
+    }
+
+    /**
+     * Binary search of the active flights by ID, with the same return
+     * convention as {@link Collections#binarySearch}.
+     */
+    private int activeFlightIndex(int id) {
+        int low = 0;
+        int high = activeFlights.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = activeFlights.get(mid).getId();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static long routeKey(int originCode, int destinationCode) {
+        return ((long) originCode << 32) | (destinationCode & 0xFFFFFFFFL);
+    }
+
+    private void indexRoute(Flight flight) {
+        routes.computeIfAbsent(routeKey(flight.getOriginCode(), flight.getDestinationCode()), k -> new TreeMap<>())
+                .computeIfAbsent(flight.getDepartureDate(), d -> new RouteDay(d, pricing))
+                .add(flight);
+        routeGraph.add(flight);
+        pricing.attach(flight, routeKey(flight.getOriginCode(), flight.getDestinationCode()));
+    }
+
+    private void unindexRoute(Flight flight) {
+        pricing.detach(flight);
+        routeGraph.remove(flight);
+        long key = routeKey(flight.getOriginCode(), flight.getDestinationCode());
+        TreeMap<LocalDate, RouteDay> byDate = routes.get(key);
+        if (byDate == null) {
+            return;
+        }
+        RouteDay sameDay = byDate.get(flight.getDepartureDate());
+        if (sameDay == null || !sameDay.remove(flight)) {
+            return;
+        }
+        if (sameDay.isEmpty()) {
+            byDate.remove(flight.getDepartureDate());
+            if (byDate.isEmpty()) {
+                routes.remove(key);
+            }
+        }
     }
 
     // ---------- CUSTOMERS ----------
     
     /**
-     * Gets all non-deleted customers.
+     * Gets all non-deleted customers, ordered by ID.
      * Requirement: 70-79% - Filter out deleted customers from list views.
      * 
+     * <p>Like {@link #getFlights()} this is a live read-only view.</p>
+     * 
      * @return map of active customers only
      */
-    public Map<Integer, Customer> getCustomers() {
-        return customers.entrySet().stream()
-                .filter(entry -> !entry.getValue().isDeleted())
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, TreeMap::new));
+    public NavigableMap<Integer, Customer> getCustomers() {
+        return activeCustomersView;
     }
     
     /**
-     * Gets ALL customers including deleted ones (for internal use).
+     * Gets ALL customers including deleted ones (for internal use), ordered by ID.
      * 
-     * @return map of all customers
+     * @return read-only view of all customers
      */
-    public Map<Integer, Customer> getAllCustomers() {
-        return customers;
+    public Collection<Customer> getAllCustomers() {
+        return customers.values();
     }
     
     /**
-     * Removes a booking from the system.
+     * Removes a booking from the system, freeing its seat if it has one.
      * 
      * @param booking the booking to remove
      */
     public void removeBooking(Booking booking) {
-        bookings.remove(booking);
+        synchronized (bookingIndexLock) {
+            if (bookings.get(booking.getId()) == booking) {
+                bookings.remove(booking.getId());
+                bookingsByPair.remove(pairKey(booking), booking);
+                releaseSeat(booking);
+                publish((current, edit) -> current.withoutBooking(booking, edit));
+            }
+            changedBookings.add(booking.getId());
+        }
     }
 
     /**
@@ -108,10 +411,11 @@ public class FlightBookingSystem {
      * @throws FlightBookingSystemException if customer not found
      */
     public Customer getCustomerByID(int id) throws FlightBookingSystemException {
-        if (!customers.containsKey(id)) {
+        Customer customer = customers.get(id);
+        if (customer == null) {
             throw new FlightBookingSystemException("There is no customer with that ID.");
         }
-        return customers.get(id);
+        return customer;
     }
 
     /**
@@ -120,7 +424,83 @@ public class FlightBookingSystem {
      * @param customer the customer to add
      */
     public void addCustomer(Customer customer) {
-        customers.put(customer.getId(), customer);
+        IdAllocator.CUSTOMERS.advancePast(customer.getId());
+        Customer previous = customers.put(customer.getId(), customer);
+        if (previous != null && !previous.isDeleted()) {
+            deactivate(previous);
+        }
+        if (!customer.isDeleted()) {
+            activate(customer);
+        }
+        changedCustomers.add(customer.getId());
+    }
+
+    /**
+     * Soft deletes a customer, removing them from email lookups.
+     *
+     * @param customer the customer to delete
+     */
+    public void deleteCustomer(Customer customer) {
+        if (customer.isDeleted()) {
+            return;
+        }
+        customer.setDeleted(true);
+        deactivate(customer);
+        changedCustomers.add(customer.getId());
+    }
+
+    private void activate(Customer customer) {
+        activeCustomers.put(customer.getId(), customer);
+        indexEmail(customer);
+        publish((current, edit) -> current.withCustomer(customer, edit));
+    }
+
+    private void deactivate(Customer customer) {
+        activeCustomers.remove(customer.getId(), customer);
+        unindexEmail(customer);
+        publish((current, edit) -> current.withoutCustomer(customer, edit));
+    }
+
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private void indexEmail(Customer customer) {
+        if (customer.getEmail() == null) {
+            return;
+        }
+        String key = emailKey(customer.getEmail());
+        Customer indexed = customersByEmail.putIfAbsent(key, customer);
+        if (indexed == null || indexed == customer) {
+            return;
+        }
+        // keep the lowest id indexed, as a scan in id order would find it
+        Customer waiting = customer;
+        if (customer.getId() < indexed.getId()) {
+            customersByEmail.put(key, customer);
+            waiting = indexed;
+        }
+        sharedEmails.computeIfAbsent(key, k -> new TreeMap<>()).put(waiting.getId(), waiting);
+    }
+
+    private void unindexEmail(Customer customer) {
+        if (customer.getEmail() == null) {
+            return;
+        }
+        String key = emailKey(customer.getEmail());
+        TreeMap<Integer, Customer> waiting = sharedEmails.get(key);
+        if (customersByEmail.get(key) == customer) {
+            if (waiting == null) {
+                customersByEmail.remove(key);
+                return;
+            }
+            customersByEmail.put(key, waiting.pollFirstEntry().getValue());
+        } else if (waiting != null) {
+            waiting.remove(customer.getId(), customer);
+        }
+        if (waiting != null && waiting.isEmpty()) {
+            sharedEmails.remove(key);
+        }
     }
 
     // ---------- BOOKINGS ----------
@@ -131,16 +511,74 @@ public class FlightBookingSystem {
      * @param booking the booking to add
      */
     public void addBooking(Booking booking) {
-        bookings.add(booking);
+        synchronized (bookingIndexLock) {
+            bookings.put(booking.getId(), booking);
+            // a customer holds at most one booking per flight; keep the first
+            bookingsByPair.putIfAbsent(pairKey(booking), booking);
+            publish((current, edit) -> current.withBooking(booking, edit));
+            changedBookings.add(booking.getId());
+        }
     }
 
     /**
-     * Gets all bookings.
+     * Moves a booking to another flight, keeping the (customer, flight)
+     * lookup in sync. The booking's seat on the old flight is freed and it
+     * has none on the new one. Passenger lists are left to the caller.
      * 
-     * @return unmodifiable list of all bookings
+     * @param booking the booking to move
+     * @param newFlight the flight it moves to
      */
-    public List<Booking> getBookings() {
-        return Collections.unmodifiableList(bookings);
+    public void moveBooking(Booking booking, Flight newFlight) {
+        synchronized (bookingIndexLock) {
+            boolean indexed = bookingsByPair.remove(pairKey(booking), booking);
+            releaseSeat(booking);
+            booking.setFlight(newFlight);
+            if (indexed) {
+                bookingsByPair.putIfAbsent(pairKey(booking), booking);
+            }
+            // same entities, but readers comparing versions should see the move
+            publish((current, edit) -> current.withBooking(booking, edit));
+            changedBookings.add(booking.getId());
+        }
+    }
+
+    /**
+     * Gets all bookings, ordered by ID (which is the order they were created).
+     * Hold the exclusive lock while iterating if other threads may be booking,
+     * or iterate {@link #getSnapshot()} instead.
+     * 
+     * @return unmodifiable view of all bookings
+     */
+    public Collection<Booking> getBookings() {
+        return bookings.values();
+    }
+
+    /**
+     * Gets the booking a customer holds on a flight.
+     * 
+     * @param customerId the customer ID
+     * @param flightId the flight ID
+     * @return the booking, or null if the customer has none on that flight
+     */
+    public Booking getBooking(int customerId, int flightId) {
+        synchronized (bookingIndexLock) {
+            return bookingsByPair.get(pairKey(customerId, flightId));
+        }
+    }
+
+    private static void releaseSeat(Booking booking) {
+        if (booking.getSeat() != SeatMap.NO_SEAT) {
+            booking.getFlight().getSeatMap().release(booking.getSeat());
+            booking.setSeat(SeatMap.NO_SEAT);
+        }
+    }
+
+    private static long pairKey(int customerId, int flightId) {
+        return ((long) customerId << 32) | (flightId & 0xFFFFFFFFL);
+    }
+
+    private static long pairKey(Booking booking) {
+        return pairKey(booking.getCustomer().getId(), booking.getFlight().getId());
     }
 
     /**
@@ -151,31 +589,94 @@ public class FlightBookingSystem {
      * @throws FlightBookingSystemException if booking not found
      */
     public Booking getBookingById(int bookingId) throws FlightBookingSystemException {
-        for (Booking b : bookings) {
-            if (b.getId() == bookingId) {
-                return b;
-            }
+        Booking booking;
+        synchronized (bookingIndexLock) {
+            booking = bookings.get(bookingId);
+        }
+        if (booking == null) {
+            throw new FlightBookingSystemException("Booking with ID " + bookingId + " not found.");
         }
-        throw new FlightBookingSystemException("Booking with ID " + bookingId + " not found.");
+        return booking;
     }
 
     /**
      * Retrieves a customer by email address.
      *
-     * <p>Email comparison is case-insensitive. Deleted customers are ignored.</p>
+     * <p>Email comparison is case-insensitive. Deleted customers are ignored.
+     * The lookup uses an index, so it does not depend on the number of
+     * customers.</p>
      *
      * @param email the email address to search for
      * @return the matching Customer, or null if not found
      */
     public Customer getCustomerByEmail(String email) {
-        for (Customer customer : customers.values()) {
-            if (!customer.isDeleted()
-                    && customer.getEmail() != null
-                    && customer.getEmail().equalsIgnoreCase(email)) {
-                return customer;
-            }
+        if (email == null) {
+            return null;
         }
-        return null;
+        return customersByEmail.get(emailKey(email));
+    }
+
+    // ---------- CHANGE TRACKING ----------
+
+    /**
+     * Records that a booking must be written on the next store, e.g.
+     * because its journal record could not be written.
+     *
+     * @param booking the changed booking
+     */
+    public void markBookingChanged(Booking booking) {
+        synchronized (bookingIndexLock) {
+            changedBookings.add(booking.getId());
+        }
+    }
+
+    public boolean hasFlightChanges() {
+        return !changedFlights.isEmpty();
+    }
+
+    public boolean hasCustomerChanges() {
+        return !changedCustomers.isEmpty();
+    }
+
+    public boolean hasBookingChanges() {
+        synchronized (bookingIndexLock) {
+            return !changedBookings.isEmpty();
+        }
+    }
+
+    public void clearFlightChanges() {
+        changedFlights.clear();
+    }
+
+    public void clearCustomerChanges() {
+        changedCustomers.clear();
+    }
+
+    public void clearBookingChanges() {
+        synchronized (bookingIndexLock) {
+            changedBookings.clear();
+        }
+    }
+
+    /**
+     * Clears the change mark of a single booking once it has been persisted
+     * on its own (e.g. appended to the bookings journal).
+     *
+     * @param booking the persisted booking
+     */
+    public void clearBookingChange(Booking booking) {
+        synchronized (bookingIndexLock) {
+            changedBookings.remove(booking.getId());
+        }
+    }
+
+    /**
+     * Marks everything as unchanged, e.g. right after loading from disk.
+     */
+    public void clearChanges() {
+        clearFlightChanges();
+        clearCustomerChanges();
+        clearBookingChanges();
     }
 
 }
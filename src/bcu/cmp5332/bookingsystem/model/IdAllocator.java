@@ -0,0 +1,164 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out unique ids for flights, customers and bookings.
+ *
+ * <p>Each thread takes a block of consecutive ids from a shared atomic
+ * counter and then numbers from its own block, so {@link #next()} is a
+ * thread-local increment and, once per block, a single atomic add. No lock
+ * is taken on that path.</p>
+ *
+ * <p>Flight, customer and booking ids are written to the data files, so
+ * their allocators record a high-water mark in a {@link Store} before a
+ * block is used. After a restart numbering continues above every id that
+ * was handed out, even if the entity holding it was deleted or cancelled and
+ * is no longer in the files. Ids left in a thread's block when the program
+ * stops are skipped, so a restart can leave a gap of up to one block per
+ * thread.</p>
+ *
+ * <p>Ids are positive ints. Once they run out {@link #next()} throws rather
+ * than wrapping around to ids that may be in use.</p>
+ */
+public final class IdAllocator {
+
+    /**
+     * Number of ids a thread takes at a time.
+     */
+    public static final int BLOCK_SIZE = 16;
+
+    public static final IdAllocator FLIGHTS = new IdAllocator("flights", true);
+    public static final IdAllocator CUSTOMERS = new IdAllocator("customers", true);
+    public static final IdAllocator BOOKINGS = new IdAllocator("bookings", true);
+
+    /**
+     * Where persistent allocators keep their high-water marks.
+     */
+    public interface Store {
+
+        /**
+         * Reads a high-water mark.
+         *
+         * @param name the allocator name
+         * @return the mark, or 0 if none has been saved
+         * @throws IOException if the store cannot be read
+         */
+        int load(String name) throws IOException;
+
+        /**
+         * Records that no id at or above the mark has been handed out.
+         *
+         * @param name the allocator name
+         * @param mark the new high-water mark
+         * @throws IOException if the store cannot be written
+         */
+        void save(String name, int mark) throws IOException;
+    }
+
+    private static volatile Store store;
+
+    private final String name;
+    private final boolean persistent;
+
+    // first id of the next unclaimed block
+    private final AtomicInteger nextBlock = new AtomicInteger(1);
+    // ids up to this one are taken by entities that did not come from next()
+    private final AtomicInteger floor = new AtomicInteger(0);
+    // every id below this has been recorded in the store
+    private int saved = 1;
+
+    private final ThreadLocal<int[]> block = ThreadLocal.withInitial(() -> new int[] {0, 0});
+
+    IdAllocator(String name, boolean persistent) {
+        this.name = name;
+        this.persistent = persistent;
+    }
+
+    /**
+     * Installs the store for the persistent allocators and continues their
+     * numbering above the marks it holds.
+     *
+     * @param newStore the store, or null to stop recording marks
+     * @throws IOException if a mark cannot be read
+     */
+    public static void setStore(Store newStore) throws IOException {
+        if (newStore != null) {
+            for (IdAllocator allocator : new IdAllocator[] {FLIGHTS, CUSTOMERS, BOOKINGS}) {
+                int mark = newStore.load(allocator.name);
+                allocator.nextBlock.accumulateAndGet(mark, Math::max);
+                synchronized (allocator) {
+                    allocator.saved = Math.max(allocator.saved, mark);
+                }
+            }
+        }
+        store = newStore;
+    }
+
+    /**
+     * Returns a new id, greater than any id passed to {@link #advancePast}.
+     *
+     * @return the id
+     * @throws UncheckedIOException if the high-water mark cannot be saved
+     * @throws IllegalStateException if every id has been used
+     */
+    public int next() {
+        int[] current = block.get();
+        int id = Math.max(current[0], firstFree());
+        while (id >= current[1]) {
+            // the last block is cut short at Integer.MAX_VALUE, so the counter never wraps
+            int start = nextBlock.getAndUpdate(n -> n + Math.min(BLOCK_SIZE, Integer.MAX_VALUE - n));
+            if (start == Integer.MAX_VALUE) {
+                throw new IllegalStateException("No " + name + " ids left");
+            }
+            int end = start + Math.min(BLOCK_SIZE, Integer.MAX_VALUE - start);
+            if (persistent) {
+                // a block whose mark cannot be saved is dropped unused
+                save(end);
+            }
+            current[0] = start;
+            current[1] = end;
+            id = Math.max(start, firstFree());
+        }
+        current[0] = id + 1;
+        return id;
+    }
+
+    /**
+     * Records that an id is in use, e.g. by a loaded entity, so it is never
+     * handed out. Meant for loading: call it before {@link #next()} is used
+     * for ids in the same range.
+     *
+     * @param id an id in use
+     */
+    public void advancePast(int id) {
+        if (id <= floor.get()) {
+            return;
+        }
+        floor.accumulateAndGet(id, Math::max);
+        nextBlock.accumulateAndGet(id, (n, used) -> Math.max(n, used == Integer.MAX_VALUE ? used : used + 1));
+    }
+
+    private int firstFree() {
+        int taken = floor.get();
+        if (taken == Integer.MAX_VALUE) {
+            throw new IllegalStateException("No " + name + " ids left");
+        }
+        return taken + 1;
+    }
+
+    private synchronized void save(int mark) {
+        Store current = store;
+        if (current == null || mark <= saved) {
+            return;
+        }
+        try {
+            current.save(name, mark);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot reserve " + name + " ids", e);
+        }
+        saved = mark;
+    }
+}
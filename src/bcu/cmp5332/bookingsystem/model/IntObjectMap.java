@@ -0,0 +1,271 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hash map from int keys to objects, for id lookups.
+ *
+ * <p>Keys are kept in an {@code int[]} and values in a parallel array, using
+ * open addressing with linear probing, so there is no boxed Integer key and
+ * no entry object per mapping. A {@code HashMap<Integer, V>} or
+ * {@code TreeMap<Integer, V>} costs roughly 40-56 bytes per entry on top of
+ * the value; this map costs about 16 at its typical fill.</p>
+ *
+ * <p>Values are iterated in no particular order; use
+ * {@link OrderedIntObjectMap} where the order matters. Null values are not
+ * allowed, which lets an empty slot be marked by a null value. Not thread
+ * safe.</p>
+ *
+ * @param <V> the value type
+ */
+public final class IntObjectMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int modCount;
+
+    private Collection<V> valuesView;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntObjectMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Creates an empty map that holds the given number of entries without
+     * growing.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    public IntObjectMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Returns the slot a key hashes to. Ids are mostly consecutive, so the
+     * key is spread with a multiplicative hash before masking.
+     */
+    static int hash(int key, int mask) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Returns a power-of-two table size that keeps the map at most half full
+     * for the given number of entries.
+     */
+    static int tableSizeFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2L * expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the value mapped to a key.
+     *
+     * @param key the key
+     * @return the value, or null if the key is not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Maps a key to a value, replacing any previous value.
+     *
+     * @param key the key
+     * @param value the value, not null
+     * @return the previous value, or null if the key was not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("null value");
+        }
+        int slot = hash(key, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        modCount++;
+        if (++size > (mask + 1) * 3 / 4) {
+            rehash((mask + 1) * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping for a key.
+     *
+     * @param key the key
+     * @return the removed value, or null if the key was not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = (V) values[slot];
+        deleteSlot(slot);
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns a read-only view of the values, in no particular order.
+     *
+     * @return the values
+     */
+    public Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new Values();
+        }
+        return valuesView;
+    }
+
+    private int find(int key) {
+        int slot = hash(key, mask);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Empties a slot, moving later entries of the same probe run back so
+     * that lookups never have to skip a gap (no tombstones).
+     */
+    private void deleteSlot(int slot) {
+        int gap = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (values[next] == null) {
+                break;
+            }
+            int home = hash(keys[next], mask);
+            // the entry may fill the gap only if the gap lies between its
+            // home slot and where it is now
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        values[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = hash(oldKeys[i], mask);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private final class Values extends AbstractCollection<V> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<V>() {
+                private final int expectedModCount = modCount;
+                private final Object[] table = values;
+                private int slot = advance(0);
+
+                private int advance(int from) {
+                    while (from < table.length && table[from] == null) {
+                        from++;
+                    }
+                    return from;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return slot < table.length;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public V next() {
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (slot >= table.length) {
+                        throw new NoSuchElementException();
+                    }
+                    V value = (V) table[slot];
+                    slot = advance(slot + 1);
+                    return value;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Map from int keys to objects that iterates in ascending key order, as a
+ * replacement for {@code TreeMap<Integer, V>} in the entity stores.
+ *
+ * <p>Entries are kept in key order in a dense {@code int[]} of keys and a
+ * parallel array of values. Lookups go through an open-addressing table of
+ * positions into those arrays, so {@link #get} is a hash probe rather than
+ * a tree walk, and there is neither a boxed key nor a node per entry.</p>
+ *
+ * <p>Ids are handed out in increasing order, so almost every insertion is an
+ * append and costs O(1). Inserting a key below the largest one shifts the
+ * later entries, like an insertion into the middle of an ArrayList. Removal
+ * only leaves a null value behind, which iteration skips; the arrays are
+ * compacted once more than half of their entries are removed ones, or when
+ * they are full, so removal is O(1) amortized. Null values are not allowed.
+ * Not thread safe.</p>
+ *
+ * @param <V> the value type
+ */
+public final class OrderedIntObjectMap<V> {
+
+    // key order; a removed entry keeps its key and a null value until compacted
+    private int[] keys;
+    private Object[] values;
+    private int end;
+    private int size;
+
+    // open-addressing index: position + 1 in the arrays above, 0 when free
+    private int[] slots;
+    private int mask;
+
+    private int modCount;
+    private Collection<V> valuesView;
+
+    /**
+     * Creates an empty map.
+     */
+    public OrderedIntObjectMap() {
+        this(8);
+    }
+
+    /**
+     * Creates an empty map that holds the given number of entries without
+     * growing.
+     *
+     * @param expectedSize the expected number of entries
+     */
+    public OrderedIntObjectMap(int expectedSize) {
+        keys = new int[Math.max(expectedSize, 8)];
+        values = new Object[keys.length];
+        slots = new int[IntObjectMap.tableSizeFor(keys.length)];
+        mask = slots.length - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the value mapped to a key.
+     *
+     * @param key the key
+     * @return the value, or null if the key is not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slots[slot] - 1];
+    }
+
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Gets the smallest key.
+     *
+     * @return the first key
+     * @throws NoSuchElementException if the map is empty
+     */
+    public int firstKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return keys[skipRemoved(0)];
+    }
+
+    /**
+     * Gets the largest key.
+     *
+     * @return the last key
+     * @throws NoSuchElementException if the map is empty
+     */
+    public int lastKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        // removed entries are never left at the end
+        return keys[end - 1];
+    }
+
+    /**
+     * Maps a key to a value, replacing any previous value.
+     *
+     * @param key the key
+     * @param value the value, not null
+     * @return the previous value, or null if the key was not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new NullPointerException("null value");
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            int at = slots[slot] - 1;
+            V previous = (V) values[at];
+            values[at] = value;
+            return previous;
+        }
+
+        if (end == keys.length) {
+            // drops the removed entries; grows only if few were removed
+            compact(Math.max(size * 2, 8));
+        }
+        int at = end;
+        if (end > 0 && keys[end - 1] >= key) {
+            at = Arrays.binarySearch(keys, 0, end, key);
+            if (at < 0) {
+                at = -(at + 1);
+                System.arraycopy(keys, at, keys, at + 1, end - at);
+                System.arraycopy(values, at, values, at + 1, end - at);
+                shiftPositions(at, 1);
+                end++;
+            }
+            // else the key was removed and not yet compacted: reuse its entry
+        } else {
+            end++;
+        }
+        keys[at] = key;
+        values[at] = value;
+        size++;
+        modCount++;
+
+        if (size > slots.length * 3 / 4) {
+            slots = new int[slots.length * 2];
+            mask = slots.length - 1;
+            reindex();
+        } else {
+            index(at);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping for a key.
+     *
+     * @param key the key
+     * @return the removed value, or null if the key was not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        int at = slots[slot] - 1;
+        V previous = (V) values[at];
+        deleteSlot(slot);
+
+        values[at] = null;
+        size--;
+        modCount++;
+        if (at == end - 1) {
+            while (end > 0 && values[end - 1] == null) {
+                end--;
+            }
+        } else if (end - size > end / 2) {
+            compact(keys.length);
+        }
+        return previous;
+    }
+
+    public void clear() {
+        Arrays.fill(values, 0, end, null);
+        Arrays.fill(slots, 0);
+        end = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns a read-only view of the values, in ascending key order.
+     *
+     * @return the values
+     */
+    public Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new Values();
+        }
+        return valuesView;
+    }
+
+    private int find(int key) {
+        int slot = IntObjectMap.hash(key, mask);
+        while (slots[slot] != 0) {
+            if (keys[slots[slot] - 1] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the remaining entries to the front of new arrays of the given
+     * capacity and rebuilds the index.
+     */
+    private void compact(int capacity) {
+        int[] newKeys = new int[capacity];
+        Object[] newValues = new Object[capacity];
+        int to = 0;
+        for (int i = 0; i < end; i++) {
+            if (values[i] != null) {
+                newKeys[to] = keys[i];
+                newValues[to++] = values[i];
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+        end = to;
+        Arrays.fill(slots, 0);
+        reindex();
+    }
+
+    private void reindex() {
+        for (int i = 0; i < end; i++) {
+            if (values[i] != null) {
+                index(i);
+            }
+        }
+    }
+
+    private int skipRemoved(int from) {
+        while (from < end && values[from] == null) {
+            from++;
+        }
+        return from;
+    }
+
+    private void index(int at) {
+        int slot = IntObjectMap.hash(keys[at], mask);
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = at + 1;
+    }
+
+    /**
+     * Adjusts the index after the entries from position {@code from} on
+     * moved by {@code delta}.
+     */
+    private void shiftPositions(int from, int delta) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] > from) {
+                slots[i] += delta;
+            }
+        }
+    }
+
+    /**
+     * Empties an index slot using backward-shift deletion; see
+     * {@link IntObjectMap}. Must run before the arrays are shifted.
+     */
+    private void deleteSlot(int slot) {
+        int gap = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (slots[next] == 0) {
+                break;
+            }
+            int home = IntObjectMap.hash(keys[slots[next] - 1], mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                slots[gap] = slots[next];
+                gap = next;
+            }
+        }
+        slots[gap] = 0;
+    }
+
+    private final class Values extends AbstractCollection<V> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<V>() {
+                private final int expectedModCount = modCount;
+                private int next = skipRemoved(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next < end;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public V next() {
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (next >= end) {
+                        throw new NoSuchElementException();
+                    }
+                    V value = (V) values[next];
+                    next = skipRemoved(next + 1);
+                    return value;
+                }
+            };
+        }
+    }
+}
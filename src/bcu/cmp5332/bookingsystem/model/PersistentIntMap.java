@@ -0,0 +1,318 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable map from non-negative int keys to objects, iterating in
+ * ascending key order. Changes return a new map and leave the old one as it
+ * was, so a map can be handed to other threads and read without locking.
+ *
+ * <p>The map is a trie on the bits of the key, five bits per level, with
+ * each node holding a bitmap of its occupied children and an array of just
+ * those children. A change copies the nodes on the path to its key (at most
+ * seven, four for keys below a million) and shares every other node with
+ * the map it was made from, so it costs a few small array copies whatever
+ * the size of the map. The trie is only as deep as the largest key needs,
+ * and children are stored in bit order, so iteration is in key order.</p>
+ *
+ * <p>For runs of changes whose intermediate maps nobody reads, such as
+ * loading, the package-private methods take an edit token: nodes created
+ * under a token are changed in place by later changes under the same
+ * token instead of being copied again. The caller must stop using a token
+ * before any map made with it is read by another thread, and must not
+ * change maps under one token from two threads at once.</p>
+ *
+ * <p>Null values are not allowed.</p>
+ *
+ * @param <V> the value type
+ */
+public final class PersistentIntMap<V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final Node EMPTY_NODE = new Node(0, new Object[0], null);
+    private static final PersistentIntMap<Object> EMPTY = new PersistentIntMap<>(EMPTY_NODE, 0, 0);
+
+    /**
+     * A trie node. Below the leaf level the children are nodes, at the leaf
+     * level ({@code shift == 0}) they are the values. Only nodes owned by an
+     * edit token change after creation; their array may have spare room at
+     * the end.
+     */
+    private static final class Node {
+        int bitmap;
+        Object[] children;
+        final Object edit;
+
+        Node(int bitmap, Object[] children, Object edit) {
+            this.bitmap = bitmap;
+            this.children = children;
+            this.edit = edit;
+        }
+
+        int count() {
+            return Integer.bitCount(bitmap);
+        }
+
+        /**
+         * Returns this node if the token owns it and it has room for
+         * {@code extra} more children, else an owned copy (or, without a
+         * token, an exact-size copy).
+         */
+        Node editable(Object token, int extra) {
+            int count = count();
+            if (token != null && edit == token && count + extra <= children.length) {
+                return this;
+            }
+            int length = count + extra;
+            if (token != null && extra > 0) {
+                // room to grow without copying again
+                length = Math.min(1 << BITS, Math.max(4, 2 * length));
+            }
+            Object[] copy = new Object[length];
+            System.arraycopy(children, 0, copy, 0, count);
+            return new Node(bitmap, copy, token);
+        }
+    }
+
+    private final Node root;
+    // bit position of the root's digit; the root covers keys below 1 << (shift + BITS)
+    private final int shift;
+    private final int size;
+    private Collection<V> valuesView;
+
+    private PersistentIntMap(Node root, int shift, int size) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    /**
+     * Returns the empty map.
+     *
+     * @param <V> the value type
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> PersistentIntMap<V> empty() {
+        return (PersistentIntMap<V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the value mapped to a key.
+     *
+     * @param key the key
+     * @return the value, or null if the key is not mapped
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key < 0 || (shift + BITS < 32 && key >>> (shift + BITS) != 0)) {
+            return null;
+        }
+        Node node = root;
+        for (int s = shift; ; s -= BITS) {
+            int bit = 1 << ((key >>> s) & MASK);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object child = node.children[Integer.bitCount(node.bitmap & (bit - 1))];
+            if (s == 0) {
+                return (V) child;
+            }
+            node = (Node) child;
+        }
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Returns a map with a key mapped to a value, replacing any previous
+     * value.
+     *
+     * @param key the key, not negative
+     * @param value the value, not null
+     * @return the new map, or this map if the key already maps to the value
+     */
+    public PersistentIntMap<V> put(int key, V value) {
+        return put(key, value, null);
+    }
+
+    /**
+     * Like {@link #put(int, Object)}, changing nodes owned by the edit token
+     * in place.
+     *
+     * @param edit the edit token, or null to copy every changed node
+     */
+    PersistentIntMap<V> put(int key, V value, Object edit) {
+        if (key < 0) {
+            throw new IllegalArgumentException("negative key: " + key);
+        }
+        if (value == null) {
+            throw new NullPointerException("null value");
+        }
+        V previous = get(key);
+        if (previous == value) {
+            return this;
+        }
+
+        Node newRoot = root;
+        int newShift = shift;
+        // grow the trie upwards until the root covers the key
+        while (newShift + BITS < 32 && key >>> (newShift + BITS) != 0) {
+            if (newRoot.bitmap != 0) {
+                newRoot = new Node(1, new Object[] {newRoot}, null);
+            }
+            newShift += BITS;
+        }
+        return new PersistentIntMap<>(put(newRoot, newShift, key, value, edit), newShift,
+                previous == null ? size + 1 : size);
+    }
+
+    private static Node put(Node node, int shift, int key, Object value, Object edit) {
+        int bit = 1 << ((key >>> shift) & MASK);
+        int at = Integer.bitCount(node.bitmap & (bit - 1));
+        boolean present = (node.bitmap & bit) != 0;
+
+        Object child = value;
+        if (shift > 0) {
+            child = put(present ? (Node) node.children[at] : EMPTY_NODE, shift - BITS, key, value, edit);
+        }
+        Node target = node.editable(edit, present ? 0 : 1);
+        if (!present) {
+            System.arraycopy(target.children, at, target.children, at + 1, target.count() - at);
+            target.bitmap |= bit;
+        }
+        target.children[at] = child;
+        return target;
+    }
+
+    /**
+     * Returns a map without the mapping for a key.
+     *
+     * @param key the key
+     * @return the new map, or this map if the key is not mapped
+     */
+    public PersistentIntMap<V> remove(int key) {
+        return remove(key, null);
+    }
+
+    /**
+     * Like {@link #remove(int)}, changing nodes owned by the edit token in
+     * place.
+     *
+     * @param edit the edit token, or null to copy every changed node
+     */
+    PersistentIntMap<V> remove(int key, Object edit) {
+        if (get(key) == null) {
+            return this;
+        }
+        Node newRoot = remove(root, shift, key, edit);
+        return new PersistentIntMap<>(newRoot == null ? EMPTY_NODE : newRoot, shift, size - 1);
+    }
+
+    /**
+     * Removes a key known to be present; returns null when the node empties.
+     */
+    private static Node remove(Node node, int shift, int key, Object edit) {
+        int bit = 1 << ((key >>> shift) & MASK);
+        int at = Integer.bitCount(node.bitmap & (bit - 1));
+        if (shift > 0) {
+            Node child = remove((Node) node.children[at], shift - BITS, key, edit);
+            if (child != null) {
+                Node target = node.editable(edit, 0);
+                target.children[at] = child;
+                return target;
+            }
+        }
+        if (node.bitmap == bit) {
+            return null;
+        }
+        Node target = node.editable(edit, 0);
+        int count = target.count();
+        System.arraycopy(target.children, at + 1, target.children, at, count - at - 1);
+        target.children[count - 1] = null;
+        target.bitmap &= ~bit;
+        return target;
+    }
+
+    /**
+     * Returns a read-only view of the values, in ascending key order.
+     *
+     * @return the values
+     */
+    public Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new Values();
+        }
+        return valuesView;
+    }
+
+    private final class Values extends AbstractCollection<V> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new Iterator<V>() {
+                // the path to the next value: a node and a child index per level
+                private final Node[] nodes = new Node[shift / BITS + 1];
+                private final int[] positions = new int[nodes.length];
+                private int depth = 0;
+                private int remaining = size;
+
+                {
+                    nodes[0] = root;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public V next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    while (true) {
+                        Node node = nodes[depth];
+                        if (positions[depth] == node.count()) {
+                            depth--;
+                            continue;
+                        }
+                        Object child = node.children[positions[depth]++];
+                        if (depth == nodes.length - 1) {
+                            remaining--;
+                            return (V) child;
+                        }
+                        nodes[++depth] = (Node) child;
+                        positions[depth] = 0;
+                    }
+                }
+            };
+        }
+    }
+}
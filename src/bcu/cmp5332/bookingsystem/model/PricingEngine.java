@@ -0,0 +1,185 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Works out the current fare of a flight from its base price
+ * ({@link Flight#getPrice()}) and three multipliers:
+ * <ul>
+ *   <li>load factor, seats taken over capacity: from 0.8 on an empty flight
+ *       rising quadratically to 2.0 on a full one;</li>
+ *   <li>days to departure, counted from the system date: 0.9 at
+ *       {@value #EARLY_DAYS} days or more, 1.0 from {@value #STANDARD_DAYS},
+ *       1.15 from {@value #LATE_DAYS}, and 1.35 in the last week;</li>
+ *   <li>route demand, the load factor of all active flights between the
+ *       same two airports: 0.85 for an empty route to 1.15 for a full one.</li>
+ * </ul>
+ * Fares are rounded to the cent.
+ *
+ * <p>Quoting is a few reads and multiplications, with nothing to compute
+ * per booking. The load multipliers for every possible number of seats
+ * taken are precomputed once per capacity and shared by all flights of
+ * that capacity, and each flight caches its base price times its date
+ * multiplier until its price, capacity or date changes. Route demand is
+ * kept as running totals that the flights update as seats are taken and
+ * freed.</p>
+ *
+ * <p>Thread safe.</p>
+ */
+public final class PricingEngine {
+
+    public static final int EARLY_DAYS = 60;
+    public static final int STANDARD_DAYS = 21;
+    public static final int LATE_DAYS = 7;
+
+    /**
+     * Seats taken and offered on the active flights of one route.
+     */
+    static final class RouteDemand {
+        final AtomicInteger taken = new AtomicInteger();
+        final AtomicInteger offered = new AtomicInteger();
+    }
+
+    /**
+     * What a flight's quotes are computed from, cached on the flight.
+     */
+    static final class FareCurve {
+        final LocalDate asOf;
+        // load multiplier by seats taken, shared by flights of the same capacity
+        final double[] load;
+        // base price times the date multiplier
+        final double scale;
+
+        FareCurve(LocalDate asOf, double[] load, double scale) {
+            this.asOf = asOf;
+            this.load = load;
+            this.scale = scale;
+        }
+    }
+
+    private final LocalDate today;
+    private final ConcurrentHashMap<Integer, double[]> loadCurves = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, RouteDemand> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an engine pricing as of a date.
+     *
+     * @param today the date days to departure are counted from
+     */
+    public PricingEngine(LocalDate today) {
+        this.today = today;
+    }
+
+    /**
+     * Gets the fare of the next seat sold on a flight.
+     *
+     * @param flight the flight
+     * @return the fare in currency units
+     */
+    public double quote(Flight flight) {
+        return quote(flight, flight.getSeatsTaken());
+    }
+
+    /**
+     * Gets the fare a flight's next seat would have with a given number of
+     * seats taken.
+     *
+     * @param flight the flight
+     * @param seatsTaken the number of seats taken, booked or held
+     * @return the fare in currency units
+     */
+    public double quote(Flight flight, int seatsTaken) {
+        FareCurve curve = flight.getFareCurve();
+        if (curve == null || curve.asOf != today) {
+            curve = buildCurve(flight);
+            flight.setFareCurve(curve);
+        }
+        double[] load = curve.load;
+        double fare = curve.scale * load[Math.max(0, Math.min(seatsTaken, load.length - 1))]
+                * demandMultiplier(flight.getRouteDemand());
+        return Math.round(fare * 100) / 100.0;
+    }
+
+    /**
+     * Gets the load factor multiplier.
+     *
+     * @param loadFactor seats taken over capacity, 0 to 1
+     * @return the multiplier
+     */
+    public static double loadMultiplier(double loadFactor) {
+        return 0.8 + 1.2 * loadFactor * loadFactor;
+    }
+
+    /**
+     * Gets the multiplier for buying a number of days before departure.
+     *
+     * @param days days to departure; negative once departed
+     * @return the multiplier
+     */
+    public static double dateMultiplier(long days) {
+        if (days >= EARLY_DAYS) {
+            return 0.9;
+        }
+        if (days >= STANDARD_DAYS || days < 0) {
+            return 1.0;
+        }
+        return days >= LATE_DAYS ? 1.15 : 1.35;
+    }
+
+    /**
+     * Gets the route demand multiplier.
+     *
+     * @param loadFactor the route's seats taken over seats offered, 0 to 1
+     * @return the multiplier
+     */
+    public static double demandMultiplier(double loadFactor) {
+        return 1 + 0.3 * (loadFactor - 0.5);
+    }
+
+    private static double demandMultiplier(RouteDemand demand) {
+        if (demand == null) {
+            return 1.0;
+        }
+        int offered = demand.offered.get();
+        if (offered <= 0) {
+            return 1.0;
+        }
+        return demandMultiplier(Math.min(1.0, Math.max(0.0, (double) demand.taken.get() / offered)));
+    }
+
+    private FareCurve buildCurve(Flight flight) {
+        int capacity = Math.max(flight.getCapacity(), 0);
+        double[] load = loadCurves.computeIfAbsent(capacity, PricingEngine::loadCurve);
+        long days = ChronoUnit.DAYS.between(today, flight.getDepartureDate());
+        return new FareCurve(today, load, flight.getPrice() * dateMultiplier(days));
+    }
+
+    private static double[] loadCurve(int capacity) {
+        if (capacity == 0) {
+            return new double[] {loadMultiplier(1.0)};
+        }
+        double[] load = new double[capacity + 1];
+        for (int taken = 0; taken <= capacity; taken++) {
+            load[taken] = loadMultiplier((double) taken / capacity);
+        }
+        return load;
+    }
+
+    /**
+     * Counts an active flight in the demand of its route.
+     */
+    void attach(Flight flight, long routeKey) {
+        RouteDemand demand = routes.computeIfAbsent(routeKey, k -> new RouteDemand());
+        flight.setRouteDemand(demand);
+    }
+
+    /**
+     * Stops counting a flight in the demand of its route.
+     */
+    void detach(Flight flight) {
+        flight.setRouteDemand(null);
+    }
+}
@@ -0,0 +1,136 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The active flights between two airports on one day, and a summary of
+ * them for a fare calendar: the cheapest flight with a free seat and the
+ * number of free seats.
+ *
+ * <p>{@link FlightBookingSystem} keeps one per route and day in its route
+ * index, so a calendar is a range of these rather than a scan of flights.
+ * The summary is kept as a cache: when one of the flights is booked,
+ * released, held, repriced or resized, or a flight joins or leaves the
+ * day, the flight marks the day stale, and the next read works the
+ * summary out again from that day's flights only.</p>
+ *
+ * <p>Route demand scales the fares of all flights on a route alike, so it
+ * never changes which flight is cheapest; the fare is quoted when read and
+ * is always current.</p>
+ */
+public final class RouteDay {
+
+    private final LocalDate date;
+    private final PricingEngine pricing;
+    // ID order; changed by FlightBookingSystem with its other indexes
+    private final List<Flight> flights = new ArrayList<>(1);
+    private final List<Flight> flightsView = Collections.unmodifiableList(flights);
+
+    private volatile boolean stale = true;
+    private Flight cheapest;
+    private int availableSeats;
+
+    RouteDay(LocalDate date, PricingEngine pricing) {
+        this.date = date;
+        this.pricing = pricing;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Gets the active flights of the day.
+     *
+     * @return read-only list of flights, in ID order
+     */
+    public List<Flight> getFlights() {
+        return flightsView;
+    }
+
+    /**
+     * Gets the flight with the lowest current fare among those with a free
+     * seat, the lowest ID first on a tie.
+     *
+     * @return the flight, or null if the day is sold out
+     */
+    public synchronized Flight getCheapestFlight() {
+        summarize();
+        return cheapest;
+    }
+
+    /**
+     * Gets the lowest current fare of the day.
+     *
+     * @return the fare, or -1 if the day is sold out
+     */
+    public double getMinFare() {
+        Flight flight = getCheapestFlight();
+        return flight == null ? -1 : pricing.quote(flight);
+    }
+
+    /**
+     * Gets the number of free seats on all flights of the day.
+     *
+     * @return the number of seats neither booked nor held
+     */
+    public synchronized int getAvailableSeats() {
+        summarize();
+        return availableSeats;
+    }
+
+    boolean isEmpty() {
+        return flights.isEmpty();
+    }
+
+    void add(Flight flight) {
+        int at = flights.size();
+        while (at > 0 && flights.get(at - 1).getId() > flight.getId()) {
+            at--;
+        }
+        flights.add(at, flight);
+        flight.setRouteDay(this);
+        stale = true;
+    }
+
+    boolean remove(Flight flight) {
+        if (!flights.remove(flight)) {
+            return false;
+        }
+        flight.setRouteDay(null);
+        stale = true;
+        return true;
+    }
+
+    void markStale() {
+        stale = true;
+    }
+
+    private void summarize() {
+        if (!stale) {
+            return;
+        }
+        // cleared first, so a change made while summing marks it again
+        stale = false;
+        Flight best = null;
+        double bestFare = 0;
+        int seats = 0;
+        for (Flight flight : flights) {
+            int available = flight.getAvailableSeats();
+            if (available <= 0) {
+                continue;
+            }
+            seats += available;
+            double fare = pricing.quote(flight);
+            if (best == null || fare < bestFare) {
+                best = flight;
+                bestFare = fare;
+            }
+        }
+        cheapest = best;
+        availableSeats = seats;
+    }
+}
@@ -0,0 +1,289 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * The active flights as a graph of airports, expanded in time by departure
+ * date, for finding itineraries of one or more connecting flights.
+ *
+ * <p>A node is an airport on a date and an edge a flight leaving it. The
+ * graph is stored as the departures of each airport by date, in ID order
+ * within a date, and changes by one entry as a flight is added or
+ * removed. Flights carry a date but no time, so a flight arrives on the
+ * day it departs and a connection is a number of days, 0 for the same
+ * day.</p>
+ *
+ * <p>{@link #search} finds the itineraries arriving earliest, fewest legs
+ * first among those arriving the same day. It grows partial itineraries
+ * best first from a priority queue, taking first legs from the origin a
+ * day at a time as the search reaches that day, and, as in the usual
+ * k-shortest-paths search, expands each node at most as many times as
+ * itineraries are wanted. Only the departures within the connection
+ * window of each node are looked at, so a query touches a small part of
+ * a large schedule.</p>
+ *
+ * <p>Not thread safe; {@link FlightBookingSystem} keeps it with its other
+ * indexes.</p>
+ */
+public final class RouteGraph {
+
+    public static final int DEFAULT_MAX_LEGS = 3;
+    public static final int DEFAULT_MIN_CONNECTION_DAYS = 0;
+    public static final int DEFAULT_MAX_CONNECTION_DAYS = 2;
+    public static final int DEFAULT_LIMIT = 5;
+
+    /**
+     * A sequence of connecting flights.
+     */
+    public static final class Itinerary {
+        private final List<Flight> legs;
+
+        private Itinerary(List<Flight> legs) {
+            this.legs = Collections.unmodifiableList(legs);
+        }
+
+        /**
+         * Gets the flights in the order they are taken.
+         *
+         * @return read-only list of flights
+         */
+        public List<Flight> getLegs() {
+            return legs;
+        }
+
+        public Flight getFirstLeg() {
+            return legs.get(0);
+        }
+
+        public Flight getLastLeg() {
+            return legs.get(legs.size() - 1);
+        }
+
+        public LocalDate getDepartureDate() {
+            return getFirstLeg().getDepartureDate();
+        }
+
+        public LocalDate getArrivalDate() {
+            return getLastLeg().getDepartureDate();
+        }
+    }
+
+    /**
+     * A partial itinerary, linked back to its first leg.
+     */
+    private static final class Path {
+        final Flight flight;
+        final Path previous;
+        final int legs;
+        final long sequence;
+
+        Path(Flight flight, Path previous, long sequence) {
+            this.flight = flight;
+            this.previous = previous;
+            this.legs = previous == null ? 1 : previous.legs + 1;
+            this.sequence = sequence;
+        }
+
+        boolean visits(int airport) {
+            for (Path p = this; p != null; p = p.previous) {
+                if (p.flight.getDestinationCode() == airport || p.flight.getOriginCode() == airport) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Itinerary toItinerary() {
+            Flight[] flights = new Flight[legs];
+            for (Path p = this; p != null; p = p.previous) {
+                flights[p.legs - 1] = p.flight;
+            }
+            List<Flight> list = new ArrayList<>(legs);
+            Collections.addAll(list, flights);
+            return new Itinerary(list);
+        }
+    }
+
+    private static final Comparator<Path> ORDER = Comparator
+            .comparing((Path p) -> p.flight.getDepartureDate())
+            .thenComparingInt(p -> p.legs)
+            .thenComparingLong(p -> p.sequence);
+
+    // departures by origin airport code, then date; ID order within a date
+    private final IntObjectMap<TreeMap<LocalDate, List<Flight>>> departures = new IntObjectMap<>();
+    private int size;
+
+    /**
+     * Gets the number of flights in the graph.
+     *
+     * @return the number of flights
+     */
+    public int size() {
+        return size;
+    }
+
+    void add(Flight flight) {
+        TreeMap<LocalDate, List<Flight>> byDate = departures.get(flight.getOriginCode());
+        if (byDate == null) {
+            byDate = new TreeMap<>();
+            departures.put(flight.getOriginCode(), byDate);
+        }
+        List<Flight> sameDay = byDate.computeIfAbsent(flight.getDepartureDate(), d -> new ArrayList<>(1));
+        int at = sameDay.size();
+        while (at > 0 && sameDay.get(at - 1).getId() > flight.getId()) {
+            at--;
+        }
+        sameDay.add(at, flight);
+        size++;
+    }
+
+    void remove(Flight flight) {
+        TreeMap<LocalDate, List<Flight>> byDate = departures.get(flight.getOriginCode());
+        if (byDate == null) {
+            return;
+        }
+        List<Flight> sameDay = byDate.get(flight.getDepartureDate());
+        if (sameDay == null || !sameDay.remove(flight)) {
+            return;
+        }
+        size--;
+        if (sameDay.isEmpty()) {
+            byDate.remove(flight.getDepartureDate());
+            if (byDate.isEmpty()) {
+                departures.remove(flight.getOriginCode());
+            }
+        }
+    }
+
+    /**
+     * Finds itineraries with the default limits: up to
+     * {@value #DEFAULT_LIMIT} of them, of up to {@value #DEFAULT_MAX_LEGS}
+     * flights, connecting after {@value #DEFAULT_MIN_CONNECTION_DAYS} to
+     * {@value #DEFAULT_MAX_CONNECTION_DAYS} days.
+     *
+     * @param originCode the AirportDictionary code to leave from
+     * @param destinationCode the AirportDictionary code to arrive at
+     * @param from earliest departure date (inclusive)
+     * @param to latest departure date of the first flight (inclusive), or
+     *           null for no limit
+     * @return the itineraries, earliest arrival first
+     * @see #search(int, int, LocalDate, LocalDate, int, int, int, int)
+     */
+    public List<Itinerary> search(int originCode, int destinationCode, LocalDate from, LocalDate to) {
+        return search(originCode, destinationCode, from, to, DEFAULT_MAX_LEGS,
+                DEFAULT_MIN_CONNECTION_DAYS, DEFAULT_MAX_CONNECTION_DAYS, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Finds the itineraries between two airports that arrive earliest,
+     * fewest legs first among those arriving on the same day. Flights
+     * without a free seat are left out, and no itinerary passes through an
+     * airport twice.
+     *
+     * @param originCode the AirportDictionary code to leave from
+     * @param destinationCode the AirportDictionary code to arrive at
+     * @param from earliest departure date (inclusive)
+     * @param to latest departure date of the first flight (inclusive), or
+     *           null for no limit
+     * @param maxLegs the most flights in an itinerary
+     * @param minConnectionDays the fewest days between arriving and taking
+     *                          the next flight
+     * @param maxConnectionDays the most days between arriving and taking
+     *                          the next flight
+     * @param limit the most itineraries to return
+     * @return the itineraries, earliest arrival first
+     */
+    public List<Itinerary> search(int originCode, int destinationCode, LocalDate from, LocalDate to,
+                                  int maxLegs, int minConnectionDays, int maxConnectionDays, int limit) {
+        if (maxLegs < 1 || limit < 1 || minConnectionDays < 0 || maxConnectionDays < minConnectionDays) {
+            throw new IllegalArgumentException("Invalid itinerary search limits");
+        }
+        List<Itinerary> result = new ArrayList<>();
+        TreeMap<LocalDate, List<Flight>> firstDepartures = departures.get(originCode);
+        if (originCode == destinationCode || firstDepartures == null || (to != null && from.isAfter(to))) {
+            return result;
+        }
+
+        PriorityQueue<Path> queue = new PriorityQueue<>(ORDER);
+        // times each airport-and-date node has been expanded
+        Map<Long, int[]> expanded = new HashMap<>();
+        long sequence = 0;
+
+        NavigableMap<LocalDate, List<Flight>> range = to == null
+                ? firstDepartures.tailMap(from, true)
+                : firstDepartures.subMap(from, true, to, true);
+        Iterator<Map.Entry<LocalDate, List<Flight>>> firstDays = range.entrySet().iterator();
+        Map.Entry<LocalDate, List<Flight>> firstDay = firstDays.hasNext() ? firstDays.next() : null;
+
+        while (true) {
+            // nothing queued can arrive before the day it leaves, so first
+            // legs are only needed once the search reaches their day
+            while (firstDay != null && (queue.isEmpty()
+                    || !firstDay.getKey().isAfter(queue.peek().flight.getDepartureDate()))) {
+                for (Flight flight : firstDay.getValue()) {
+                    if (flight.getAvailableSeats() > 0) {
+                        queue.add(new Path(flight, null, sequence++));
+                    }
+                }
+                firstDay = firstDays.hasNext() ? firstDays.next() : null;
+            }
+            if (queue.isEmpty()) {
+                break;
+            }
+
+            Path path = queue.poll();
+            Flight flight = path.flight;
+            int airport = flight.getDestinationCode();
+            if (airport == destinationCode) {
+                result.add(path.toItinerary());
+                if (result.size() == limit) {
+                    break;
+                }
+                continue;
+            }
+            if (path.legs == maxLegs) {
+                continue;
+            }
+            int[] times = expanded.computeIfAbsent(nodeKey(airport, flight.getDepartureDate()), k -> new int[1]);
+            if (++times[0] > limit) {
+                continue;
+            }
+
+            TreeMap<LocalDate, List<Flight>> byDate = departures.get(airport);
+            if (byDate == null) {
+                continue;
+            }
+            LocalDate arrival = flight.getDepartureDate();
+            for (List<Flight> sameDay : byDate.subMap(arrival.plusDays(minConnectionDays), true,
+                    arrival.plusDays(maxConnectionDays), true).values()) {
+                for (Flight next : sameDay) {
+                    int nextAirport = next.getDestinationCode();
+                    if (next.getAvailableSeats() <= 0 || path.visits(nextAirport)) {
+                        continue;
+                    }
+                    int[] nextTimes = expanded.get(nodeKey(nextAirport, next.getDepartureDate()));
+                    if (nextAirport != destinationCode && nextTimes != null && nextTimes[0] >= limit) {
+                        // the node is used up: whatever arrives there now is too late
+                        continue;
+                    }
+                    queue.add(new Path(next, path, sequence++));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long nodeKey(int airport, LocalDate date) {
+        return ((long) airport << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,280 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Seats held for customers for a limited time, e.g. while they pay
+ * elsewhere. A hold takes a seat on the flight at once; it is then either
+ * confirmed, after which the caller books the seat, or released, by the
+ * customer or by expiring.
+ *
+ * <p>Expiry is driven by one {@link TimerWheel} for all holds rather than
+ * a scheduled task per hold: taking or ending a hold is O(1), and the
+ * background thread started by {@link #start} only visits the wheel
+ * buckets of the ticks that passed, so even hundreds of thousands of open
+ * holds cost one small node each.</p>
+ *
+ * <p>Holds live in memory only. After a restart nothing is held and the
+ * seats are free again.</p>
+ *
+ * <p>Thread safe.</p>
+ */
+public final class SeatHolds {
+
+    public static final long DEFAULT_HOLD_MILLIS = 10 * 60 * 1000;
+    public static final long DEFAULT_TICK_MILLIS = 100;
+    public static final int DEFAULT_WHEEL_SIZE = 1024;
+
+    /**
+     * A seat held for a customer.
+     */
+    public static final class Hold {
+        private final int id;
+        private final Customer customer;
+        private final Flight flight;
+        private final int seat;
+        private final long expiresAt;
+        private TimerWheel.Timeout<Hold> timeout;
+
+        private Hold(int id, Customer customer, Flight flight, int seat, long expiresAt) {
+            this.id = id;
+            this.customer = customer;
+            this.flight = flight;
+            this.seat = seat;
+            this.expiresAt = expiresAt;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+
+        public Flight getFlight() {
+            return flight;
+        }
+
+        /**
+         * Gets the held seat number.
+         *
+         * @return the seat, or {@link SeatMap#NO_SEAT} if none could be
+         *         assigned
+         */
+        public int getSeat() {
+            return seat;
+        }
+
+        public String getSeatLabel() {
+            return seat == SeatMap.NO_SEAT ? null : flight.getSeatMap().label(seat);
+        }
+
+        /**
+         * Gets when the hold expires.
+         *
+         * @return the expiry time in epoch milliseconds
+         */
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+
+    private final long holdMillis;
+    private final TimerWheel<Hold> wheel;
+    private final IntObjectMap<Hold> holds = new IntObjectMap<>();
+    private int nextId = 1;
+
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Creates holds lasting {@link #DEFAULT_HOLD_MILLIS}.
+     */
+    public SeatHolds() {
+        this(DEFAULT_HOLD_MILLIS, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE, System.currentTimeMillis());
+    }
+
+    /**
+     * Creates holds with a given lifetime and expiry precision.
+     *
+     * @param holdMillis how long a hold lasts
+     * @param tickMillis the expiry precision
+     * @param wheelSize the number of timer wheel buckets, a power of two
+     * @param startMillis the current time
+     */
+    public SeatHolds(long holdMillis, long tickMillis, int wheelSize, long startMillis) {
+        if (holdMillis <= 0) {
+            throw new IllegalArgumentException("Hold time must be positive");
+        }
+        this.holdMillis = holdMillis;
+        this.wheel = new TimerWheel<>(tickMillis, wheelSize, startMillis);
+    }
+
+    public long getHoldMillis() {
+        return holdMillis;
+    }
+
+    /**
+     * Gets the number of open holds.
+     *
+     * @return the number of holds neither confirmed, released nor expired
+     */
+    public synchronized int size() {
+        return holds.size();
+    }
+
+    /**
+     * Gets an open hold.
+     *
+     * @param holdId the hold ID
+     * @return the hold, or null if there is no open hold with that ID
+     */
+    public synchronized Hold get(int holdId) {
+        return holds.get(holdId);
+    }
+
+    /**
+     * Holds a seat on a flight for a customer.
+     *
+     * @param customer the customer
+     * @param flight the flight
+     * @param seat the seat wanted, or {@link SeatMap#NO_SEAT} for the first
+     *             free one
+     * @param nowMillis the current time
+     * @return the hold, or null if the flight is full or deleted
+     * @throws FlightBookingSystemException if the seat wanted is taken
+     */
+    public Hold hold(Customer customer, Flight flight, int seat, long nowMillis)
+            throws FlightBookingSystemException {
+        if (!flight.tryHoldSeat()) {
+            return null;
+        }
+        SeatMap seats = flight.getSeatMap();
+        int heldSeat;
+        if (seat == SeatMap.NO_SEAT) {
+            // NO_SEAT only if seats were lost to a capacity cut
+            heldSeat = seats.assignAdjacent(1);
+        } else if (seats.assign(seat)) {
+            heldSeat = seat;
+        } else {
+            flight.releaseHeldSeat();
+            throw new FlightBookingSystemException("Seat " + seats.label(seat) + " is already taken.");
+        }
+
+        synchronized (this) {
+            Hold hold = new Hold(nextId++, customer, flight, heldSeat, nowMillis + holdMillis);
+            hold.timeout = wheel.schedule(hold, hold.expiresAt);
+            holds.put(hold.id, hold);
+            return hold;
+        }
+    }
+
+    /**
+     * Ends a hold by making its customer a passenger of the flight. The
+     * seat stays assigned; the caller creates the booking for it.
+     *
+     * @param holdId the hold ID
+     * @return the confirmed hold
+     * @throws FlightBookingSystemException if there is no open hold with
+     *         that ID, or the customer is already on the flight, in which
+     *         case the hold is released
+     */
+    public Hold confirm(int holdId) throws FlightBookingSystemException {
+        Hold hold = take(holdId);
+        if (!hold.flight.confirmHeldSeat(hold.customer)) {
+            giveBack(hold);
+            throw new FlightBookingSystemException("Customer already has a booking on this flight.");
+        }
+        return hold;
+    }
+
+    /**
+     * Ends a hold and frees its seat.
+     *
+     * @param holdId the hold ID
+     * @return the released hold
+     * @throws FlightBookingSystemException if there is no open hold with
+     *         that ID
+     */
+    public Hold release(int holdId) throws FlightBookingSystemException {
+        Hold hold = take(holdId);
+        giveBack(hold);
+        return hold;
+    }
+
+    /**
+     * Ends the holds that have expired by a time and frees their seats.
+     *
+     * @param nowMillis the current time
+     * @return the expired holds
+     */
+    public List<Hold> expire(long nowMillis) {
+        List<Hold> expired;
+        synchronized (this) {
+            expired = wheel.advance(nowMillis);
+            for (Hold hold : expired) {
+                holds.remove(hold.id);
+            }
+        }
+        for (Hold hold : expired) {
+            giveBack(hold);
+        }
+        return expired;
+    }
+
+    /**
+     * Starts a background thread expiring holds once a tick. Calling this
+     * more than once has no effect.
+     *
+     * @param onExpired called on that thread with each expired hold, after
+     *                  its seat is freed
+     */
+    public synchronized void start(Consumer<Hold> onExpired) {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "seat-hold-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        long tick = wheel.getTickMillis();
+        ticker.scheduleWithFixedDelay(() -> {
+            for (Hold hold : expire(System.currentTimeMillis())) {
+                onExpired.accept(hold);
+            }
+        }, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background thread.
+     */
+    public synchronized void stop() {
+        if (ticker == null) {
+            return;
+        }
+        ticker.shutdownNow();
+        ticker = null;
+    }
+
+    private synchronized Hold take(int holdId) throws FlightBookingSystemException {
+        Hold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new FlightBookingSystemException("There is no open hold with that ID.");
+        }
+        wheel.cancel(hold.timeout);
+        return hold;
+    }
+
+    private static void giveBack(Hold hold) {
+        hold.flight.getSeatMap().release(hold.seat);
+        hold.flight.releaseHeldSeat();
+    }
+}
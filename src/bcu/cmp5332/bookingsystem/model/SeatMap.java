@@ -0,0 +1,211 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import java.util.BitSet;
+
+/**
+ * The seats of a flight and which of them are assigned.
+ *
+ * <p>Seats are numbered from 0 row by row, and labelled by row number and
+ * column letter ("1A", "1B", ... "2A"). The last row may be short when the
+ * capacity is not a multiple of the row width. Occupied seats are bits in a
+ * {@link BitSet}, one bit per seat and no object per seat: a 180-seat
+ * flight needs three longs.</p>
+ *
+ * <p>Adjacent seats are seats next to each other in the same row. The
+ * search for them walks the bitmap a run of free seats at a time with
+ * {@link BitSet#nextClearBit} and {@link BitSet#nextSetBit}, so it skips
+ * whole words of taken seats at once.</p>
+ *
+ * <p>Thread safe.</p>
+ */
+public final class SeatMap {
+
+    public static final int DEFAULT_SEATS_PER_ROW = 6;
+
+    /**
+     * Seat number of a booking without an assigned seat.
+     */
+    public static final int NO_SEAT = -1;
+
+    private final int seatsPerRow;
+    private int seatCount;
+    private final BitSet occupied;
+
+    /**
+     * Creates a seat map with the default row width.
+     *
+     * @param seatCount the number of seats
+     */
+    public SeatMap(int seatCount) {
+        this(seatCount, DEFAULT_SEATS_PER_ROW);
+    }
+
+    /**
+     * Creates a seat map with no seats assigned.
+     *
+     * @param seatCount the number of seats
+     * @param seatsPerRow the number of seats in a full row, 1 to 26
+     */
+    public SeatMap(int seatCount, int seatsPerRow) {
+        if (seatsPerRow < 1 || seatsPerRow > 26) {
+            throw new IllegalArgumentException("Seats per row must be between 1 and 26");
+        }
+        this.seatsPerRow = seatsPerRow;
+        this.seatCount = Math.max(seatCount, 0);
+        this.occupied = new BitSet(this.seatCount);
+    }
+
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public synchronized int getSeatCount() {
+        return seatCount;
+    }
+
+    public synchronized int getRowCount() {
+        return (seatCount + seatsPerRow - 1) / seatsPerRow;
+    }
+
+    /**
+     * Changes the number of seats, e.g. when the flight's capacity changes.
+     * Assigned seats beyond the new count stay assigned until released but
+     * are never handed out again.
+     *
+     * @param seatCount the new number of seats
+     */
+    public synchronized void setSeatCount(int seatCount) {
+        this.seatCount = Math.max(seatCount, 0);
+    }
+
+    /**
+     * Gets the number of assigned seats.
+     *
+     * @return the number of occupied seats
+     */
+    public synchronized int getOccupiedCount() {
+        return occupied.cardinality();
+    }
+
+    /**
+     * Checks whether a seat exists and is not assigned.
+     *
+     * @param seat the seat number
+     * @return true if the seat is free
+     */
+    public synchronized boolean isFree(int seat) {
+        return seat >= 0 && seat < seatCount && !occupied.get(seat);
+    }
+
+    /**
+     * Assigns a specific seat.
+     *
+     * @param seat the seat number
+     * @return true if the seat was free and is now assigned, false if it
+     *         does not exist or is taken
+     */
+    public synchronized boolean assign(int seat) {
+        if (!isFree(seat)) {
+            return false;
+        }
+        occupied.set(seat);
+        return true;
+    }
+
+    /**
+     * Frees an assigned seat. Does nothing for {@link #NO_SEAT}.
+     *
+     * @param seat the seat number
+     */
+    public synchronized void release(int seat) {
+        if (seat >= 0) {
+            occupied.clear(seat);
+        }
+    }
+
+    /**
+     * Finds the first run of free seats next to each other in one row,
+     * scanning from the front of the aircraft.
+     *
+     * @param count the number of seats wanted
+     * @return the number of the first seat in the run, or {@link #NO_SEAT}
+     *         if no row has that many adjacent free seats
+     */
+    public synchronized int findAdjacent(int count) {
+        if (count < 1 || count > seatsPerRow) {
+            return NO_SEAT;
+        }
+        for (int rowStart = 0; rowStart < seatCount; rowStart += seatsPerRow) {
+            int rowEnd = Math.min(rowStart + seatsPerRow, seatCount);
+            int free = occupied.nextClearBit(rowStart);
+            while (free + count <= rowEnd) {
+                int taken = occupied.nextSetBit(free);
+                int runEnd = taken < 0 || taken > rowEnd ? rowEnd : taken;
+                if (runEnd - free >= count) {
+                    return free;
+                }
+                free = occupied.nextClearBit(runEnd);
+            }
+            if (free >= rowEnd) {
+                // skip the rows that nextClearBit ran past
+                rowStart = free - free % seatsPerRow - seatsPerRow;
+            }
+        }
+        return NO_SEAT;
+    }
+
+    /**
+     * Finds and assigns a run of adjacent free seats in one step.
+     *
+     * @param count the number of seats wanted
+     * @return the number of the first seat assigned, or {@link #NO_SEAT} if
+     *         none were
+     * @see #findAdjacent(int)
+     */
+    public synchronized int assignAdjacent(int count) {
+        int first = findAdjacent(count);
+        if (first != NO_SEAT) {
+            occupied.set(first, first + count);
+        }
+        return first;
+    }
+
+    /**
+     * Gets the label of a seat, such as "12C".
+     *
+     * @param seat the seat number
+     * @return the label
+     */
+    public String label(int seat) {
+        return (seat / seatsPerRow + 1) + String.valueOf((char) ('A' + seat % seatsPerRow));
+    }
+
+    /**
+     * Parses a seat label such as "12C" (case-insensitive).
+     *
+     * @param label the label
+     * @return the seat number
+     * @throws FlightBookingSystemException if the label is malformed or the
+     *         seat does not exist
+     */
+    public int seatOf(String label) throws FlightBookingSystemException {
+        String trimmed = label.trim();
+        int last = trimmed.length() - 1;
+        if (last < 1) {
+            throw new FlightBookingSystemException("Invalid seat: " + label);
+        }
+        int column = Character.toUpperCase(trimmed.charAt(last)) - 'A';
+        int row;
+        try {
+            row = Integer.parseInt(trimmed.substring(0, last)) - 1;
+        } catch (NumberFormatException e) {
+            throw new FlightBookingSystemException("Invalid seat: " + label);
+        }
+        long seat = (long) row * seatsPerRow + column;
+        if (row < 0 || column < 0 || column >= seatsPerRow || seat >= getSeatCount()) {
+            throw new FlightBookingSystemException("There is no seat " + trimmed.toUpperCase() + " on this flight.");
+        }
+        return (int) seat;
+    }
+}
@@ -0,0 +1,128 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.Collection;
+
+/**
+ * An immutable, versioned view of which flights, customers and bookings a
+ * {@link FlightBookingSystem} holds at one moment.
+ *
+ * <p>The system publishes a new snapshot after every change, and readers
+ * such as list commands and GUI tables iterate a snapshot instead of the
+ * live collections. They hold no lock while reading, see no change half
+ * made, and never hold up a writer however long they take. Successive
+ * snapshots share all but a few trie nodes (see {@link PersistentIntMap}),
+ * so publishing one costs a handful of small allocations rather than a
+ * copy. Changes made while no reader has asked for a snapshot, such as a
+ * load, edit the newest nodes in place and cost less still.</p>
+ *
+ * <p>Only the membership is frozen: the entities are the live objects, so
+ * a reader still sees later changes to, say, a flight's passengers or a
+ * booking moved to another flight.</p>
+ */
+public final class SystemSnapshot {
+
+    static final SystemSnapshot EMPTY = new SystemSnapshot(0,
+            PersistentIntMap.empty(), PersistentIntMap.empty(), PersistentIntMap.empty());
+
+    private final long version;
+    private final PersistentIntMap<Flight> flights;
+    private final PersistentIntMap<Customer> customers;
+    private final PersistentIntMap<Booking> bookings;
+
+    private SystemSnapshot(long version, PersistentIntMap<Flight> flights,
+                           PersistentIntMap<Customer> customers, PersistentIntMap<Booking> bookings) {
+        this.version = version;
+        this.flights = flights;
+        this.customers = customers;
+        this.bookings = bookings;
+    }
+
+    /**
+     * Gets the version, which grows by one with every change to the system.
+     * Two snapshots with the same version hold the same entities.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the non-deleted flights, ordered by ID.
+     *
+     * @return read-only collection of active flights
+     */
+    public Collection<Flight> getFlights() {
+        return flights.values();
+    }
+
+    /**
+     * Gets a non-deleted flight by ID.
+     *
+     * @param id the flight ID
+     * @return the flight, or null if there is no active flight with that ID
+     */
+    public Flight getFlight(int id) {
+        return flights.get(id);
+    }
+
+    /**
+     * Gets the non-deleted customers, ordered by ID.
+     *
+     * @return read-only collection of active customers
+     */
+    public Collection<Customer> getCustomers() {
+        return customers.values();
+    }
+
+    /**
+     * Gets a non-deleted customer by ID.
+     *
+     * @param id the customer ID
+     * @return the customer, or null if there is no active customer with that ID
+     */
+    public Customer getCustomer(int id) {
+        return customers.get(id);
+    }
+
+    /**
+     * Gets all bookings, ordered by ID.
+     *
+     * @return read-only collection of bookings
+     */
+    public Collection<Booking> getBookings() {
+        return bookings.values();
+    }
+
+    SystemSnapshot withFlight(Flight flight, Object edit) {
+        return new SystemSnapshot(version + 1, flights.put(flight.getId(), flight, edit), customers, bookings);
+    }
+
+    SystemSnapshot withoutFlight(Flight flight, Object edit) {
+        return new SystemSnapshot(version + 1, without(flights, flight.getId(), flight, edit), customers, bookings);
+    }
+
+    SystemSnapshot withCustomer(Customer customer, Object edit) {
+        return new SystemSnapshot(version + 1, flights, customers.put(customer.getId(), customer, edit), bookings);
+    }
+
+    SystemSnapshot withoutCustomer(Customer customer, Object edit) {
+        return new SystemSnapshot(version + 1, flights, without(customers, customer.getId(), customer, edit), bookings);
+    }
+
+    SystemSnapshot withBooking(Booking booking, Object edit) {
+        return new SystemSnapshot(version + 1, flights, customers, bookings.put(booking.getId(), booking, edit));
+    }
+
+    SystemSnapshot withoutBooking(Booking booking, Object edit) {
+        return new SystemSnapshot(version + 1, flights, customers, without(bookings, booking.getId(), booking, edit));
+    }
+
+    /**
+     * Removes a key only while it still maps to the given entity, so a
+     * replaced entity cannot take its successor out.
+     */
+    private static <V> PersistentIntMap<V> without(PersistentIntMap<V> map, int id, V entity, Object edit) {
+        return map.get(id) == entity ? map.remove(id, edit) : map;
+    }
+}
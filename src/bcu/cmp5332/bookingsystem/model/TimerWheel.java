@@ -0,0 +1,167 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: a fixed ring of buckets, one per tick, each holding
+ * the timeouts due in that tick on some turn of the wheel.
+ *
+ * <p>Scheduling and cancelling link or unlink one node in a bucket, O(1)
+ * however many timeouts are pending, and there is no task or thread per
+ * timeout. {@link #advance(long)} visits only the buckets of the ticks that
+ * passed; timeouts further away than one turn share a bucket with nearer
+ * ones and are skipped until their turn comes. The price is precision:
+ * a timeout fires on the first tick at or after its deadline.</p>
+ *
+ * <p>The wheel does not read the clock; the caller passes the time in, so
+ * it can be driven by a background thread or stepped by a test.</p>
+ *
+ * <p>Thread safe.</p>
+ *
+ * @param <T> the type of item the timeouts carry
+ */
+public final class TimerWheel<T> {
+
+    /**
+     * A scheduled timeout, which can be cancelled until it fires.
+     *
+     * @param <T> the type of item it carries
+     */
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private int bucket = -1;
+
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getItem() {
+            return item;
+        }
+    }
+
+    private final long tickMillis;
+    private final Timeout<T>[] buckets;
+    private final int mask;
+    // the first tick not yet processed
+    private long currentTick;
+    private int size;
+
+    /**
+     * Creates a wheel.
+     *
+     * @param tickMillis the length of a tick, the precision of expiry
+     * @param wheelSize the number of buckets, a power of two
+     * @param startMillis the current time
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Tick must be positive and wheel size a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = (Timeout<T>[]) new Timeout[wheelSize];
+        this.mask = wheelSize - 1;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Gets the number of timeouts waiting to fire.
+     *
+     * @return the number of pending timeouts
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Schedules an item to fire at a deadline. A deadline already passed
+     * fires on the next {@link #advance(long)}.
+     *
+     * @param item the item
+     * @param deadlineMillis the deadline
+     * @return the timeout, for {@link #cancel(Timeout)}
+     */
+    public synchronized Timeout<T> schedule(T item, long deadlineMillis) {
+        long tick = Math.max(-Math.floorDiv(-deadlineMillis, tickMillis), currentTick);
+        Timeout<T> timeout = new Timeout<>(item, tick);
+        int bucket = (int) (tick & mask);
+        timeout.bucket = bucket;
+        timeout.next = buckets[bucket];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        buckets[bucket] = timeout;
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels a timeout so that it never fires.
+     *
+     * @param timeout the timeout
+     * @return true if it was cancelled, false if it had already fired or
+     *         been cancelled
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket < 0) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to a time and removes the timeouts that are
+     * due by then.
+     *
+     * @param nowMillis the current time
+     * @return the items of the timeouts that fired, in no particular order
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        if (nowTick < currentTick) {
+            return expired;
+        }
+        // after a gap longer than a turn, every bucket is visited once
+        long ticks = Math.min(nowTick - currentTick + 1, buckets.length);
+        for (long t = 0; t < ticks; t++) {
+            Timeout<T> timeout = buckets[(int) ((currentTick + t) & mask)];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.deadlineTick <= nowTick) {
+                    unlink(timeout);
+                    expired.add(timeout.item);
+                }
+                timeout = next;
+            }
+        }
+        currentTick = nowTick + 1;
+        return expired;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        size--;
+    }
+}
@@ -0,0 +1,208 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Customers waiting for a seat on a full flight, in the order they will be
+ * offered one: higher {@link CustomerTier} first, then earliest request.
+ *
+ * <p>The queue is a binary heap whose entries remember their position in
+ * it, with an index from customer ID to entry. Joining, promoting the head
+ * and leaving from anywhere in the queue each take O(log n), however
+ * oversubscribed the flight is.</p>
+ *
+ * <p>Thread safe.</p>
+ */
+public final class Waitlist {
+
+    /**
+     * A customer's place on the waitlist.
+     */
+    public static final class Entry {
+        private final Customer customer;
+        private final long requestedAt;
+        private final CustomerTier tier;
+        // breaks ties between requests made in the same millisecond
+        private final long sequence;
+        private int index;
+
+        private Entry(Customer customer, long requestedAt, CustomerTier tier, long sequence) {
+            this.customer = customer;
+            this.requestedAt = requestedAt;
+            this.tier = tier;
+            this.sequence = sequence;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+
+        /**
+         * Gets when the customer asked for a seat.
+         *
+         * @return the request time in epoch milliseconds
+         */
+        public long getRequestedAt() {
+            return requestedAt;
+        }
+
+        /**
+         * Gets the tier the customer had when they joined the waitlist.
+         *
+         * @return the tier
+         */
+        public CustomerTier getTier() {
+            return tier;
+        }
+    }
+
+    /**
+     * Order of service: higher tier, then earlier request.
+     */
+    public static final Comparator<Entry> ORDER = Comparator
+            .comparing(Entry::getTier, Comparator.reverseOrder())
+            .thenComparingLong(Entry::getRequestedAt)
+            .thenComparingLong(e -> e.sequence);
+
+    private Entry[] heap = new Entry[4];
+    private int size;
+    private final IntObjectMap<Entry> byCustomer = new IntObjectMap<>();
+    private long nextSequence;
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    public synchronized boolean contains(int customerId) {
+        return byCustomer.containsKey(customerId);
+    }
+
+    /**
+     * Adds a customer to the waitlist.
+     *
+     * @param customer the customer
+     * @param requestedAt the request time in epoch milliseconds
+     * @param tier the customer's tier
+     * @return the new entry, or null if the customer is already waiting
+     */
+    public synchronized Entry add(Customer customer, long requestedAt, CustomerTier tier) {
+        if (byCustomer.containsKey(customer.getId())) {
+            return null;
+        }
+        Entry entry = new Entry(customer, requestedAt, tier, nextSequence++);
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        entry.index = size;
+        heap[size++] = entry;
+        siftUp(entry.index);
+        byCustomer.put(customer.getId(), entry);
+        return entry;
+    }
+
+    /**
+     * Gets the customer who will be offered the next free seat.
+     *
+     * @return the head entry, or null if nobody is waiting
+     */
+    public synchronized Entry peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    /**
+     * Removes a customer from the waitlist, wherever they are in it.
+     *
+     * @param customerId the customer ID
+     * @return the removed entry, or null if the customer was not waiting
+     */
+    public synchronized Entry remove(int customerId) {
+        Entry entry = byCustomer.remove(customerId);
+        if (entry == null) {
+            return null;
+        }
+        int at = entry.index;
+        Entry last = heap[--size];
+        heap[size] = null;
+        if (at < size) {
+            heap[at] = last;
+            last.index = at;
+            // the moved entry may belong above or below its new position
+            siftUp(at);
+            siftDown(last.index);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets a customer's place in the queue, counting from 1. Takes O(n).
+     *
+     * @param customerId the customer ID
+     * @return the position, or 0 if the customer is not waiting
+     */
+    public synchronized int positionOf(int customerId) {
+        Entry entry = byCustomer.get(customerId);
+        if (entry == null) {
+            return 0;
+        }
+        int ahead = 0;
+        for (int i = 0; i < size; i++) {
+            if (ORDER.compare(heap[i], entry) < 0) {
+                ahead++;
+            }
+        }
+        return ahead + 1;
+    }
+
+    /**
+     * Gets the waiting customers in order of service. Takes O(n log n).
+     *
+     * @return a copy of the entries, head first
+     */
+    public synchronized List<Entry> getEntries() {
+        List<Entry> entries = new ArrayList<>(Arrays.asList(heap).subList(0, size));
+        entries.sort(ORDER);
+        return entries;
+    }
+
+    private void siftUp(int at) {
+        Entry entry = heap[at];
+        while (at > 0) {
+            int parent = (at - 1) >>> 1;
+            if (ORDER.compare(entry, heap[parent]) >= 0) {
+                break;
+            }
+            place(heap[parent], at);
+            at = parent;
+        }
+        place(entry, at);
+    }
+
+    private void siftDown(int at) {
+        Entry entry = heap[at];
+        int half = size >>> 1;
+        while (at < half) {
+            int child = 2 * at + 1;
+            if (child + 1 < size && ORDER.compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (ORDER.compare(entry, heap[child]) <= 0) {
+                break;
+            }
+            place(heap[child], at);
+            at = child;
+        }
+        place(entry, at);
+    }
+
+    private void place(Entry entry, int at) {
+        heap[at] = entry;
+        entry.index = at;
+    }
+}
@@ -0,0 +1,141 @@
+package bcu.cmp5332.bookingsystem.commands;
+
+import bcu.cmp5332.bookingsystem.data.BookingDataManager;
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+
+/**
+ * Integration tests for the EditBooking command.
+ * Tests that a booking is only moved onto another flight with a free seat
+ * that the customer is not booked on yet, and is left where it was
+ * otherwise. The booking files in ./resources/data are
+ * moved aside for each test and put back afterwards.
+ */
+public class EditBookingTest {
+
+    private static final String DIR = "./resources/data/";
+    private static final String[] FILES = {
+        "bookings.txt", "bookings.journal", "bookings.journal.compacting", "waitlist.txt"
+    };
+
+    private final BookingDataManager dataManager = new BookingDataManager();
+    private FlightBookingSystem fbs;
+    private Booking booking;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        for (String name : FILES) {
+            File file = new File(DIR + name);
+            if (file.exists()) {
+                Files.move(file.toPath(), new File(DIR + name + ".testbak").toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        fbs = new FlightBookingSystem();
+        fbs.addFlight(new Flight(1, "F1", "London", "Paris", LocalDate.of(2030, 1, 1), 10, 100.0));
+        fbs.addFlight(new Flight(2, "F2", "London", "Paris", LocalDate.of(2030, 1, 2), 1, 100.0));
+        fbs.addCustomer(new Customer(1, "Ann", "0700", "ann@example.com"));
+        fbs.addCustomer(new Customer(2, "Bob", "0701", "bob@example.com"));
+        booking = book(1, 1);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (String name : FILES) {
+            new File(DIR + name).delete();
+            File backup = new File(DIR + name + ".testbak");
+            if (backup.exists()) {
+                Files.move(backup.toPath(), new File(DIR + name).toPath());
+            }
+        }
+    }
+
+    private Booking book(int customerId, int flightId) throws Exception {
+        Customer customer = fbs.getCustomerByID(customerId);
+        Flight flight = fbs.getFlightByID(flightId);
+        assertTrue(flight.addPassengerSafe(customer));
+        Booking added = new Booking(customer, flight, LocalDate.of(2029, 12, 1));
+        customer.addBooking(added);
+        fbs.addBooking(added);
+        return added;
+    }
+
+    private void assertNotMoved() throws Exception {
+        assertSame(fbs.getFlightByID(1), booking.getFlight());
+        assertSame(booking, fbs.getBooking(1, 1));
+        assertEquals(1, fbs.getFlightByID(1).getPassengerCount());
+    }
+
+    /**
+     * Test that a booking moves onto a flight with a free seat.
+     */
+    @Test
+    public void testMove() throws Exception {
+        new EditBooking(booking.getId(), 2, dataManager).execute(fbs);
+
+        assertSame(fbs.getFlightByID(2), booking.getFlight());
+        assertSame(booking, fbs.getBooking(1, 2));
+        assertEquals(0, fbs.getFlightByID(1).getPassengerCount());
+        assertEquals(1, fbs.getFlightByID(2).getPassengerCount());
+    }
+
+    /**
+     * Test that a move onto a full flight is rejected and keeps the booking
+     * on its old flight.
+     */
+    @Test
+    public void testMoveOntoFullFlight() throws Exception {
+        book(2, 2);
+
+        assertThrows(FlightBookingSystemException.class,
+                () -> new EditBooking(booking.getId(), 2, dataManager).execute(fbs));
+        assertNotMoved();
+        assertEquals(1, fbs.getFlightByID(2).getPassengerCount());
+    }
+
+    /**
+     * Test that a move onto the booking's own flight, or onto a flight the
+     * customer already has a booking on, is rejected.
+     */
+    @Test
+    public void testMoveOntoBookedFlight() throws Exception {
+        Booking other = book(1, 2);
+
+        assertThrows(FlightBookingSystemException.class,
+                () -> new EditBooking(booking.getId(), 1, dataManager).execute(fbs));
+        assertThrows(FlightBookingSystemException.class,
+                () -> new EditBooking(booking.getId(), 2, dataManager).execute(fbs));
+        assertNotMoved();
+        assertSame(other, fbs.getBooking(1, 2));
+        assertEquals(1, fbs.getFlightByID(2).getPassengerCount());
+    }
+
+    /**
+     * Test that deleted and departed flights are rejected as targets.
+     */
+    @Test
+    public void testMoveOntoClosedFlight() throws Exception {
+        fbs.deleteFlight(fbs.getFlightByID(2));
+        fbs.addFlight(new Flight(3, "F3", "London", "Paris", LocalDate.of(2020, 1, 1), 10, 100.0));
+
+        assertThrows(FlightBookingSystemException.class,
+                () -> new EditBooking(booking.getId(), 2, dataManager).execute(fbs));
+        assertThrows(FlightBookingSystemException.class,
+                () -> new EditBooking(booking.getId(), 3, dataManager).execute(fbs));
+        assertNotMoved();
+        assertEquals(0, fbs.getFlightByID(3).getPassengerCount());
+    }
+}
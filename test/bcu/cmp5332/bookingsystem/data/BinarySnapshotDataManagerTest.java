@@ -0,0 +1,134 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.RandomAccessFile;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Integration tests for BinarySnapshotDataManager.
+ * Tests that a snapshot round-trips the model and is ignored once it is stale or corrupt.
+ */
+public class BinarySnapshotDataManagerTest {
+
+    private static final String TEST_SNAPSHOT = "./resources/data/test_snapshot.bin";
+    private static final String TEST_SOURCE = "./resources/data/test_snapshot_source.txt";
+
+    private BinarySnapshotDataManager dataManager;
+    private FlightBookingSystem fbs;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        File source = new File(TEST_SOURCE);
+        source.getParentFile().mkdirs();
+        try (FileWriter out = new FileWriter(source)) {
+            out.write("source\n");
+        }
+
+        DataManager sourceManager = new DataManager() {
+            @Override
+            public void loadData(FlightBookingSystem fbs) {
+            }
+
+            @Override
+            public void storeData(FlightBookingSystem fbs) {
+            }
+
+            @Override
+            public List<File> getDataFiles() {
+                return Collections.singletonList(source);
+            }
+        };
+        dataManager = new BinarySnapshotDataManager(new File(TEST_SNAPSHOT), List.of(sourceManager),
+                new BookingDataManager());
+
+        fbs = new FlightBookingSystem();
+        Flight flight = new Flight(1, "LH100", "Birmingham", "Munich", LocalDate.of(2025, 6, 1), 120, 199.99);
+        Customer customer = new Customer(1, "Ann", "0700", "ann@example.com", "hash");
+        fbs.addFlight(flight);
+        fbs.addCustomer(customer);
+        Booking booking = new Booking(customer, flight, LocalDate.of(2025, 1, 15));
+        flight.getSeatMap().assign(9);
+        booking.setSeat(9);
+        customer.addBooking(booking);
+        flight.addPassenger(customer);
+        fbs.addBooking(booking);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        new File(TEST_SNAPSHOT).delete();
+        new File(TEST_SOURCE).delete();
+    }
+
+    /**
+     * Test that flights, customers and bookings survive a snapshot round trip.
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        dataManager.storeData(fbs);
+        assertTrue(dataManager.isCurrent(), "Freshly written snapshot should be current");
+
+        FlightBookingSystem loaded = new FlightBookingSystem();
+        assertTrue(dataManager.tryLoad(loaded), "Snapshot should load");
+
+        Flight flight = loaded.getFlightByID(1);
+        assertEquals("LH100", flight.getFlightNumber());
+        assertEquals("Munich", flight.getDestination());
+        assertEquals(LocalDate.of(2025, 6, 1), flight.getDepartureDate());
+        assertEquals(120, flight.getCapacity());
+        assertEquals(199.99, flight.getPrice(), 0.0);
+
+        Customer customer = loaded.getCustomerByID(1);
+        assertEquals("ann@example.com", customer.getEmail());
+        assertEquals("hash", customer.getPasswordHash());
+        assertEquals(1, customer.getBookings().size());
+        assertEquals(LocalDate.of(2025, 1, 15), customer.getBookings().get(0).getBookingDate());
+        assertEquals("2D", customer.getBookings().get(0).getSeatLabel());
+        assertFalse(flight.getSeatMap().isFree(9), "Seat should be taken again on load");
+        assertEquals(1, flight.getPassengers().size(), "Booking should be linked to the flight");
+    }
+
+    /**
+     * Test that the snapshot is ignored after a text file changes.
+     */
+    @Test
+    public void testStaleAfterSourceChanges() throws Exception {
+        dataManager.storeData(fbs);
+
+        try (FileWriter out = new FileWriter(TEST_SOURCE, true)) {
+            out.write("changed\n");
+        }
+
+        assertFalse(dataManager.isCurrent(), "Snapshot should be stale");
+        FlightBookingSystem loaded = new FlightBookingSystem();
+        assertFalse(dataManager.tryLoad(loaded), "Stale snapshot should not load");
+        assertTrue(loaded.getAllFlights().isEmpty(), "Nothing should be loaded");
+    }
+
+    /**
+     * Test that a truncated snapshot is rejected without touching the system.
+     */
+    @Test
+    public void testCorruptSnapshotIsIgnored() throws Exception {
+        dataManager.storeData(fbs);
+        try (RandomAccessFile raf = new RandomAccessFile(TEST_SNAPSHOT, "rw")) {
+            raf.setLength(raf.length() - 5);
+        }
+
+        FlightBookingSystem loaded = new FlightBookingSystem();
+        assertFalse(dataManager.tryLoad(loaded), "Corrupt snapshot should not load");
+        assertTrue(loaded.getAllFlights().isEmpty(), "Nothing should be loaded");
+    }
+}
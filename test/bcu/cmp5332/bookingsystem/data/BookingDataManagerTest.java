@@ -0,0 +1,236 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+
+/**
+ * Integration tests for BookingDataManager's journal.
+ * Tests that a crash between writing a snapshot and deleting the journals it
+ * includes does not replay them twice, that moves EditBooking refuses are
+ * ignored, and that bookings keep their ids through the journal,
+ * compaction and a full store. The data files in ./resources/data are
+ * moved aside for each test and put back afterwards.
+ */
+public class BookingDataManagerTest {
+
+    private static final String DIR = "./resources/data/";
+    private static final String[] FILES = {
+        "bookings.txt", "bookings.journal", "bookings.journal.compacting", "waitlist.txt"
+    };
+
+    private BookingDataManager dataManager;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        for (String name : FILES) {
+            File file = new File(DIR + name);
+            if (file.exists()) {
+                Files.move(file.toPath(), new File(DIR + name + ".testbak").toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        dataManager = new BookingDataManager();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (String name : FILES) {
+            new File(DIR + name).delete();
+            File backup = new File(DIR + name + ".testbak");
+            if (backup.exists()) {
+                Files.move(backup.toPath(), new File(DIR + name).toPath());
+            }
+        }
+    }
+
+    private static FlightBookingSystem system() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addFlight(new Flight(1, "F1", "London", "Paris", LocalDate.of(2030, 1, 1), 10, 100.0));
+        fbs.addFlight(new Flight(2, "F2", "London", "Paris", LocalDate.of(2030, 1, 2), 10, 100.0));
+        fbs.addCustomer(new Customer(1, "Ann", "0700", "ann@example.com"));
+        return fbs;
+    }
+
+    /**
+     * Books customer 1 on flight 1, moves the booking to flight 2, and
+     * journals both changes.
+     */
+    private void bookAndMove(FlightBookingSystem fbs) throws Exception {
+        Customer customer = fbs.getCustomerByID(1);
+        Flight first = fbs.getFlightByID(1);
+        Flight second = fbs.getFlightByID(2);
+
+        Booking booking = new Booking(customer, first, LocalDate.of(2029, 12, 1));
+        customer.addBooking(booking);
+        first.addPassenger(customer);
+        fbs.addBooking(booking);
+        dataManager.recordAdd(fbs, booking);
+
+        first.removePassenger(customer);
+        second.addPassenger(customer);
+        fbs.moveBooking(booking, second);
+        dataManager.recordMove(fbs, booking, first);
+    }
+
+    private static void assertMovedOnce(FlightBookingSystem fbs) throws Exception {
+        assertNull(fbs.getBooking(1, 1));
+        assertNotNull(fbs.getBooking(1, 2));
+        assertEquals(1, fbs.getBookings().size());
+        assertEquals(1, fbs.getCustomerByID(1).getBookings().size());
+        assertEquals(0, fbs.getFlightByID(1).getPassengerCount());
+        assertEquals(1, fbs.getFlightByID(2).getPassengerCount());
+    }
+
+    /**
+     * Test that a journal left behind by a store is skipped on load.
+     */
+    @Test
+    public void testStoreInterruptedBeforeJournalDeleted() throws Exception {
+        FlightBookingSystem fbs = system();
+        bookAndMove(fbs);
+        byte[] journal = Files.readAllBytes(new File(DIR + "bookings.journal").toPath());
+
+        dataManager.storeData(fbs);
+        assertFalse(new File(DIR + "bookings.journal").exists());
+        Files.write(new File(DIR + "bookings.journal").toPath(), journal);
+
+        FlightBookingSystem loaded = system();
+        dataManager.loadData(loaded);
+        assertMovedOnce(loaded);
+    }
+
+    /**
+     * Test that a rotated journal left behind by a compaction is skipped on
+     * load and dropped by the next compaction.
+     */
+    @Test
+    public void testCompactionInterruptedBeforeJournalDeleted() throws Exception {
+        FlightBookingSystem fbs = system();
+        bookAndMove(fbs);
+        byte[] journal = Files.readAllBytes(new File(DIR + "bookings.journal").toPath());
+
+        dataManager.compactJournal();
+        File rotated = new File(DIR + "bookings.journal.compacting");
+        assertFalse(rotated.exists());
+        Files.write(rotated.toPath(), journal);
+
+        FlightBookingSystem loaded = system();
+        dataManager.loadData(loaded);
+        assertMovedOnce(loaded);
+
+        byte[] snapshot = Files.readAllBytes(new File(DIR + "bookings.txt").toPath());
+        dataManager.compactJournal();
+        assertFalse(rotated.exists());
+        assertArrayEquals(snapshot, Files.readAllBytes(new File(DIR + "bookings.txt").toPath()));
+    }
+
+    /**
+     * Test that journals written after a store or compaction are replayed.
+     */
+    @Test
+    public void testLaterJournalsReplayed() throws Exception {
+        FlightBookingSystem fbs = system();
+        bookAndMove(fbs);
+        dataManager.storeData(fbs);
+
+        Customer customer = fbs.getCustomerByID(1);
+        Flight first = fbs.getFlightByID(1);
+        Booking booking = new Booking(customer, first, LocalDate.of(2029, 12, 2));
+        customer.addBooking(booking);
+        first.addPassenger(customer);
+        fbs.addBooking(booking);
+        dataManager.recordAdd(fbs, booking);
+        dataManager.compactJournal();
+
+        dataManager.recordCancel(fbs, booking);
+
+        FlightBookingSystem loaded = system();
+        dataManager.loadData(loaded);
+        assertMovedOnce(loaded);
+    }
+
+    /**
+     * Test that moves onto the same flight or onto a flight the customer is
+     * already booked on are ignored, on load and by compaction.
+     */
+    @Test
+    public void testMoveOntoBookedFlightIgnored() throws Exception {
+        Files.write(new File(DIR + "bookings.journal").toPath(), String.join("\n",
+                "J|1",
+                "A|1|1|2029-12-01||1001",
+                "A|1|2|2029-12-01||1002",
+                "M|1|1|2",
+                "M|1|1|1",
+                "").getBytes());
+
+        FlightBookingSystem replayed = system();
+        dataManager.loadData(replayed);
+        assertEquals(1001, replayed.getBooking(1, 1).getId());
+        assertEquals(1002, replayed.getBooking(1, 2).getId());
+        assertEquals(2, replayed.getBookings().size());
+
+        dataManager.compactJournal();
+        FlightBookingSystem compacted = system();
+        dataManager.loadData(compacted);
+        assertEquals(1001, compacted.getBooking(1, 1).getId());
+        assertEquals(1002, compacted.getBooking(1, 2).getId());
+        assertEquals(2, compacted.getBookings().size());
+    }
+
+    /**
+     * Test that a booking loads with the id it was created with, whether it
+     * comes from the journal, a compacted snapshot or a full store.
+     */
+    @Test
+    public void testBookingIdsKept() throws Exception {
+        FlightBookingSystem fbs = system();
+        bookAndMove(fbs);
+        int id = fbs.getBooking(1, 2).getId();
+
+        FlightBookingSystem replayed = system();
+        dataManager.loadData(replayed);
+        assertEquals(id, replayed.getBooking(1, 2).getId());
+
+        dataManager.compactJournal();
+        FlightBookingSystem compacted = system();
+        dataManager.loadData(compacted);
+        assertEquals(id, compacted.getBooking(1, 2).getId());
+
+        dataManager.storeData(compacted);
+        FlightBookingSystem stored = system();
+        dataManager.loadData(stored);
+        assertEquals(id, stored.getBooking(1, 2).getId());
+        assertSame(stored.getBooking(1, 2), stored.getBookingById(id));
+    }
+
+    /**
+     * Test that a move onto a flight the customer is already booked on
+     * leaves a single booking, as when a queued store ran before the move
+     * was journaled.
+     */
+    @Test
+    public void testMoveAlreadyInSnapshot() throws Exception {
+        FlightBookingSystem fbs = system();
+        bookAndMove(fbs);
+        byte[] journal = Files.readAllBytes(new File(DIR + "bookings.journal").toPath());
+        dataManager.storeData(fbs);
+        // as if the records had been appended to the journal after the store
+        String records = new String(journal).replaceFirst("J\\|\\d+", "J|99");
+        Files.write(new File(DIR + "bookings.journal").toPath(), records.getBytes());
+
+        FlightBookingSystem loaded = system();
+        dataManager.loadData(loaded);
+        assertMovedOnce(loaded);
+    }
+}
@@ -0,0 +1,115 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Unit tests for FieldTokenizer.
+ * Tests that fields are split and parsed the same way as the String based loaders.
+ */
+public class FieldTokenizerTest {
+
+    private FieldTokenizer tokenizer(String text, String delimiter) {
+        return new FieldTokenizer(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), delimiter);
+    }
+
+    /**
+     * Test that a flight line is split and parsed into typed fields.
+     */
+    @Test
+    public void testParsesFlightLine() throws Exception {
+        FieldTokenizer tok = tokenizer("11::123::Nepal::KTM::2062-02-10::2::123.0::false\n", "::");
+
+        assertTrue(tok.nextLine(), "Should read one line");
+        assertEquals(8, tok.getFieldCount(), "Should split into 8 fields");
+        assertEquals(11, tok.getInt(0));
+        assertEquals("123", tok.getString(1));
+        assertEquals("Nepal", tok.getString(2));
+        assertEquals(LocalDate.of(2062, 2, 10), tok.getDate(4));
+        assertEquals(2, tok.getInt(5));
+        assertEquals(123.0, tok.getDouble(6), 0.0);
+        assertFalse(tok.getBoolean(7));
+        assertFalse(tok.nextLine(), "Should be at end of input");
+    }
+
+    /**
+     * Test that empty trailing fields are kept, like split(sep, -1).
+     */
+    @Test
+    public void testKeepsEmptyFields() throws Exception {
+        FieldTokenizer tok = tokenizer("1::John Doe::1234567890::", "::");
+
+        assertTrue(tok.nextLine());
+        assertEquals(4, tok.getFieldCount(), "Trailing empty field should be kept");
+        assertTrue(tok.isEmpty(3), "Email field should be empty");
+        assertEquals("", tok.getString(3));
+    }
+
+    /**
+     * Test that blank lines, surrounding whitespace and CRLF endings are handled.
+     */
+    @Test
+    public void testTrimsLinesAndNumericFields() throws Exception {
+        FieldTokenizer tok = tokenizer("\r\n  1 | 5 | 2026-02-06 \r\n", "|");
+
+        assertTrue(tok.nextLine());
+        assertTrue(tok.isBlank(), "First line should be blank");
+        assertTrue(tok.nextLine());
+        assertEquals(2, tok.getLineNumber());
+        assertEquals(1, tok.getInt(0));
+        assertEquals(5, tok.getInt(1));
+        assertEquals(LocalDate.of(2026, 2, 6), tok.getDate(2));
+    }
+
+    /**
+     * Test that doubles match Double.parseDouble on the fast and slow paths.
+     */
+    @Test
+    public void testParsesDoubles() throws Exception {
+        String[] values = {"0.1", "299.99", "-450.50", "123.", "1e3", "12345678901234567890.5", "0.3333333333333333"};
+        FieldTokenizer tok = tokenizer(String.join("|", values), "|");
+
+        assertTrue(tok.nextLine());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(Double.parseDouble(values[i]), tok.getDouble(i), 0.0, "Value " + values[i]);
+        }
+    }
+
+    /**
+     * Test that invalid numbers and dates raise the same exceptions as the JDK parsers.
+     */
+    @Test
+    public void testRejectsInvalidValues() throws Exception {
+        FieldTokenizer tok = tokenizer("abc|2147483648|2024-02-30|", "|");
+
+        assertTrue(tok.nextLine());
+        assertThrows(NumberFormatException.class, () -> tok.getInt(0));
+        assertThrows(NumberFormatException.class, () -> tok.getInt(1));
+        assertThrows(DateTimeParseException.class, () -> tok.getDate(2));
+        assertThrows(NumberFormatException.class, () -> tok.getDouble(3));
+    }
+
+    /**
+     * Test that lines longer than the internal buffer are read intact.
+     */
+    @Test
+    public void testReadsLinesLongerThanBuffer() throws Exception {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            name.append('x');
+        }
+        FieldTokenizer tok = tokenizer("1::" + name + "::TRUE\n2::short::true\n", "::");
+
+        assertTrue(tok.nextLine());
+        assertEquals(name.length(), tok.getString(1).length());
+        assertTrue(tok.getBoolean(2), "Boolean parsing should ignore case");
+        assertTrue(tok.nextLine());
+        assertEquals(2, tok.getInt(0));
+        assertFalse(tok.nextLine());
+    }
+}
@@ -0,0 +1,68 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+
+/**
+ * Integration tests for IdMarkStore.
+ * Tests that high-water marks survive a reload and never move backwards.
+ */
+public class IdMarkStoreTest {
+
+    private static final String TEST_FILE = "./resources/data/test_ids.txt";
+
+    @AfterEach
+    public void tearDown() {
+        new File(TEST_FILE).delete();
+        new File(TEST_FILE + ".tmp").delete();
+    }
+
+    /**
+     * Test that saved marks are read back by a new store.
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        IdMarkStore store = new IdMarkStore(new File(TEST_FILE));
+        assertEquals(0, store.load("flights"), "Missing marks should read as 0");
+
+        store.save("flights", 33);
+        store.save("customers", 17);
+
+        IdMarkStore reloaded = new IdMarkStore(new File(TEST_FILE));
+        assertEquals(33, reloaded.load("flights"));
+        assertEquals(17, reloaded.load("customers"));
+    }
+
+    /**
+     * Test that a lower mark does not replace a higher one.
+     */
+    @Test
+    public void testMarkNeverDecreases() throws Exception {
+        IdMarkStore store = new IdMarkStore(new File(TEST_FILE));
+        store.save("flights", 33);
+        store.save("flights", 17);
+
+        assertEquals(33, new IdMarkStore(new File(TEST_FILE)).load("flights"));
+    }
+
+    /**
+     * Test that the marks are read from the temporary file when a crash
+     * left it in place of ids.txt.
+     */
+    @Test
+    public void testFallsBackToTemporaryFile() throws Exception {
+        new IdMarkStore(new File(TEST_FILE)).save("flights", 33);
+        Files.move(new File(TEST_FILE).toPath(), new File(TEST_FILE + ".tmp").toPath());
+
+        IdMarkStore reloaded = new IdMarkStore(new File(TEST_FILE));
+        assertEquals(33, reloaded.load("flights"));
+        reloaded.save("customers", 17);
+        assertTrue(new File(TEST_FILE).exists());
+        assertFalse(new File(TEST_FILE + ".tmp").exists());
+        assertEquals(33, new IdMarkStore(new File(TEST_FILE)).load("flights"));
+    }
+}
@@ -0,0 +1,215 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.Booking;
+import bcu.cmp5332.bookingsystem.model.Customer;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Integration tests for JournalCompactor and BookingDataManager.compactJournal.
+ * Tests the size threshold, that compaction keeps the same bookings as a
+ * full store without dropping those of customers not yet in customers.txt,
+ * and that no append is lost while compactions run. The data
+ * files in ./resources/data are moved aside for each test and put back
+ * afterwards.
+ */
+public class JournalCompactorTest {
+
+    private static final String DIR = "./resources/data/";
+    private static final String[] FILES = {
+        "bookings.txt", "bookings.journal", "bookings.journal.compacting", "waitlist.txt", "customers.txt"
+    };
+    private static final int CUSTOMERS = 4;
+    private static final int FLIGHTS = 50;
+
+    private BookingDataManager dataManager;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        for (String name : FILES) {
+            File file = new File(DIR + name);
+            if (file.exists()) {
+                Files.move(file.toPath(), new File(DIR + name + ".testbak").toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        dataManager = new BookingDataManager();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (String name : FILES) {
+            new File(DIR + name).delete();
+            File backup = new File(DIR + name + ".testbak");
+            if (backup.exists()) {
+                Files.move(backup.toPath(), new File(DIR + name).toPath());
+            }
+        }
+    }
+
+    /**
+     * Creates a system with CUSTOMERS customers and FLIGHTS flights, and
+     * writes the customers to customers.txt, customer 2 as deleted if asked.
+     */
+    private static FlightBookingSystem system(boolean deleteSecond) throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int id = 1; id <= FLIGHTS; id++) {
+            fbs.addFlight(new Flight(id, "F" + id, "London", "Paris", LocalDate.of(2030, 1, 1), 10, 100.0));
+        }
+        try (FileWriter out = new FileWriter(DIR + "customers.txt")) {
+            for (int id = 1; id <= CUSTOMERS; id++) {
+                Customer customer = new Customer(id, "C" + id, "0", "c" + id + "@example.com");
+                fbs.addCustomer(customer);
+                boolean deleted = deleteSecond && id == 2;
+                out.write(id + "::C" + id + "::0::c" + id + "@example.com::::" + deleted + "\n");
+            }
+        }
+        if (deleteSecond) {
+            fbs.deleteCustomer(fbs.getCustomerByID(2));
+        }
+        return fbs;
+    }
+
+    private void book(FlightBookingSystem fbs, int customerId, int flightId) throws Exception {
+        Customer customer = fbs.getCustomerByID(customerId);
+        Flight flight = fbs.getFlightByID(flightId);
+        Booking booking = new Booking(customer, flight, LocalDate.of(2029, 12, 1));
+        customer.addBooking(booking);
+        flight.addPassenger(customer);
+        fbs.addBooking(booking);
+        dataManager.recordAdd(fbs, booking);
+    }
+
+    private static Set<String> bookingLines() throws Exception {
+        Set<String> lines = new HashSet<>();
+        for (String line : Files.readAllLines(new File(DIR + "bookings.txt").toPath())) {
+            if (!line.startsWith("J|")) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Test that the journal is only compacted once it reaches the threshold.
+     */
+    @Test
+    public void testThreshold() throws Exception {
+        FlightBookingSystem fbs = system(false);
+        JournalCompactor compactor = new JournalCompactor(dataManager, 100, 60);
+
+        assertFalse(compactor.compactIfNeeded(), "No journal");
+        book(fbs, 1, 1);
+        assertFalse(compactor.compactIfNeeded(), "Below the threshold");
+        for (int flight = 2; flight <= 6; flight++) {
+            book(fbs, 1, flight);
+        }
+        assertTrue(compactor.compactIfNeeded());
+        assertEquals(0, dataManager.getJournalSize());
+        assertEquals(6, bookingLines().size());
+    }
+
+    /**
+     * Test that compaction keeps the same bookings as a full store, leaving
+     * out those of deleted customers.
+     */
+    @Test
+    public void testSameBookingsAsStore() throws Exception {
+        FlightBookingSystem fbs = system(true);
+        for (int customer = 1; customer <= 3; customer++) {
+            book(fbs, customer, 1);
+            book(fbs, customer, 2);
+        }
+
+        dataManager.compactJournal();
+        Set<String> compacted = bookingLines();
+        assertEquals(4, compacted.size());
+
+        dataManager.storeData(fbs);
+        assertEquals(compacted, bookingLines());
+    }
+
+    /**
+     * Test that compaction keeps the bookings of a customer who was added
+     * after customers.txt was last written.
+     */
+    @Test
+    public void testCustomerNotYetStored() throws Exception {
+        FlightBookingSystem fbs = system(false);
+        Customer added = new Customer(CUSTOMERS + 1, "New", "0", "new@example.com");
+        fbs.addCustomer(added);
+        book(fbs, added.getId(), 1);
+
+        dataManager.compactJournal();
+
+        FlightBookingSystem loaded = system(false);
+        loaded.addCustomer(new Customer(added.getId(), "New", "0", "new@example.com"));
+        dataManager.loadData(loaded);
+        assertNotNull(loaded.getBooking(added.getId(), 1));
+    }
+
+    /**
+     * Test that bookings appended from several threads while compactions
+     * keep running all end up loaded exactly once.
+     */
+    @Test
+    public void testCompactionDuringAppends() throws Exception {
+        FlightBookingSystem fbs = system(false);
+        JournalCompactor compactor = new JournalCompactor(dataManager, 0, 60);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread compacting = new Thread(() -> {
+            while (!done.get()) {
+                compactor.compactIfNeeded();
+            }
+        });
+        List<Thread> appenders = new ArrayList<>();
+        for (int c = 1; c <= CUSTOMERS; c++) {
+            int customer = c;
+            appenders.add(new Thread(() -> {
+                try {
+                    for (int flight = 1; flight <= FLIGHTS; flight++) {
+                        book(fbs, customer, flight);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+
+        compacting.start();
+        for (Thread t : appenders) {
+            t.start();
+        }
+        for (Thread t : appenders) {
+            t.join();
+        }
+        done.set(true);
+        compacting.join();
+        assertNull(failure.get());
+
+        FlightBookingSystem loaded = system(false);
+        dataManager.loadData(loaded);
+        assertEquals(CUSTOMERS * FLIGHTS, loaded.getBookings().size());
+        for (int customer = 1; customer <= CUSTOMERS; customer++) {
+            assertEquals(FLIGHTS, loaded.getCustomerByID(customer).getBookings().size());
+        }
+    }
+}
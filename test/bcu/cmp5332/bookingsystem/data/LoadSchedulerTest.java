@@ -0,0 +1,120 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for the LoadScheduler class.
+ * Tests that stages wait for their dependencies, that independent stages
+ * run concurrently, and that a failed stage fails the load.
+ */
+public class LoadSchedulerTest {
+
+    /**
+     * A load step run by a stub data manager.
+     */
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    private DataManager stage(String name, Step step) {
+        return new DataManager() {
+            @Override
+            public void loadData(FlightBookingSystem fbs) throws IOException, FlightBookingSystemException {
+                events.add("start " + name);
+                try {
+                    step.run();
+                } catch (IOException | FlightBookingSystemException | RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                events.add("end " + name);
+            }
+
+            @Override
+            public void storeData(FlightBookingSystem fbs) {
+            }
+        };
+    }
+
+    /**
+     * Test that a stage only starts once all of its dependencies have ended.
+     */
+    @Test
+    public void testDependencyGating() throws Exception {
+        LoadScheduler scheduler = new LoadScheduler()
+                .addStage("flights", stage("flights", () -> Thread.sleep(50)))
+                .addStage("customers", stage("customers", () -> Thread.sleep(20)))
+                .addStage("bookings", stage("bookings", () -> { }), "flights", "customers");
+
+        scheduler.load(new FlightBookingSystem());
+
+        assertEquals(6, events.size());
+        int start = events.indexOf("start bookings");
+        assertTrue(events.indexOf("end flights") < start, events.toString());
+        assertTrue(events.indexOf("end customers") < start, events.toString());
+        Map<String, Long> timings = scheduler.getStageTimings();
+        assertTrue(timings.keySet().containsAll(List.of("flights", "customers", "bookings", LoadScheduler.TOTAL)));
+        assertTrue(timings.get(LoadScheduler.TOTAL) >= 50);
+    }
+
+    /**
+     * Test that independent stages run at the same time: each waits for the
+     * other to start, which times out if they run one after the other.
+     */
+    @Test
+    public void testIndependentStagesConcurrent() throws Exception {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Step meet = () -> barrier.await(5, TimeUnit.SECONDS);
+        LoadScheduler scheduler = new LoadScheduler()
+                .addStage("flights", stage("flights", meet))
+                .addStage("customers", stage("customers", meet));
+
+        scheduler.load(new FlightBookingSystem());
+        assertTrue(events.containsAll(List.of("end flights", "end customers")), events.toString());
+    }
+
+    /**
+     * Test that a stage's checked failure is thrown from load unwrapped, and
+     * that stages depending on it do not run.
+     */
+    @Test
+    public void testFailurePropagation() throws Exception {
+        LoadScheduler failingRead = new LoadScheduler()
+                .addStage("flights", stage("flights", () -> {
+                    throw new IOException("cannot read flights");
+                }))
+                .addStage("customers", stage("customers", () -> { }))
+                .addStage("bookings", stage("bookings", () -> { }), "flights", "customers");
+
+        IOException read = assertThrows(IOException.class, () -> failingRead.load(new FlightBookingSystem()));
+        assertEquals("cannot read flights", read.getMessage());
+        assertFalse(events.contains("start bookings"), events.toString());
+        assertTrue(failingRead.getStageTimings().containsKey(LoadScheduler.TOTAL));
+
+        events.clear();
+        LoadScheduler failingParse = new LoadScheduler()
+                .addStage("customers", stage("customers", () -> {
+                    throw new FlightBookingSystemException("bad customer");
+                }))
+                .addStage("bookings", stage("bookings", () -> { }), "customers");
+
+        FlightBookingSystemException parse = assertThrows(FlightBookingSystemException.class,
+                () -> failingParse.load(new FlightBookingSystem()));
+        assertEquals("bad customer", parse.getMessage());
+        assertFalse(events.contains("start bookings"), events.toString());
+    }
+}
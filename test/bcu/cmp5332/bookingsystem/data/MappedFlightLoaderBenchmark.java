@@ -0,0 +1,78 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.Flight;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmark for MappedFlightLoader.
+ * Generates a synthetic flights file and measures load time as the number of
+ * worker threads grows, starting from a single thread.
+ *
+ * <p>Usage: {@code MappedFlightLoaderBenchmark [flights] [chunkBytes]}
+ * (defaults: 2,000,000 flights, 4 MB chunks).</p>
+ */
+public class MappedFlightLoaderBenchmark {
+
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int flights = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int chunkSize = args.length > 1 ? Integer.parseInt(args[1]) : MappedFlightLoader.DEFAULT_CHUNK_SIZE;
+
+        File file = File.createTempFile("flights-bench", ".txt");
+        file.deleteOnExit();
+        writeFlights(file, flights);
+        System.out.printf("%,d flights, %,d bytes, %d byte chunks%n", flights, file.length(), chunkSize);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        double baseline = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            MappedFlightLoader loader = new MappedFlightLoader(pool, chunkSize);
+            try {
+                for (int i = 0; i < WARMUP_RUNS; i++) {
+                    loader.parse(file);
+                }
+                long best = Long.MAX_VALUE;
+                for (int i = 0; i < MEASURED_RUNS; i++) {
+                    long start = System.nanoTime();
+                    List<Flight> parsed = loader.parse(file);
+                    best = Math.min(best, System.nanoTime() - start);
+                    if (parsed.size() != flights) {
+                        throw new IllegalStateException("Expected " + flights + " flights but parsed " + parsed.size());
+                    }
+                }
+                double ms = best / 1_000_000.0;
+                if (threads == 1) {
+                    baseline = ms;
+                }
+                System.out.printf("threads=%-3d best=%9.1f ms  speedup=%5.2fx%n", threads, ms, baseline / ms);
+            } finally {
+                pool.shutdown();
+            }
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+
+    private static void writeFlights(File file, int count) throws Exception {
+        String[] airports = {"Birmingham", "Munich", "London", "Paris", "Dubai", "Kathmandu", "Delhi", "Sydney"};
+        LocalDate base = LocalDate.of(2025, 1, 1);
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(file))) {
+            for (int i = 1; i <= count; i++) {
+                out.write(i + "::FB" + i + "::" + airports[i % airports.length] + "::"
+                        + airports[(i * 7 + 3) % airports.length] + "::" + base.plusDays(i % 720) + "::"
+                        + (100 + i % 200) + "::" + (49.99 + i % 500) + "::false");
+                out.newLine();
+            }
+        }
+    }
+}
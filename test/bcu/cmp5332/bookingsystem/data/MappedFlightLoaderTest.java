@@ -0,0 +1,140 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import bcu.cmp5332.bookingsystem.model.Flight;
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Integration tests for MappedFlightLoader.
+ * Tests that a parallel load of flights.txt gives the same flights, and the
+ * same error, as the sequential FlightDataManager load, with chunk
+ * boundaries falling inside lines. flights.txt in ./resources/data is moved
+ * aside for each test and put back afterwards.
+ */
+public class MappedFlightLoaderTest {
+
+    private static final String FLIGHTS = "./resources/data/flights.txt";
+    private static final String BACKUP = FLIGHTS + ".testbak";
+    private static final int[] CHUNK_SIZES = {1, 7, 64, 1000, 1 << 20};
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        File file = new File(FLIGHTS);
+        if (file.exists()) {
+            Files.move(file.toPath(), new File(BACKUP).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        pool.shutdown();
+        new File(FLIGHTS).delete();
+        File backup = new File(BACKUP);
+        if (backup.exists()) {
+            Files.move(backup.toPath(), new File(FLIGHTS).toPath());
+        }
+    }
+
+    /**
+     * Writes flights.txt with the given number of flights, some blank lines
+     * and some lines without the optional fields, no newline at the end, and
+     * an optional malformed line.
+     */
+    private static void writeFlights(int count, int badLine, String bad) throws Exception {
+        try (FileWriter out = new FileWriter(FLIGHTS)) {
+            int line = 0;
+            for (int id = 1; id <= count; id++) {
+                if (++line == badLine) {
+                    out.write(bad + "\n");
+                    line++;
+                }
+                if (id % 17 == 0) {
+                    out.write("\n");
+                    line++;
+                }
+                LocalDate date = LocalDate.of(2030, 1, 1).plusDays(id % 90);
+                if (id % 5 == 0) {
+                    out.write(id + "::F" + id + "::London::Paris::" + date);
+                } else {
+                    out.write(id + "::F" + id + "::Birmingham::Munich::" + date + "::" + (50 + id % 7)
+                            + "::" + (99.5 + id) + "::" + (id % 11 == 0));
+                }
+                if (id < count) {
+                    out.write("\n");
+                }
+            }
+        }
+    }
+
+    private static List<String> describe(FlightBookingSystem fbs) {
+        List<String> flights = new ArrayList<>();
+        for (Flight f : fbs.getAllFlights()) {
+            flights.add(f.getId() + "|" + f.getFlightNumber() + "|" + f.getOrigin() + "|" + f.getDestination()
+                    + "|" + f.getDepartureDate() + "|" + f.getCapacity() + "|" + f.getPrice() + "|" + f.isDeleted());
+        }
+        return flights;
+    }
+
+    private static FlightBookingSystem sequentialLoad() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        new FlightDataManager(Long.MAX_VALUE, null).loadData(fbs);
+        return fbs;
+    }
+
+    private FlightBookingSystem parallelLoad(int chunkSize) throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        new FlightDataManager(0, new MappedFlightLoader(pool, chunkSize)).loadData(fbs);
+        return fbs;
+    }
+
+    /**
+     * Test that the parallel load gives the same flights for chunks smaller
+     * than a line, a few lines long, and the whole file.
+     */
+    @Test
+    public void testSameFlightsAsSequentialLoad() throws Exception {
+        writeFlights(300, -1, null);
+        List<String> expected = describe(sequentialLoad());
+        assertEquals(300, expected.size());
+
+        for (int chunkSize : CHUNK_SIZES) {
+            assertEquals(expected, describe(parallelLoad(chunkSize)), "Chunk size " + chunkSize);
+        }
+    }
+
+    /**
+     * Test that a malformed line in a later chunk is reported with the same
+     * line number and message as by the sequential load.
+     */
+    @Test
+    public void testSameErrorAsSequentialLoad() throws Exception {
+        for (String bad : new String[] {"201::F201::London", "x201::F201::London::Paris::2030-01-01"}) {
+            writeFlights(300, 210, bad);
+            FlightBookingSystemException expected =
+                    assertThrows(FlightBookingSystemException.class, MappedFlightLoaderTest::sequentialLoad);
+            assertTrue(expected.getMessage().contains("line 210"), expected.getMessage());
+
+            for (int chunkSize : CHUNK_SIZES) {
+                FlightBookingSystemException actual =
+                        assertThrows(FlightBookingSystemException.class, () -> parallelLoad(chunkSize));
+                assertEquals(expected.getMessage(), actual.getMessage(), "Chunk size " + chunkSize);
+            }
+        }
+    }
+}
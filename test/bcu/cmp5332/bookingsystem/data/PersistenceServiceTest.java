@@ -0,0 +1,131 @@
+package bcu.cmp5332.bookingsystem.data;
+
+import bcu.cmp5332.bookingsystem.model.FlightBookingSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for PersistenceService.
+ * Tests that writes are coalesced, kept in order and acknowledged under each policy.
+ */
+public class PersistenceServiceTest {
+
+    private final FlightBookingSystem fbs = new FlightBookingSystem();
+
+    @AfterEach
+    public void tearDown() {
+        PersistenceService.configure(PersistenceService.DurabilityPolicy.IMMEDIATE,
+                PersistenceService.DEFAULT_FLUSH_WINDOW_MILLIS, PersistenceService.DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Test that an immediate store runs before the call returns.
+     */
+    @Test
+    public void testImmediateStoreRunsOnCaller() throws Exception {
+        CountingDataManager dm = new CountingDataManager();
+
+        PersistenceService.store(dm, fbs);
+
+        assertEquals(1, dm.stores, "Store should have run synchronously");
+    }
+
+    /**
+     * Test that an immediate store reports its failure to the caller.
+     */
+    @Test
+    public void testImmediateStoreThrows() {
+        CountingDataManager dm = new CountingDataManager();
+        dm.fail = true;
+
+        assertThrows(IOException.class, () -> PersistenceService.store(dm, fbs));
+    }
+
+    /**
+     * Test that stores of the same manager queued in one window are written once.
+     */
+    @Test
+    public void testGroupedStoresAreCoalesced() throws Exception {
+        PersistenceService.configure(PersistenceService.DurabilityPolicy.GROUPED, 10_000, 1_000);
+        CountingDataManager dm = new CountingDataManager();
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(PersistenceService.submitStore(dm, fbs));
+        }
+        assertEquals(0, dm.stores, "Nothing should be written before the window closes");
+
+        PersistenceService.flush();
+
+        assertEquals(1, dm.stores, "Queued stores should be written once");
+        for (CompletableFuture<Void> future : futures) {
+            assertTrue(future.isDone() && !future.isCompletedExceptionally(), "Every caller should be acknowledged");
+        }
+    }
+
+    /**
+     * Test that ordered writes keep their submission order.
+     */
+    @Test
+    public void testOrderedWritesKeepOrder() throws Exception {
+        PersistenceService.configure(PersistenceService.DurabilityPolicy.ASYNC, 10_000, 3);
+        List<Integer> written = new ArrayList<>();
+
+        CompletableFuture<Void> last = null;
+        for (int i = 0; i < 3; i++) {
+            int n = i;
+            last = PersistenceService.submitWrite(new java.io.File("unused"), () -> written.add(n));
+        }
+        last.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(0, 1, 2), written, "Writes should run in submission order");
+    }
+
+    /**
+     * Test that flush waits for a batch the flusher has already taken.
+     */
+    @Test
+    public void testFlushWaitsForBatchInFlight() throws Exception {
+        PersistenceService.configure(PersistenceService.DurabilityPolicy.ASYNC, 0, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Void> slow = PersistenceService.submitWrite(new java.io.File("unused"), () -> {
+            started.countDown();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS), "The flusher should have taken the write");
+
+        PersistenceService.flush();
+
+        assertTrue(slow.isDone(), "Flush should not return while the write is still running");
+    }
+
+    private static final class CountingDataManager implements DataManager {
+
+        private int stores;
+        private boolean fail;
+
+        @Override
+        public void loadData(FlightBookingSystem fbs) {
+        }
+
+        @Override
+        public void storeData(FlightBookingSystem fbs) throws IOException {
+            if (fail) {
+                throw new IOException("disk full");
+            }
+            stores++;
+        }
+    }
+}
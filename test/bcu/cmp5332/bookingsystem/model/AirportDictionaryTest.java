@@ -0,0 +1,60 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+/**
+ * Unit tests for the AirportDictionary class.
+ * Tests that airport names are shared between flights and compared by code.
+ */
+public class AirportDictionaryTest {
+
+    /**
+     * Test that the same name always maps to the same code and shared String.
+     */
+    @Test
+    public void testSameNameSameCode() {
+        int code = AirportDictionary.codeOf("Kathmandu");
+
+        assertEquals(code, AirportDictionary.codeOf(new String("Kathmandu")), "Equal names should share a code");
+        assertEquals("Kathmandu", AirportDictionary.nameOf(code));
+        assertNotEquals(code, AirportDictionary.codeOf("Delhi"), "Different names should have different codes");
+    }
+
+    /**
+     * Test that flights on the same route share codes and name instances.
+     */
+    @Test
+    public void testFlightsShareAirports() {
+        Flight first = new Flight(1, "BA1", new String("London"), new String("Paris"), LocalDate.of(2025, 1, 1));
+        Flight second = new Flight(2, "BA2", new String("London"), new String("Paris"), LocalDate.of(2025, 1, 2));
+
+        assertEquals(first.getOriginCode(), second.getOriginCode());
+        assertEquals(first.getDestinationCode(), second.getDestinationCode());
+        assertSame(first.getOrigin(), second.getOrigin(), "Origin name should be stored once");
+    }
+
+    /**
+     * Test that a changed destination is looked up again.
+     */
+    @Test
+    public void testSetDestination() {
+        Flight flight = new Flight(1, "BA1", "London", "Paris", LocalDate.of(2025, 1, 1));
+
+        flight.setDestination("Munich");
+
+        assertEquals("Munich", flight.getDestination());
+        assertEquals(AirportDictionary.find("Munich"), flight.getDestinationCode());
+    }
+
+    /**
+     * Test that a missing name is kept as null.
+     */
+    @Test
+    public void testNullName() {
+        assertEquals(AirportDictionary.NONE, AirportDictionary.codeOf(null));
+        assertNull(AirportDictionary.nameOf(AirportDictionary.NONE));
+    }
+}
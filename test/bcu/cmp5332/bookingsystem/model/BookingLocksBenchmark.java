@@ -0,0 +1,120 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark for BookingLocks.
+ * Threads book and cancel random seats on a shared system, either holding
+ * the booking locks of their customer and flight or the exclusive lock, and
+ * the booking throughput is reported for each thread count.
+ *
+ * <p>Usage: {@code BookingLocksBenchmark [flights] [workNanos]} (defaults:
+ * 1,000 flights, 2,000 ns). The work is spent inside the locks on every
+ * booking and cancellation, standing in for the journal append a real
+ * command makes there.</p>
+ */
+public class BookingLocksBenchmark {
+
+    private static final int CUSTOMERS = 10_000;
+    private static final long RUN_MILLIS = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        int flightCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        long workNanos = args.length > 1 ? Long.parseLong(args[1]) : 2_000;
+
+        System.out.printf("%,d flights, %,d customers, %,d ns of work per change%n",
+                flightCount, CUSTOMERS, workNanos);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (boolean striped : new boolean[] {false, true}) {
+            double baseline = 0;
+            for (int threads = 1; threads <= Math.max(2 * cores, 2); threads *= 2) {
+                double opsPerSecond = run(newSystem(flightCount), threads, striped, workNanos, flightCount);
+                if (threads == 1) {
+                    baseline = opsPerSecond;
+                }
+                System.out.printf("%-9s threads=%-3d %,12.0f changes/s  scaling=%5.2fx%n",
+                        striped ? "striped" : "exclusive", threads, opsPerSecond, opsPerSecond / baseline);
+            }
+        }
+    }
+
+    private static FlightBookingSystem newSystem(int flightCount) throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        for (int i = 1; i <= flightCount; i++) {
+            fbs.addFlight(new Flight(i, "FB" + i, "Birmingham", "Munich", LocalDate.of(2025, 1, 1), 1_000, 99.0));
+        }
+        for (int i = 1; i <= CUSTOMERS; i++) {
+            fbs.addCustomer(new Customer(i, "C" + i, "0", "c" + i + "@example.com", "hash"));
+        }
+        return fbs;
+    }
+
+    private static double run(FlightBookingSystem fbs, int threads, boolean striped, long workNanos,
+                              int flightCount) throws Exception {
+        AtomicLong changes = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + RUN_MILLIS * 1_000_000;
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                try {
+                    start.await();
+                    while (System.nanoTime() < deadline) {
+                        int customerId = 1 + random.nextInt(CUSTOMERS);
+                        int flightId = 1 + random.nextInt(flightCount);
+                        try (BookingLocks.Guard guard = striped
+                                ? fbs.getLocks().lockBooking(customerId, flightId)
+                                : fbs.getLocks().exclusive()) {
+                            toggle(fbs, customerId, flightId);
+                            spin(workNanos);
+                        }
+                        done++;
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                changes.addAndGet(done);
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return changes.get() / ((System.nanoTime() - begin) / 1e9);
+    }
+
+    /**
+     * Books the seat if the customer has none on the flight, else cancels it,
+     * the way AddBooking and CancelBooking do.
+     */
+    private static void toggle(FlightBookingSystem fbs, int customerId, int flightId) throws Exception {
+        Customer customer = fbs.getCustomerByID(customerId);
+        Flight flight = fbs.getFlightByID(flightId);
+        Booking existing = fbs.getBooking(customerId, flightId);
+        if (existing != null) {
+            customer.getBookings().remove(existing);
+            flight.removePassenger(customer);
+            fbs.removeBooking(existing);
+        } else if (flight.addPassengerSafe(customer)) {
+            Booking booking = new Booking(customer, flight, LocalDate.of(2025, 1, 1));
+            customer.addBooking(booking);
+            fbs.addBooking(booking);
+        }
+    }
+
+    private static void spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+}
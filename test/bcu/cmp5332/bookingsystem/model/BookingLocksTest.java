@@ -0,0 +1,98 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for the BookingLocks class.
+ * Tests that independent bookings do not block each other while conflicting ones do.
+ */
+public class BookingLocksTest {
+
+    private final BookingLocks locks = new BookingLocks(1024);
+
+    /**
+     * Test that bookings on different customers and flights hold their locks at once.
+     */
+    @Test
+    public void testIndependentBookingsRunTogether() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+
+        try (BookingLocks.Guard guard = locks.lockBooking(1, 1)) {
+            Thread other = new Thread(() -> {
+                try (BookingLocks.Guard second = locks.lockBooking(2, 2)) {
+                    done.countDown();
+                }
+            });
+            other.start();
+            assertTrue(done.await(5, TimeUnit.SECONDS), "Independent booking should not wait");
+        }
+    }
+
+    /**
+     * Test that a second booking on the same flight waits for the first.
+     */
+    @Test
+    public void testSameFlightWaits() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        Thread other;
+
+        try (BookingLocks.Guard guard = locks.lockBooking(1, 7)) {
+            other = new Thread(() -> {
+                try (BookingLocks.Guard second = locks.lockBooking(2, 7)) {
+                    done.countDown();
+                }
+            });
+            other.start();
+            assertFalse(done.await(200, TimeUnit.MILLISECONDS), "Booking on the same flight should wait");
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS), "Booking should go ahead once the flight is free");
+        other.join();
+    }
+
+    /**
+     * Test that the exclusive lock cannot be taken while holding a booking lock.
+     */
+    @Test
+    public void testNoUpgradeFromBookingLock() {
+        try (BookingLocks.Guard guard = locks.lockBooking(1, 1)) {
+            assertThrows(IllegalStateException.class, locks::exclusive);
+        }
+        // and a booking lock may be taken under the exclusive lock
+        try (BookingLocks.Guard guard = locks.exclusive();
+             BookingLocks.Guard inner = locks.lockBooking(1, 1)) {
+            assertNotNull(inner);
+        }
+    }
+
+    /**
+     * Test that moves in opposite directions between two flights do not deadlock.
+     */
+    @Test
+    public void testOppositeMovesDoNotDeadlock() throws Exception {
+        Thread forth = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                try (BookingLocks.Guard guard = locks.lockBooking(1, 10, 20)) {
+                    Thread.yield();
+                }
+            }
+        });
+        Thread back = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                try (BookingLocks.Guard guard = locks.lockBooking(2, 20, 10)) {
+                    Thread.yield();
+                }
+            }
+        });
+        forth.start();
+        back.start();
+        forth.join(30_000);
+        back.join(30_000);
+
+        assertFalse(forth.isAlive() || back.isAlive(), "Moves should not deadlock");
+    }
+}
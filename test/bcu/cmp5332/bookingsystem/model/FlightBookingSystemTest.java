@@ -0,0 +1,225 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Unit tests for the FlightBookingSystem class.
+ * Tests that customer lookup by email follows adds and soft deletes, and
+ * that booking and route lookups follow adds, moves and removals.
+ */
+public class FlightBookingSystemTest {
+
+    private FlightBookingSystem fbs;
+    private Customer customer;
+
+    @BeforeEach
+    public void setUp() {
+        fbs = new FlightBookingSystem();
+        customer = new Customer(1, "John Doe", "1234567890", "John@Example.com", "hash");
+        fbs.addCustomer(customer);
+    }
+
+    /**
+     * Test that email lookup ignores case.
+     */
+    @Test
+    public void testEmailLookupIgnoresCase() {
+        assertSame(customer, fbs.getCustomerByEmail("john@example.com"));
+        assertSame(customer, fbs.getCustomerByEmail("JOHN@EXAMPLE.COM"));
+        assertNull(fbs.getCustomerByEmail("jane@example.com"));
+    }
+
+    /**
+     * Test that deleted customers are not found.
+     */
+    @Test
+    public void testDelete() {
+        fbs.deleteCustomer(customer);
+        assertTrue(customer.isDeleted());
+        assertNull(fbs.getCustomerByEmail("john@example.com"), "Deleted customer should not be found");
+    }
+
+    /**
+     * Test that a customer loaded as deleted is not found.
+     */
+    @Test
+    public void testDeletedCustomerNotIndexed() {
+        Customer deleted = new Customer(2, "Jane Smith", "0987654321", "jane@example.com", "hash");
+        deleted.setDeleted(true);
+        fbs.addCustomer(deleted);
+
+        assertNull(fbs.getCustomerByEmail("jane@example.com"));
+    }
+
+    /**
+     * Test that when two customers share an email the lowest id is found,
+     * and the other takes over once it is deleted.
+     */
+    @Test
+    public void testSharedEmail() {
+        Customer duplicate = new Customer(2, "Johnny", "111", "john@example.com", "hash");
+        fbs.addCustomer(duplicate);
+        assertSame(customer, fbs.getCustomerByEmail("john@example.com"));
+
+        fbs.deleteCustomer(customer);
+        assertSame(duplicate, fbs.getCustomerByEmail("john@example.com"));
+
+        fbs.deleteCustomer(duplicate);
+        assertNull(fbs.getCustomerByEmail("john@example.com"));
+    }
+
+    /**
+     * Test that a booking is found by id and by customer and flight.
+     */
+    @Test
+    public void testBookingLookup() throws Exception {
+        Flight flight = new Flight(7, "BA7", "London", "Paris", LocalDate.of(2025, 1, 1));
+        Booking booking = new Booking(customer, flight, LocalDate.of(2024, 12, 1));
+        fbs.addBooking(booking);
+
+        assertSame(booking, fbs.getBookingById(booking.getId()));
+        assertSame(booking, fbs.getBooking(1, 7));
+        assertNull(fbs.getBooking(1, 8));
+    }
+
+    /**
+     * Test that moving a booking updates the customer and flight lookup.
+     */
+    @Test
+    public void testMoveBooking() {
+        Flight from = new Flight(7, "BA7", "London", "Paris", LocalDate.of(2025, 1, 1));
+        Flight to = new Flight(8, "BA8", "London", "Rome", LocalDate.of(2025, 1, 2));
+        Booking booking = new Booking(customer, from, LocalDate.of(2024, 12, 1));
+        fbs.addBooking(booking);
+
+        fbs.moveBooking(booking, to);
+
+        assertSame(to, booking.getFlight());
+        assertNull(fbs.getBooking(1, 7), "Old pair should no longer match");
+        assertSame(booking, fbs.getBooking(1, 8));
+    }
+
+    /**
+     * Test that a removed booking is no longer found.
+     */
+    @Test
+    public void testRemoveBooking() {
+        Flight flight = new Flight(7, "BA7", "London", "Paris", LocalDate.of(2025, 1, 1));
+        Booking booking = new Booking(customer, flight, LocalDate.of(2024, 12, 1));
+        fbs.addBooking(booking);
+
+        fbs.removeBooking(booking);
+
+        assertNull(fbs.getBooking(1, 7));
+        assertTrue(fbs.getBookings().isEmpty());
+        assertThrows(FlightBookingSystemException.class, () -> fbs.getBookingById(booking.getId()));
+    }
+
+    /**
+     * Test that a route search returns only that route, in date order,
+     * within the requested range.
+     */
+    @Test
+    public void testSearchFlights() throws Exception {
+        Flight late = new Flight(1, "BA1", "London", "Paris", LocalDate.of(2025, 3, 1));
+        Flight early = new Flight(2, "BA2", "London", "Paris", LocalDate.of(2025, 1, 1));
+        Flight middle = new Flight(3, "BA3", "London", "Paris", LocalDate.of(2025, 2, 1));
+        Flight otherRoute = new Flight(4, "BA4", "London", "Rome", LocalDate.of(2025, 2, 1));
+        fbs.addFlight(late);
+        fbs.addFlight(early);
+        fbs.addFlight(middle);
+        fbs.addFlight(otherRoute);
+
+        assertEquals(List.of(early, middle, late), fbs.searchFlights("London", "Paris", null, null));
+        assertEquals(List.of(middle, late),
+                fbs.searchFlights("London", "Paris", LocalDate.of(2025, 2, 1), null));
+        assertEquals(List.of(middle),
+                fbs.searchFlights("London", "Paris", LocalDate.of(2025, 1, 15), LocalDate.of(2025, 2, 15)));
+        assertTrue(fbs.searchFlights("Paris", "London", null, null).isEmpty(), "Route is directional");
+        assertTrue(fbs.searchFlights("Nowhere", "Paris", null, null).isEmpty());
+    }
+
+    /**
+     * Test that deleted flights drop out of route searches.
+     */
+    @Test
+    public void testSearchSkipsDeletedFlights() throws Exception {
+        Flight flight = new Flight(1, "BA1", "London", "Paris", LocalDate.of(2025, 3, 1));
+        fbs.addFlight(flight);
+
+        fbs.deleteFlight(flight);
+        assertTrue(fbs.searchFlights("London", "Paris", null, null).isEmpty());
+    }
+
+    /**
+     * Test that the active flight view stays ordered by ID and follows deletes.
+     */
+    @Test
+    public void testActiveFlightsView() throws Exception {
+        List<Flight> active = fbs.getFlights();
+        Flight third = new Flight(3, "BA3", "London", "Paris", LocalDate.of(2025, 1, 3));
+        Flight first = new Flight(1, "BA1", "London", "Paris", LocalDate.of(2025, 1, 1));
+        Flight second = new Flight(2, "BA2", "London", "Paris", LocalDate.of(2025, 1, 2));
+        fbs.addFlight(third);
+        fbs.addFlight(first);
+        fbs.addFlight(second);
+
+        assertEquals(List.of(first, second, third), active, "View should be live and ordered by ID");
+
+        fbs.deleteFlight(second);
+        assertEquals(List.of(first, third), fbs.getFlights());
+        assertEquals(3, fbs.getAllFlights().size(), "Deleted flight should still exist");
+        assertThrows(UnsupportedOperationException.class, () -> active.remove(0));
+    }
+
+    /**
+     * Test that the active customer view follows deletes.
+     */
+    @Test
+    public void testActiveCustomersView() {
+        Customer second = new Customer(2, "Jane Smith", "0987654321", "jane@example.com", "hash");
+        fbs.addCustomer(second);
+        assertEquals(2, (int) fbs.getCustomers().lastKey());
+
+        fbs.deleteCustomer(second);
+        assertEquals(1, fbs.getCustomers().size());
+        assertFalse(fbs.getCustomers().containsKey(2));
+        assertEquals(2, fbs.getAllCustomers().size());
+    }
+
+    /**
+     * Test that a snapshot keeps its contents while the system changes, and
+     * that later snapshots have higher versions.
+     */
+    @Test
+    public void testSnapshotIsStable() throws Exception {
+        Flight first = new Flight(1, "BA1", "London", "Paris", LocalDate.of(2025, 1, 1));
+        Flight second = new Flight(2, "BA2", "London", "Paris", LocalDate.of(2025, 1, 2));
+        fbs.addFlight(first);
+        fbs.addFlight(second);
+        Booking booking = new Booking(customer, first, LocalDate.of(2024, 11, 11));
+        fbs.addBooking(booking);
+        SystemSnapshot before = fbs.getSnapshot();
+
+        fbs.deleteFlight(second);
+        fbs.removeBooking(booking);
+        fbs.addCustomer(new Customer(2, "Jane Smith", "0987654321", "jane@example.com", "hash"));
+
+        assertEquals(List.of(first, second), List.copyOf(before.getFlights()));
+        assertEquals(List.of(booking), List.copyOf(before.getBookings()));
+        assertEquals(List.of(customer), List.copyOf(before.getCustomers()));
+
+        SystemSnapshot after = fbs.getSnapshot();
+        assertTrue(after.getVersion() > before.getVersion());
+        assertEquals(List.of(first), List.copyOf(after.getFlights()));
+        assertTrue(after.getBookings().isEmpty());
+        assertNull(after.getFlight(2), "Deleted flight should not be in the snapshot");
+        assertNotNull(after.getCustomer(2));
+    }
+}
@@ -0,0 +1,105 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-threaded stress tests for seat reservation on Flight.
+ * Tests that concurrent bookings never take more seats than the capacity.
+ */
+public class FlightSeatStressTest {
+
+    private static final int THREADS = 8;
+    private static final int CAPACITY = 50;
+
+    /**
+     * Test that many threads booking at once fill the flight exactly.
+     */
+    @Test
+    public void testConcurrentBookingsNeverOverbook() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            Flight flight = new Flight(1, "BA1", "London", "Paris", LocalDate.of(2025, 1, 1), CAPACITY, 100.0);
+            AtomicInteger added = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+
+            Thread[] threads = new Thread[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                int first = t * 100;
+                threads[t] = new Thread(() -> {
+                    awaitQuietly(start);
+                    for (int i = 0; i < 100; i++) {
+                        if (flight.addPassengerSafe(new Customer(first + i, "C", "0", "c@x", "h"))) {
+                            added.incrementAndGet();
+                        }
+                    }
+                });
+                threads[t].start();
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(CAPACITY, added.get(), "Exactly the capacity should be booked");
+            assertEquals(CAPACITY, flight.getPassengerCount());
+            assertEquals(CAPACITY, flight.getPassengers().size());
+            assertEquals(0, flight.getAvailableSeats());
+        }
+    }
+
+    /**
+     * Test that capacity holds while bookings and cancellations interleave.
+     */
+    @Test
+    public void testCapacityHoldsWhileCancelling() throws Exception {
+        Flight flight = new Flight(1, "BA1", "London", "Paris", LocalDate.of(2025, 1, 1), CAPACITY, 100.0);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger maxSeen = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int first = t * 1_000;
+            threads[t] = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < 20_000; i++) {
+                    Customer customer = new Customer(first + i % 1_000, "C", "0", "c@x", "h");
+                    if (flight.addPassengerSafe(customer)) {
+                        flight.removePassenger(customer);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        Thread monitor = new Thread(() -> {
+            while (running.get()) {
+                maxSeen.accumulateAndGet(flight.getPassengerCount(), Math::max);
+                maxSeen.accumulateAndGet(flight.getPassengers().size(), Math::max);
+            }
+        });
+        monitor.start();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        running.set(false);
+        monitor.join();
+
+        assertTrue(maxSeen.get() <= CAPACITY, "Seen " + maxSeen.get() + " passengers on a flight of " + CAPACITY);
+        assertEquals(0, flight.getPassengerCount(), "Every seat should have been given back");
+        assertTrue(flight.getPassengers().isEmpty());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
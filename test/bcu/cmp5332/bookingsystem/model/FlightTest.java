@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
+import java.util.Set;
 
 /**
  * Unit tests for the Flight class.
@@ -129,4 +130,17 @@ public class FlightTest {
         flight.removePassenger(customer1);
         assertEquals(1, flight.getAvailableSeats(), "Should have 1 available seat after removal");
     }
+
+    /**
+     * Test that the passenger view is read-only and follows later changes.
+     */
+    @Test
+    public void testPassengerViewIsLiveAndReadOnly() {
+        Set<Customer> passengers = flight.getPassengers();
+        flight.addPassengerSafe(customer1);
+
+        assertEquals(1, flight.getPassengerCount());
+        assertTrue(passengers.contains(customer1), "View should show the new passenger");
+        assertThrows(UnsupportedOperationException.class, () -> passengers.add(customer2));
+    }
 }
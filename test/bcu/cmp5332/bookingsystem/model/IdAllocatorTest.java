@@ -0,0 +1,98 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unit tests for the IdAllocator class.
+ * Tests that ids are unique across threads and stay above loaded ids and saved marks.
+ */
+public class IdAllocatorTest {
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        IdAllocator.setStore(null);
+    }
+
+    /**
+     * Test that threads allocating at the same time never get the same id.
+     */
+    @Test
+    public void testIdsUniqueAcrossThreads() throws Exception {
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    assertTrue(ids.add(IdAllocator.BOOKINGS.next()), "Id handed out twice");
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, ids.size());
+    }
+
+    /**
+     * Test that ids already in use are never handed out.
+     */
+    @Test
+    public void testAdvancePast() {
+        int used = IdAllocator.BOOKINGS.next() + 1_000;
+
+        IdAllocator.BOOKINGS.advancePast(used);
+
+        assertTrue(IdAllocator.BOOKINGS.next() > used, "Next id should be above the loaded one");
+    }
+
+    /**
+     * Test that running out of ids throws instead of wrapping around.
+     */
+    @Test
+    public void testThrowsWhenIdsRunOut() {
+        IdAllocator allocator = new IdAllocator("test", false);
+        allocator.advancePast(Integer.MAX_VALUE - 3);
+
+        assertEquals(Integer.MAX_VALUE - 2, allocator.next());
+        assertEquals(Integer.MAX_VALUE - 1, allocator.next());
+        assertThrows(IllegalStateException.class, allocator::next);
+
+        IdAllocator full = new IdAllocator("test", false);
+        full.advancePast(Integer.MAX_VALUE);
+        assertThrows(IllegalStateException.class, full::next);
+    }
+
+    /**
+     * Test that numbering continues above a saved mark and new blocks are recorded.
+     */
+    @Test
+    public void testContinuesAboveSavedMark() throws Exception {
+        Map<String, Integer> marks = new HashMap<>();
+        marks.put("flights", 5_000_000);
+        IdAllocator.setStore(new IdAllocator.Store() {
+            @Override
+            public int load(String name) {
+                return marks.getOrDefault(name, 0);
+            }
+
+            @Override
+            public void save(String name, int mark) {
+                marks.put(name, mark);
+            }
+        });
+
+        int id = IdAllocator.FLIGHTS.next();
+
+        assertTrue(id >= 5_000_000, "Id should be above the saved mark");
+        assertTrue(marks.get("flights") > id, "Mark should cover the handed out id");
+    }
+}
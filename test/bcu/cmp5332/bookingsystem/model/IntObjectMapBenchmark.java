@@ -0,0 +1,126 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark for IntObjectMap and OrderedIntObjectMap against TreeMap.
+ * Fills each map with consecutive ids, as the entity stores hold, and
+ * reports the build time, the average latency of a random lookup and the
+ * heap retained by the map itself (not counting its values).
+ *
+ * <p>Usage: {@code IntObjectMapBenchmark [entries]} (default: 2,000,000).
+ * Run with a fixed heap, e.g. {@code -Xms2g -Xmx2g}, for stable footprint
+ * numbers.</p>
+ */
+public class IntObjectMapBenchmark {
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+    private static final int LOOKUPS = 2_000_000;
+
+    // all maps share the same values, so only the map structure is measured
+    private static Object[] values;
+    // the map under test; cleared to measure how much heap it held
+    private static volatile Object retained;
+
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        values = new Object[entries];
+        for (int i = 0; i < entries; i++) {
+            values[i] = new Object();
+        }
+        int[] keys = new int[LOOKUPS];
+        Random random = new Random(1);
+        for (int i = 0; i < LOOKUPS; i++) {
+            keys[i] = 1 + random.nextInt(entries);
+        }
+        System.out.printf("%,d entries, %,d random lookups per run%n", entries, LOOKUPS);
+
+        run("TreeMap<Integer>", () -> {
+            Map<Integer, Object> map = new TreeMap<>();
+            for (int i = 0; i < entries; i++) {
+                map.put(i + 1, values[i]);
+            }
+            return map;
+        }, map -> {
+            Map<Integer, Object> m = map;
+            return m::get;
+        }, entries, keys);
+
+        run("OrderedIntObjectMap", () -> {
+            OrderedIntObjectMap<Object> map = new OrderedIntObjectMap<>();
+            for (int i = 0; i < entries; i++) {
+                map.put(i + 1, values[i]);
+            }
+            return map;
+        }, map -> map::get, entries, keys);
+
+        run("IntObjectMap", () -> {
+            IntObjectMap<Object> map = new IntObjectMap<>();
+            for (int i = 0; i < entries; i++) {
+                map.put(i + 1, values[i]);
+            }
+            return map;
+        }, map -> map::get, entries, keys);
+    }
+
+    /**
+     * Builds one map, times lookups, then measures the heap it retained.
+     */
+    private static <M> void run(String name, Supplier<M> build, Lookup<M> lookup, int entries, int[] keys) {
+        long start = System.nanoTime();
+        retained = build.get();
+        long buildNanos = System.nanoTime() - start;
+
+        @SuppressWarnings("unchecked")
+        IntFunction<Object> get = lookup.of((M) retained);
+        long sink = 0;
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            sink += lookups(get, keys);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long t = System.nanoTime();
+            sink += lookups(get, keys);
+            best = Math.min(best, System.nanoTime() - t);
+        }
+        if (sink != (long) (WARMUP_RUNS + MEASURED_RUNS) * keys.length) {
+            throw new IllegalStateException("Missing keys in " + name);
+        }
+
+        // footprint: what is freed when the map (but not its values) goes
+        get = null;
+        long withMap = usedHeap();
+        retained = null;
+        long bytes = withMap - usedHeap();
+
+        System.out.printf("%-20s heap=%7.1f MB (%5.1f B/entry)  build=%6.1f ms  lookup=%6.1f ns/op%n",
+                name, bytes / 1e6, (double) bytes / entries, buildNanos / 1e6, (double) best / keys.length);
+    }
+
+    private static long lookups(IntFunction<Object> get, int[] keys) {
+        long found = 0;
+        for (int key : keys) {
+            if (get.apply(key) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private interface Lookup<M> {
+        IntFunction<Object> of(M map);
+    }
+}
@@ -0,0 +1,72 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests for the IntObjectMap class.
+ * Tests lookups, replacement and removal against a HashMap.
+ */
+public class IntObjectMapTest {
+
+    /**
+     * Test that put, get and replace behave like a map.
+     */
+    @Test
+    public void testPutAndGet() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+
+        assertNull(map.put(1, "one"));
+        assertNull(map.put(0, "zero"));
+        assertEquals("one", map.put(1, "uno"), "Replacing should return the old value");
+
+        assertEquals("uno", map.get(1));
+        assertEquals("zero", map.get(0));
+        assertNull(map.get(2));
+        assertEquals(2, map.size());
+    }
+
+    /**
+     * Test that random puts and removes match a HashMap, across several resizes.
+     */
+    @Test
+    public void testMatchesHashMap() {
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(2_000) - 100;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = -100; key < 1_900; key++) {
+            assertEquals(expected.get(key), map.get(key), "Key " + key);
+        }
+        int count = 0;
+        for (Integer value : map.values()) {
+            assertNotNull(value);
+            count++;
+        }
+        assertEquals(expected.size(), count, "values() should visit each entry once");
+    }
+
+    /**
+     * Test that null values are rejected.
+     */
+    @Test
+    public void testNullValue() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+    }
+}
@@ -0,0 +1,106 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Unit tests for the OrderedIntObjectMap class.
+ * Tests that lookups and iteration order match a TreeMap.
+ */
+public class OrderedIntObjectMapTest {
+
+    /**
+     * Test that values come back in key order whatever the insertion order.
+     */
+    @Test
+    public void testIteratesInKeyOrder() {
+        OrderedIntObjectMap<String> map = new OrderedIntObjectMap<>();
+        map.put(5, "five");
+        map.put(1, "one");
+        map.put(3, "three");
+        map.put(9, "nine");
+
+        assertEquals(List.of("one", "three", "five", "nine"), new ArrayList<>(map.values()));
+        assertEquals(1, map.firstKey());
+        assertEquals(9, map.lastKey());
+        assertEquals("three", map.get(3));
+    }
+
+    /**
+     * Test that random puts and removes match a TreeMap, in content and order.
+     */
+    @Test
+    public void testMatchesTreeMap() {
+        OrderedIntObjectMap<Integer> map = new OrderedIntObjectMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 10_000; i++) {
+            int key = random.nextInt(1_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 1_000; key++) {
+            assertEquals(expected.get(key), map.get(key), "Key " + key);
+        }
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+    }
+
+    /**
+     * Test that removing most entries, from the front, the back and the
+     * middle, keeps the order and bounds, and that removed keys can be put
+     * back before and after the map compacts.
+     */
+    @Test
+    public void testRemoveAndReinsert() {
+        OrderedIntObjectMap<Integer> map = new OrderedIntObjectMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int key = 1; key <= 1_000; key++) {
+            map.put(key, key);
+            expected.put(key, key);
+        }
+
+        for (int key = 1; key <= 1_000; key++) {
+            if (key <= 300 || key > 900 || key % 3 == 0) {
+                assertEquals(Integer.valueOf(key), map.remove(key));
+                expected.remove(key);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected.firstKey().intValue(), map.firstKey());
+        assertEquals(expected.lastKey().intValue(), map.lastKey());
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+
+        for (int key = 3; key <= 1_200; key += 3) {
+            assertNull(map.put(key, -key));
+            expected.put(key, -key);
+        }
+        assertEquals(3, map.firstKey());
+        assertEquals(1_200, map.lastKey());
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()));
+        for (int key = 0; key <= 1_201; key++) {
+            assertEquals(expected.get(key), map.get(key), "Key " + key);
+        }
+    }
+
+    /**
+     * Test that the bounds of an empty map are reported as missing.
+     */
+    @Test
+    public void testEmptyBounds() {
+        OrderedIntObjectMap<String> map = new OrderedIntObjectMap<>();
+
+        assertTrue(map.isEmpty());
+        assertThrows(java.util.NoSuchElementException.class, map::lastKey);
+    }
+}
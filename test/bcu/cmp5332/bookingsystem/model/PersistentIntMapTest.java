@@ -0,0 +1,122 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Unit tests for the PersistentIntMap class.
+ * Tests that lookups and iteration order match a TreeMap and that changes
+ * leave earlier versions untouched.
+ */
+public class PersistentIntMapTest {
+
+    /**
+     * Test that values come back in key order whatever the insertion order.
+     */
+    @Test
+    public void testIteratesInKeyOrder() {
+        PersistentIntMap<String> map = PersistentIntMap.<String>empty()
+                .put(5, "five")
+                .put(1, "one")
+                .put(70_000, "big")
+                .put(3, "three");
+
+        assertEquals(List.of("one", "three", "five", "big"), new ArrayList<>(map.values()));
+        assertEquals("big", map.get(70_000));
+        assertNull(map.get(70_001));
+        assertNull(map.get(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Test that a change returns a new map and leaves the old one as it was.
+     */
+    @Test
+    public void testOldVersionsUnchanged() {
+        PersistentIntMap<String> one = PersistentIntMap.<String>empty().put(1, "one");
+        PersistentIntMap<String> two = one.put(2, "two");
+        PersistentIntMap<String> none = two.remove(1).remove(2);
+
+        assertEquals(List.of("one"), new ArrayList<>(one.values()));
+        assertEquals(List.of("one", "two"), new ArrayList<>(two.values()));
+        assertTrue(none.isEmpty());
+        assertSame(two, two.put(2, "two".intern()), "Putting the same value should not copy");
+        assertSame(two, two.remove(3), "Removing a missing key should not copy");
+    }
+
+    /**
+     * Test that edits under a token give the same maps as copying edits, and
+     * that a map stays as it was once its token is no longer used.
+     */
+    @Test
+    public void testEditTokenMatchesCopying() {
+        Object edit = new Object();
+        PersistentIntMap<Integer> edited = PersistentIntMap.empty();
+        PersistentIntMap<Integer> copied = PersistentIntMap.empty();
+        for (int key = 0; key < 2_000; key += 3) {
+            edited = edited.put(key, key, edit);
+            copied = copied.put(key, key);
+        }
+        for (int key = 0; key < 2_000; key += 9) {
+            edited = edited.remove(key, edit);
+            copied = copied.remove(key);
+        }
+        assertEquals(new ArrayList<>(copied.values()), new ArrayList<>(edited.values()));
+
+        PersistentIntMap<Integer> frozen = edited;
+        List<Integer> frozenValues = new ArrayList<>(frozen.values());
+        Object nextEdit = new Object();
+        for (int key = 1; key < 2_000; key += 3) {
+            edited = edited.put(key, key, nextEdit).remove(key + 2, nextEdit);
+        }
+        assertEquals(frozenValues, new ArrayList<>(frozen.values()), "Map under an old token should not change");
+        assertEquals(frozenValues.size(), frozen.size());
+    }
+
+    /**
+     * Test that random puts and removes match a TreeMap, in content and
+     * order, across several trie depths.
+     */
+    @Test
+    public void testMatchesTreeMap() {
+        for (int bound : new int[] {30, 1_000, 100_000, Integer.MAX_VALUE}) {
+            PersistentIntMap<Integer> map = PersistentIntMap.empty();
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+            Random random = new Random(bound);
+
+            for (int i = 0; i < 5_000; i++) {
+                int key = random.nextInt(bound);
+                if (random.nextInt(3) == 0 && !expected.isEmpty()) {
+                    key = expected.ceilingKey(key) != null ? expected.ceilingKey(key) : expected.firstKey();
+                    expected.remove(key);
+                    map = map.remove(key);
+                } else {
+                    expected.put(key, i);
+                    map = map.put(key, i);
+                }
+            }
+
+            assertEquals(expected.size(), map.size());
+            for (int key : expected.keySet()) {
+                assertEquals(expected.get(key), map.get(key), "Key " + key);
+            }
+            assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()), "Bound " + bound);
+        }
+    }
+
+    /**
+     * Test that negative keys and null values are rejected.
+     */
+    @Test
+    public void testRejectsNegativeKeysAndNullValues() {
+        PersistentIntMap<String> map = PersistentIntMap.empty();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1, "minus one"));
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+        assertNull(map.get(-1));
+    }
+}
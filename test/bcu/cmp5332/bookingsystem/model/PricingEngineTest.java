@@ -0,0 +1,107 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+/**
+ * Unit tests for the PricingEngine class.
+ * Tests the load, date and route demand multipliers and cache invalidation.
+ */
+public class PricingEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 11, 11);
+
+    private static Flight flight(int id, String origin, int daysAhead, int capacity) {
+        return new Flight(id, "BA" + id, origin, "Paris", TODAY.plusDays(daysAhead), capacity, 100.0);
+    }
+
+    private static Customer customer(int id) {
+        return new Customer(id, "C" + id, "0", "c" + id + "@example.com");
+    }
+
+    /**
+     * Test the multipliers at their end points and tier boundaries.
+     */
+    @Test
+    public void testMultipliers() {
+        assertEquals(0.8, PricingEngine.loadMultiplier(0), 1e-9);
+        assertEquals(2.0, PricingEngine.loadMultiplier(1), 1e-9);
+        assertEquals(0.9, PricingEngine.dateMultiplier(PricingEngine.EARLY_DAYS), 1e-9);
+        assertEquals(1.0, PricingEngine.dateMultiplier(PricingEngine.STANDARD_DAYS), 1e-9);
+        assertEquals(1.15, PricingEngine.dateMultiplier(PricingEngine.LATE_DAYS), 1e-9);
+        assertEquals(1.35, PricingEngine.dateMultiplier(0), 1e-9);
+        assertEquals(0.85, PricingEngine.demandMultiplier(0), 1e-9);
+        assertEquals(1.15, PricingEngine.demandMultiplier(1), 1e-9);
+    }
+
+    /**
+     * Test that the fare follows the seats taken on a flight outside any
+     * system, where route demand is neutral.
+     */
+    @Test
+    public void testQuoteFollowsLoad() {
+        PricingEngine pricing = new PricingEngine(TODAY);
+        Flight flight = flight(1, "London", 30, 4);
+
+        Customer second = customer(2);
+        assertEquals(80.0, pricing.quote(flight), 1e-9);
+        flight.addPassengerSafe(customer(1));
+        flight.addPassengerSafe(second);
+        assertEquals(110.0, pricing.quote(flight), 1e-9, "Half full: 0.8 + 1.2 / 4");
+        assertTrue(flight.tryHoldSeat());
+        assertEquals(147.5, pricing.quote(flight), 1e-9, "Held seats count as taken");
+        flight.releaseHeldSeat();
+        flight.removePassenger(second);
+        assertEquals(87.5, pricing.quote(flight), 1e-9);
+    }
+
+    /**
+     * Test that changing the price, capacity or date drops the cached curve.
+     */
+    @Test
+    public void testInvalidation() {
+        PricingEngine pricing = new PricingEngine(TODAY);
+        Flight flight = flight(1, "London", 30, 4);
+        flight.addPassengerSafe(customer(1));
+        assertEquals(87.5, pricing.quote(flight), 1e-9);
+
+        flight.setPrice(200.0);
+        assertEquals(175.0, pricing.quote(flight), 1e-9);
+        flight.setCapacity(2);
+        assertEquals(220.0, pricing.quote(flight), 1e-9);
+        flight.setDepartureDate(TODAY.plusDays(3));
+        assertEquals(297.0, pricing.quote(flight), 1e-9);
+    }
+
+    /**
+     * Test that route demand counts the active flights between the same
+     * airports only.
+     */
+    @Test
+    public void testRouteDemand() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        PricingEngine pricing = fbs.getPricing();
+        Flight first = flight(1, "London", 30, 2);
+        Flight second = flight(2, "London", 40, 2);
+        Flight other = flight(3, "Berlin", 30, 2);
+        fbs.addFlight(first);
+        fbs.addFlight(second);
+        fbs.addFlight(other);
+
+        assertEquals(68.0, pricing.quote(second), 1e-9, "Empty route: 80 * 0.85");
+        first.addPassengerSafe(customer(1));
+        first.addPassengerSafe(customer(2));
+        assertEquals(80.0, pricing.quote(second), 1e-9, "Route half full");
+        assertEquals(68.0, pricing.quote(other), 1e-9, "Other routes are unaffected");
+
+        fbs.deleteFlight(first);
+        assertEquals(68.0, pricing.quote(second), 1e-9, "Deleted flights leave the route");
+        Flight third = flight(4, "London", 30, 6);
+        fbs.addFlight(third);
+        third.addPassengerSafe(customer(1));
+        third.addPassengerSafe(customer(2));
+        assertEquals(74.0, pricing.quote(second), 1e-9, "2 of 8 seats taken");
+    }
+}
@@ -0,0 +1,114 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the RouteDay class and the fare calendar.
+ * Tests the cheapest fare and free seats per day as flights change.
+ */
+public class RouteDayTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 1);
+
+    private static Flight flight(int id, String destination, int day, int capacity, double price) {
+        return new Flight(id, "F" + id, "London", destination, DAY.plusDays(day), capacity, price);
+    }
+
+    private static Customer customer(int id) {
+        return new Customer(id, "C" + id, "0", "c" + id + "@example.com");
+    }
+
+    private static List<LocalDate> dates(List<RouteDay> days) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (RouteDay day : days) {
+            dates.add(day.getDate());
+        }
+        return dates;
+    }
+
+    /**
+     * Test that the calendar has one entry per day with flights on the route.
+     */
+    @Test
+    public void testCalendarDays() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addFlight(flight(1, "Paris", 0, 10, 100.0));
+        fbs.addFlight(flight(2, "Paris", 0, 10, 80.0));
+        fbs.addFlight(flight(3, "Paris", 2, 10, 90.0));
+        fbs.addFlight(flight(4, "Rome", 1, 10, 50.0));
+
+        List<RouteDay> days = fbs.getFareCalendar("London", "Paris", null, null);
+        assertEquals(List.of(DAY, DAY.plusDays(2)), dates(days));
+        assertEquals(2, days.get(0).getFlights().size());
+        assertEquals(2, days.get(0).getCheapestFlight().getId());
+        assertEquals(fbs.getPricing().quote(fbs.getFlightByID(2)), days.get(0).getMinFare(), 1e-9);
+        assertEquals(20, days.get(0).getAvailableSeats());
+
+        assertEquals(List.of(DAY.plusDays(2)), dates(fbs.getFareCalendar("London", "Paris", DAY.plusDays(1), null)));
+        assertTrue(fbs.getFareCalendar("London", "Nowhere", null, null).isEmpty());
+    }
+
+    /**
+     * Test that bookings, holds, price and capacity changes update the day.
+     */
+    @Test
+    public void testUpdates() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight cheap = flight(1, "Paris", 0, 2, 80.0);
+        Flight dear = flight(2, "Paris", 0, 2, 100.0);
+        fbs.addFlight(cheap);
+        fbs.addFlight(dear);
+        RouteDay day = fbs.getFareCalendar("London", "Paris", null, null).get(0);
+
+        assertSame(cheap, day.getCheapestFlight());
+        cheap.addPassengerSafe(customer(1));
+        assertEquals(3, day.getAvailableSeats());
+        assertTrue(cheap.tryHoldSeat());
+        assertEquals(2, day.getAvailableSeats(), "Held seats are not free");
+        assertSame(dear, day.getCheapestFlight(), "Full flights are left out");
+
+        cheap.releaseHeldSeat();
+        assertSame(dear, day.getCheapestFlight(), "Half full, 88 against 80 empty");
+        cheap.setPrice(60.0);
+        assertSame(cheap, day.getCheapestFlight(), "Repriced");
+        dear.setCapacity(0);
+        assertSame(cheap, day.getCheapestFlight());
+        assertEquals(1, day.getAvailableSeats());
+
+        cheap.addPassengerSafe(customer(2));
+        assertNull(day.getCheapestFlight());
+        assertEquals(-1, day.getMinFare(), 1e-9);
+        assertEquals(0, day.getAvailableSeats());
+    }
+
+    /**
+     * Test that deleted and added flights leave and join their day.
+     */
+    @Test
+    public void testFlightsJoinAndLeave() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        Flight cheap = flight(1, "Paris", 0, 10, 80.0);
+        fbs.addFlight(cheap);
+        fbs.addFlight(flight(2, "Paris", 0, 10, 100.0));
+        RouteDay day = fbs.getFareCalendar("London", "Paris", null, null).get(0);
+
+        fbs.deleteFlight(cheap);
+        assertEquals(2, day.getCheapestFlight().getId());
+        assertEquals(10, day.getAvailableSeats());
+        cheap.setPrice(10.0);
+        assertEquals(2, day.getCheapestFlight().getId(), "Deleted flights no longer mark the day");
+
+        fbs.addFlight(flight(3, "Paris", 0, 10, 5.0));
+        assertEquals(3, day.getCheapestFlight().getId());
+        assertEquals(20, day.getAvailableSeats());
+
+        fbs.deleteFlight(fbs.getFlightByID(2));
+        fbs.deleteFlight(fbs.getFlightByID(3));
+        assertTrue(fbs.getFareCalendar("London", "Paris", null, null).isEmpty());
+    }
+}
@@ -0,0 +1,107 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the RouteGraph class.
+ * Tests itinerary order, connection limits and updates as flights change.
+ */
+public class RouteGraphTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 1);
+
+    private static Flight flight(int id, String origin, String destination, int day) {
+        return new Flight(id, "F" + id, origin, destination, DAY.plusDays(day), 10, 100.0);
+    }
+
+    private static List<List<Integer>> ids(List<RouteGraph.Itinerary> itineraries) {
+        List<List<Integer>> ids = new ArrayList<>();
+        for (RouteGraph.Itinerary itinerary : itineraries) {
+            List<Integer> legs = new ArrayList<>();
+            for (Flight flight : itinerary.getLegs()) {
+                legs.add(flight.getId());
+            }
+            ids.add(legs);
+        }
+        return ids;
+    }
+
+    private static FlightBookingSystem schedule() throws Exception {
+        FlightBookingSystem fbs = new FlightBookingSystem();
+        fbs.addFlight(flight(1, "Birmingham", "Munich", 0));
+        fbs.addFlight(flight(2, "Munich", "Rome", 0));
+        fbs.addFlight(flight(3, "Munich", "Rome", 1));
+        fbs.addFlight(flight(4, "Birmingham", "Rome", 1));
+        fbs.addFlight(flight(5, "Birmingham", "Paris", 0));
+        fbs.addFlight(flight(6, "Paris", "Munich", 1));
+        fbs.addFlight(flight(7, "Munich", "Rome", 5));
+        fbs.addFlight(flight(8, "Rome", "Birmingham", 0));
+        return fbs;
+    }
+
+    /**
+     * Test that itineraries come earliest arrival first, fewest legs first
+     * on the same day.
+     */
+    @Test
+    public void testEarliestArrivalOrder() throws Exception {
+        FlightBookingSystem fbs = schedule();
+
+        List<RouteGraph.Itinerary> found = fbs.searchItineraries("Birmingham", "Rome", DAY, null);
+        assertEquals(List.of(List.of(1, 2), List.of(4), List.of(1, 3), List.of(5, 6, 3)), ids(found),
+                "Flight 7 leaves Munich too long after any arrival there");
+        assertEquals(DAY.plusDays(1), found.get(1).getArrivalDate());
+        assertEquals(DAY, found.get(3).getDepartureDate());
+
+        assertEquals(List.of(List.of(4)), ids(fbs.searchItineraries("Birmingham", "Rome", DAY.plusDays(1), null)));
+        assertEquals(List.of(List.of(1, 2), List.of(1, 3), List.of(5, 6, 3)),
+                ids(fbs.searchItineraries("Birmingham", "Rome", DAY, DAY)), "The first flight leaves by DAY");
+        assertTrue(fbs.searchItineraries("Birmingham", "Nowhere", DAY, null).isEmpty());
+    }
+
+    /**
+     * Test the connection window, leg count and result limits.
+     */
+    @Test
+    public void testLimits() throws Exception {
+        FlightBookingSystem fbs = schedule();
+        RouteGraph graph = fbs.getRouteGraph();
+        int bhx = AirportDictionary.find("Birmingham");
+        int fco = AirportDictionary.find("Rome");
+
+        assertEquals(List.of(List.of(4), List.of(1, 3)), ids(graph.search(bhx, fco, DAY, null, 2, 1, 1, 5)),
+                "At least a day to connect");
+        assertEquals(List.of(List.of(1, 2), List.of(4), List.of(1, 3), List.of(1, 7)),
+                ids(graph.search(bhx, fco, DAY, null, 2, 0, 5, 5)));
+        assertEquals(List.of(List.of(1, 2), List.of(4)), ids(graph.search(bhx, fco, DAY, null, 3, 0, 2, 2)));
+        assertEquals(List.of(List.of(4)), ids(graph.search(bhx, fco, DAY, null, 1, 0, 2, 5)));
+        assertThrows(IllegalArgumentException.class, () -> graph.search(bhx, fco, DAY, null, 3, 2, 1, 5));
+    }
+
+    /**
+     * Test that deleted, added and full flights are reflected at once.
+     */
+    @Test
+    public void testUpdates() throws Exception {
+        FlightBookingSystem fbs = schedule();
+        Flight munichRome = fbs.getFlightByID(2);
+
+        fbs.deleteFlight(munichRome);
+        assertEquals(List.of(List.of(4), List.of(1, 3), List.of(5, 6, 3)),
+                ids(fbs.searchItineraries("Birmingham", "Rome", DAY, null)));
+
+        Flight direct = flight(9, "Birmingham", "Rome", 0);
+        fbs.addFlight(direct);
+        assertEquals(List.of(9), ids(fbs.searchItineraries("Birmingham", "Rome", DAY, null)).get(0));
+
+        direct.setCapacity(0);
+        assertEquals(List.of(4), ids(fbs.searchItineraries("Birmingham", "Rome", DAY, null)).get(0),
+                "Full flights are left out");
+        assertEquals(8, fbs.getRouteGraph().size());
+    }
+}
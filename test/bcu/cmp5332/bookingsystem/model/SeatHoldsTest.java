@@ -0,0 +1,98 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Unit tests for the SeatHolds class.
+ * Tests that holds take seats and give them back on release and expiry.
+ */
+public class SeatHoldsTest {
+
+    private static Flight flight(int capacity) {
+        return new Flight(1, "BA1", "London", "Paris", LocalDate.of(2025, 1, 1), capacity, 99.0);
+    }
+
+    private static Customer customer(int id) {
+        return new Customer(id, "C" + id, "0", "c" + id + "@example.com");
+    }
+
+    /**
+     * Test that held seats are not available, and are freed on expiry.
+     */
+    @Test
+    public void testHoldAndExpire() throws Exception {
+        SeatHolds holds = new SeatHolds(1000, 10, 64, 0);
+        Flight flight = flight(2);
+
+        SeatHolds.Hold first = holds.hold(customer(1), flight, SeatMap.NO_SEAT, 0);
+        SeatHolds.Hold second = holds.hold(customer(2), flight, SeatMap.NO_SEAT, 500);
+        assertEquals("1A", first.getSeatLabel());
+        assertEquals("1B", second.getSeatLabel());
+        assertEquals(0, flight.getAvailableSeats());
+        assertEquals(0, flight.getPassengerCount());
+        assertEquals(2, flight.getHeldSeats());
+        assertNull(holds.hold(customer(3), flight, SeatMap.NO_SEAT, 500), "Flight is full");
+
+        assertTrue(holds.expire(999).isEmpty());
+        assertEquals(List.of(first), holds.expire(1000));
+        assertEquals(1, flight.getAvailableSeats());
+        assertTrue(flight.getSeatMap().isFree(0));
+        assertNull(holds.get(first.getId()));
+
+        assertEquals(List.of(second), holds.expire(5000));
+        assertEquals(2, flight.getAvailableSeats());
+        assertEquals(0, holds.size());
+    }
+
+    /**
+     * Test that a confirmed hold becomes a passenger and never expires.
+     */
+    @Test
+    public void testConfirm() throws Exception {
+        SeatHolds holds = new SeatHolds(1000, 10, 64, 0);
+        Flight flight = flight(3);
+        Customer customer = customer(1);
+
+        SeatHolds.Hold hold = holds.hold(customer, flight, flight.getSeatMap().seatOf("1C"), 0);
+        assertSame(hold, holds.confirm(hold.getId()));
+        assertTrue(flight.getPassengers().contains(customer));
+        assertEquals(1, flight.getPassengerCount());
+        assertEquals(0, flight.getHeldSeats());
+        assertFalse(flight.getSeatMap().isFree(2), "The held seat stays assigned");
+
+        assertTrue(holds.expire(10_000).isEmpty());
+        assertEquals(2, flight.getAvailableSeats());
+        assertThrows(FlightBookingSystemException.class, () -> holds.confirm(hold.getId()));
+
+        SeatHolds.Hold again = holds.hold(customer, flight, SeatMap.NO_SEAT, 0);
+        assertThrows(FlightBookingSystemException.class, () -> holds.confirm(again.getId()),
+                "Already a passenger");
+        assertEquals(2, flight.getAvailableSeats(), "The failed confirm gives the seat back");
+    }
+
+    /**
+     * Test that a released hold frees its seat, and that a taken seat
+     * cannot be held.
+     */
+    @Test
+    public void testRelease() throws Exception {
+        SeatHolds holds = new SeatHolds(1000, 10, 64, 0);
+        Flight flight = flight(3);
+
+        SeatHolds.Hold hold = holds.hold(customer(1), flight, 1, 0);
+        assertThrows(FlightBookingSystemException.class,
+                () -> holds.hold(customer(2), flight, 1, 0), "Seat 1B is held");
+        assertEquals(2, flight.getAvailableSeats());
+
+        holds.release(hold.getId());
+        assertEquals(3, flight.getAvailableSeats());
+        assertTrue(flight.getSeatMap().isFree(1));
+        assertThrows(FlightBookingSystemException.class, () -> holds.release(hold.getId()));
+        assertTrue(holds.expire(10_000).isEmpty());
+    }
+}
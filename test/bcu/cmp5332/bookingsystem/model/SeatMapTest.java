@@ -0,0 +1,108 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import bcu.cmp5332.bookingsystem.main.FlightBookingSystemException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+/**
+ * Unit tests for the SeatMap class.
+ * Tests seat labels, assignment and the adjacent-seat search.
+ */
+public class SeatMapTest {
+
+    /**
+     * Test that labels and seat numbers convert both ways.
+     */
+    @Test
+    public void testLabels() throws Exception {
+        SeatMap seats = new SeatMap(20);
+
+        assertEquals("1A", seats.label(0));
+        assertEquals("2D", seats.label(9));
+        assertEquals(9, seats.seatOf("2d"));
+        assertEquals(4, seats.getRowCount(), "20 seats should need a short fourth row");
+        assertThrows(FlightBookingSystemException.class, () -> seats.seatOf("4C"), "Beyond the short last row");
+        assertThrows(FlightBookingSystemException.class, () -> seats.seatOf("1G"));
+        assertThrows(FlightBookingSystemException.class, () -> seats.seatOf("0A"));
+        assertThrows(FlightBookingSystemException.class, () -> seats.seatOf("A"));
+        assertThrows(FlightBookingSystemException.class, () -> seats.seatOf("99999999999A"));
+    }
+
+    /**
+     * Test that a seat can be assigned once and reused after release.
+     */
+    @Test
+    public void testAssignAndRelease() {
+        SeatMap seats = new SeatMap(12);
+
+        assertTrue(seats.assign(5));
+        assertFalse(seats.assign(5), "Seat should not be assigned twice");
+        assertFalse(seats.assign(12), "Seat beyond the capacity should not exist");
+        assertEquals(1, seats.getOccupiedCount());
+
+        seats.release(5);
+        assertTrue(seats.isFree(5));
+        seats.release(SeatMap.NO_SEAT);
+    }
+
+    /**
+     * Test that adjacent seats are found in one row and never across rows.
+     */
+    @Test
+    public void testFindAdjacent() {
+        SeatMap seats = new SeatMap(18);
+        // row 1: A B _ D _ _   row 2: _ _ C _ _ _   row 3: all free
+        for (int seat : new int[] {0, 1, 3, 8}) {
+            seats.assign(seat);
+        }
+
+        assertEquals(2, seats.findAdjacent(1));
+        assertEquals(4, seats.findAdjacent(2));
+        assertEquals(9, seats.findAdjacent(3), "Should skip to row 2, D-F");
+        assertEquals(12, seats.findAdjacent(6));
+        assertEquals(SeatMap.NO_SEAT, seats.findAdjacent(7), "No row is that wide");
+
+        // seats 5 and 6 are free but in different rows
+        SeatMap split = new SeatMap(12);
+        for (int seat : new int[] {0, 1, 2, 3, 4, 7, 8, 9, 10, 11}) {
+            split.assign(seat);
+        }
+        assertEquals(SeatMap.NO_SEAT, split.findAdjacent(2));
+    }
+
+    /**
+     * Test that assigning adjacent seats takes the whole run, and that a
+     * search skips rows that are completely full.
+     */
+    @Test
+    public void testAssignAdjacentSkipsFullRows() {
+        SeatMap seats = new SeatMap(600);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i * 6, seats.assignAdjacent(6));
+        }
+
+        assertEquals(300, seats.assignAdjacent(2));
+        assertEquals(302, seats.assignAdjacent(3));
+        assertEquals(306, seats.assignAdjacent(2), "Only one seat left in row 51");
+        assertEquals(307, seats.getOccupiedCount());
+    }
+
+    /**
+     * Test that a flight creates its seat map on first use, sized by capacity,
+     * and resizes it when the capacity changes.
+     */
+    @Test
+    public void testFlightSeatMap() throws Exception {
+        Flight flight = new Flight(1, "BA1", "London", "Paris", LocalDate.of(2025, 1, 1), 10, 50.0);
+
+        SeatMap seats = flight.getSeatMap();
+        assertSame(seats, flight.getSeatMap());
+        assertEquals(10, seats.getSeatCount());
+
+        flight.setCapacity(30);
+        assertEquals(30, seats.getSeatCount());
+        assertEquals(28, seats.seatOf("5E"));
+    }
+}
@@ -0,0 +1,76 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for the TimerWheel class.
+ * Tests expiry times, cancelling and deadlines more than a turn away.
+ */
+public class TimerWheelTest {
+
+    /**
+     * Test that timeouts fire on the first tick at or after their deadline.
+     */
+    @Test
+    public void testFiresAtDeadline() {
+        TimerWheel<String> wheel = new TimerWheel<>(10, 8, 1000);
+        wheel.schedule("a", 1025);
+        wheel.schedule("b", 1030);
+        wheel.schedule("late", 500);
+
+        assertEquals(List.of("late"), wheel.advance(1000), "A passed deadline fires at once");
+        assertTrue(wheel.advance(1029).isEmpty(), "1025 rounds up to the 1030 tick");
+        List<String> fired = wheel.advance(1030);
+        Collections.sort(fired);
+        assertEquals(List.of("a", "b"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Test that a cancelled timeout never fires.
+     */
+    @Test
+    public void testCancel() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(10, 8, 0);
+        TimerWheel.Timeout<Integer> first = wheel.schedule(1, 50);
+        wheel.schedule(2, 50);
+        TimerWheel.Timeout<Integer> third = wheel.schedule(3, 50);
+
+        assertTrue(wheel.cancel(third));
+        assertTrue(wheel.cancel(first));
+        assertFalse(wheel.cancel(first));
+        assertEquals(List.of(2), wheel.advance(100));
+        assertFalse(wheel.cancel(first));
+    }
+
+    /**
+     * Test deadlines more than one turn of the wheel away, and a gap of
+     * several turns between advances.
+     */
+    @Test
+    public void testLongDeadlines() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(1, 16, 0);
+        for (int i = 1; i <= 100; i++) {
+            wheel.schedule(i, i * 7);
+        }
+
+        List<Integer> fired = new ArrayList<>();
+        for (long now = 0; now <= 350; now += 5) {
+            for (int i : wheel.advance(now)) {
+                assertTrue(i * 7 <= now, "Fired early: " + i);
+                assertTrue(i * 7 > now - 5, "Fired late: " + i);
+                fired.add(i);
+            }
+        }
+        assertEquals(50, fired.size());
+
+        fired.addAll(wheel.advance(10_000));
+        assertEquals(100, fired.size());
+        assertEquals(0, wheel.size());
+    }
+}
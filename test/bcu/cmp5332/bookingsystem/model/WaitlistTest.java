@@ -0,0 +1,113 @@
+package bcu.cmp5332.bookingsystem.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for the Waitlist class.
+ * Tests the order of service, removal and the customer tiers.
+ */
+public class WaitlistTest {
+
+    private static Customer customer(int id) {
+        return new Customer(id, "C" + id, "0", "c" + id + "@example.com");
+    }
+
+    /**
+     * Test that higher tiers are served first, then earlier requests.
+     */
+    @Test
+    public void testOrderOfService() {
+        Waitlist waitlist = new Waitlist();
+        waitlist.add(customer(1), 100, CustomerTier.STANDARD);
+        waitlist.add(customer(2), 200, CustomerTier.GOLD);
+        waitlist.add(customer(3), 50, CustomerTier.STANDARD);
+        waitlist.add(customer(4), 300, CustomerTier.SILVER);
+        waitlist.add(customer(5), 50, CustomerTier.STANDARD);
+
+        assertEquals(2, waitlist.peek().getCustomer().getId(), "Gold should be served first");
+        assertEquals(5, waitlist.positionOf(1));
+        assertEquals(4, waitlist.positionOf(5), "Same time should keep the order of joining");
+        assertEquals(0, waitlist.positionOf(99));
+
+        int[] expected = {2, 4, 3, 5, 1};
+        List<Waitlist.Entry> entries = waitlist.getEntries();
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], entries.get(i).getCustomer().getId());
+        }
+    }
+
+    /**
+     * Test that a customer can wait only once and can leave from anywhere.
+     */
+    @Test
+    public void testAddAndRemove() {
+        Waitlist waitlist = new Waitlist();
+        for (int i = 1; i <= 5; i++) {
+            assertNotNull(waitlist.add(customer(i), i, CustomerTier.STANDARD));
+        }
+        assertNull(waitlist.add(customer(3), 0, CustomerTier.GOLD), "Already waiting");
+
+        assertEquals(3, waitlist.remove(3).getCustomer().getId());
+        assertNull(waitlist.remove(3));
+        assertFalse(waitlist.contains(3));
+        assertEquals(4, waitlist.size());
+        assertEquals(3, waitlist.positionOf(4));
+
+        assertNotNull(waitlist.remove(1));
+        assertEquals(2, waitlist.peek().getCustomer().getId());
+    }
+
+    /**
+     * Test random joins and leaves against a sorted list.
+     */
+    @Test
+    public void testMatchesSortedReference() {
+        Random random = new Random(42);
+        Waitlist waitlist = new Waitlist();
+        List<Waitlist.Entry> reference = new ArrayList<>();
+        CustomerTier[] tiers = CustomerTier.values();
+
+        for (int step = 0; step < 5000; step++) {
+            int id = random.nextInt(200);
+            if (random.nextInt(3) == 0) {
+                Waitlist.Entry removed = waitlist.remove(id);
+                assertEquals(reference.removeIf(e -> e.getCustomer().getId() == id), removed != null);
+            } else {
+                Waitlist.Entry added = waitlist.add(customer(id), random.nextInt(50), tiers[random.nextInt(3)]);
+                if (added != null) {
+                    reference.add(added);
+                }
+            }
+            reference.sort(Waitlist.ORDER);
+            assertEquals(reference.size(), waitlist.size());
+            assertSame(reference.isEmpty() ? null : reference.get(0), waitlist.peek());
+        }
+        assertEquals(reference, waitlist.getEntries());
+    }
+
+    /**
+     * Test that the tier follows the number of bookings.
+     */
+    @Test
+    public void testTierOf() {
+        Customer customer = customer(1);
+        Flight flight = new Flight(7, "BA7", "London", "Paris", LocalDate.of(2025, 1, 1));
+        assertEquals(CustomerTier.STANDARD, CustomerTier.of(customer));
+
+        for (int i = 0; i < CustomerTier.SILVER_BOOKINGS; i++) {
+            customer.addBooking(new Booking(customer, flight, LocalDate.of(2024, 12, 1)));
+        }
+        assertEquals(CustomerTier.SILVER, CustomerTier.of(customer));
+
+        for (int i = CustomerTier.SILVER_BOOKINGS; i < CustomerTier.GOLD_BOOKINGS; i++) {
+            customer.addBooking(new Booking(customer, flight, LocalDate.of(2024, 12, 1)));
+        }
+        assertEquals(CustomerTier.GOLD, CustomerTier.of(customer));
+    }
+}